@@ -3,9 +3,11 @@ package loop.model;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 import loop.model.repository.CentralRepository;
 import loop.model.simulationengine.ConcreteGame;
+import loop.model.simulationengine.EfficiencyMode;
 import loop.model.simulationengine.EquilibriumCriterion;
 import loop.model.simulationengine.PairBuilder;
 import loop.model.simulationengine.PayoffInLastAdapt;
@@ -48,6 +50,9 @@ public class UserConfiguration implements Serializable {
 	private boolean isMulticonfiguration;
 	//private String variableParameterName;
 	private MulticonfigurationParameter multiconfigurationParameter;
+	private long seed;
+	private EfficiencyMode efficiencyMode;
+	private double efficiencyError;
 	//private List<Double> parameterValues;
 	
 	/**
@@ -76,6 +81,79 @@ public class UserConfiguration implements Serializable {
 			String strategyAdjusterName, List<Double> strategyAdjusterParameters, String equilibriumCriterionName,
 			List<Double> equilibriumCriterionParameters, int maxAdapts, boolean isMulticonfiguration,
 			MulticonfigurationParameter multiconfigurationParameter) {
+		this(gameName, roundCount, iterationCount, mixedAllowed, populationName, pairBuilderName, pairBuilderParameters,
+				successQuantifierName, successQuantifierParameters, strategyAdjusterName, strategyAdjusterParameters,
+				equilibriumCriterionName, equilibriumCriterionParameters, maxAdapts, isMulticonfiguration,
+				multiconfigurationParameter, ThreadLocalRandom.current().nextLong());
+	}
+	
+	/**
+	 * Creates a new UserConfiguration with the given parameters and master seed
+	 * @param gameName the name of the game
+	 * @param roundCount the amount of rounds per adaptionstep
+	 * @param iterationCount the amount of iterations
+	 * @param mixedAllowed {@code true}, if mixed strategies are allowed, {@code false} otherwise.
+	 * @param populationName the name of the population
+	 * @param pairBuilderName the name of the pair builder
+	 * @param pairBuilderParameters a list with the values of the parameters of the pair builder
+	 * @param successQuantifierName the name of the success quantifier
+	 * @param successQuantifierParameters a list with the values of the parameters of the success quantifier
+	 * @param strategyAdjusterName the name of the strategy adjuster
+	 * @param strategyAdjusterParameters a list with the values of the parameters of the strategy adjuster
+	 * @param equilibriumCriterionName the name of the equilibrium criterion
+	 * @param equilibriumCriterionParameters a list with the values of the parameters of the equilibrium criterion
+	 * @param maxAdapts the maximum amount of simulated adaption steps per iteration
+	 * @param isMulticonfiguration {@code true}, if this is a multiconfiguration, {@code false} otherwise
+	 * @param multiconfigurationParameter the multiconfiguration parameter, if this is a multiconfiguration,
+	 *                                    {@code null} otherwise
+	 * @param seed the master seed from which the seeds of all iterations are derived
+	 */
+	public UserConfiguration(String gameName, int roundCount, int iterationCount,
+			boolean mixedAllowed, String populationName, String pairBuilderName,
+			List<Double> pairBuilderParameters, String successQuantifierName, List<Double> successQuantifierParameters,
+			String strategyAdjusterName, List<Double> strategyAdjusterParameters, String equilibriumCriterionName,
+			List<Double> equilibriumCriterionParameters, int maxAdapts, boolean isMulticonfiguration,
+			MulticonfigurationParameter multiconfigurationParameter, long seed) {
+		this(gameName, roundCount, iterationCount, mixedAllowed, populationName, pairBuilderName, pairBuilderParameters,
+				successQuantifierName, successQuantifierParameters, strategyAdjusterName, strategyAdjusterParameters,
+				equilibriumCriterionName, equilibriumCriterionParameters, maxAdapts, isMulticonfiguration,
+				multiconfigurationParameter, seed, null, 0);
+	}
+	
+	/**
+	 * Creates a new UserConfiguration with the given parameters, master seed and way of computing the efficiency
+	 * @param gameName the name of the game
+	 * @param roundCount the amount of rounds per adaptionstep
+	 * @param iterationCount the amount of iterations
+	 * @param mixedAllowed {@code true}, if mixed strategies are allowed, {@code false} otherwise.
+	 * @param populationName the name of the population
+	 * @param pairBuilderName the name of the pair builder
+	 * @param pairBuilderParameters a list with the values of the parameters of the pair builder
+	 * @param successQuantifierName the name of the success quantifier
+	 * @param successQuantifierParameters a list with the values of the parameters of the success quantifier
+	 * @param strategyAdjusterName the name of the strategy adjuster
+	 * @param strategyAdjusterParameters a list with the values of the parameters of the strategy adjuster
+	 * @param equilibriumCriterionName the name of the equilibrium criterion
+	 * @param equilibriumCriterionParameters a list with the values of the parameters of the equilibrium criterion
+	 * @param maxAdapts the maximum amount of simulated adaption steps per iteration
+	 * @param isMulticonfiguration {@code true}, if this is a multiconfiguration, {@code false} otherwise
+	 * @param multiconfigurationParameter the multiconfiguration parameter, if this is a multiconfiguration,
+	 *                                    {@code null} otherwise
+	 * @param seed the master seed from which the seeds of all iterations are derived
+	 * @param efficiencyMode the way the efficiency is computed, or {@code null} to choose it by the amount of agents
+	 * @param efficiencyError the standard error a sampled efficiency must not exceed, if the efficiency mode is
+	 *                        {@link EfficiencyMode#SAMPLED}, ignored otherwise
+	 */
+	public UserConfiguration(String gameName, int roundCount, int iterationCount,
+			boolean mixedAllowed, String populationName, String pairBuilderName,
+			List<Double> pairBuilderParameters, String successQuantifierName, List<Double> successQuantifierParameters,
+			String strategyAdjusterName, List<Double> strategyAdjusterParameters, String equilibriumCriterionName,
+			List<Double> equilibriumCriterionParameters, int maxAdapts, boolean isMulticonfiguration,
+			MulticonfigurationParameter multiconfigurationParameter, long seed, EfficiencyMode efficiencyMode,
+			double efficiencyError) {
+		if (efficiencyMode == EfficiencyMode.SAMPLED && !(efficiencyError > 0)) {
+			throw new IllegalArgumentException("The standard error of a sampled efficiency must be positive.");
+		}
 		
 		this.gameName = gameName;
 		this.roundCount = roundCount;
@@ -93,6 +171,9 @@ public class UserConfiguration implements Serializable {
 		this.maxAdapts = maxAdapts;
 		this.isMulticonfiguration = isMulticonfiguration;
 		this.multiconfigurationParameter = multiconfigurationParameter;
+		this.seed = seed;
+		this.efficiencyMode = efficiencyMode;
+		this.efficiencyError = efficiencyError;
 	}
 	
 	/**
@@ -287,6 +368,33 @@ public class UserConfiguration implements Serializable {
 	    return this.multiconfigurationParameter;
 	}
 	
+	/**
+	 * Returns the master seed of this configuration. The seeds of all iterations of a simulation of this
+	 * configuration are derived from it, so running it again gives the same results.
+	 * @return the master seed of this configuration
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+	
+	/**
+	 * Returns the way the efficiency is computed in a simulation of this configuration, or {@code null} if it is
+	 * chosen by the amount of agents of every elementary configuration.
+	 * @return the efficiency mode of this configuration, or {@code null} if it is chosen automatically
+	 */
+	public EfficiencyMode getEfficiencyMode() {
+		return this.efficiencyMode;
+	}
+	
+	/**
+	 * Returns the standard error a sampled efficiency must not exceed, if the efficiency mode of this configuration
+	 * is {@link EfficiencyMode#SAMPLED}.
+	 * @return the bound of the standard error of a sampled efficiency
+	 */
+	public double getEfficiencyError() {
+		return this.efficiencyError;
+	}
+	
 	/**
 	 * Returns the name of the multiconfiguration parameter of this configuration, if this
 	 * is a multiconfiguration, "" otherwise.
@@ -28,7 +28,9 @@ import loop.plugins.distributions.DiscreteUniformDistributionPlugin;
 import loop.plugins.distributions.PoissonDistributionPlugin;
 import loop.plugins.equilibriumcriterion.RankingEquilibriumPlugin;
 import loop.plugins.equilibriumcriterion.StrategyEquilibriumPlugin;
+import loop.plugins.pairbuilder.CandidateCooperationConsideringPairBuilderPlugin;
 import loop.plugins.pairbuilder.CooperationConsideringPairBuilderPlugin;
+import loop.plugins.pairbuilder.NetworkPairBuilderPlugin;
 import loop.plugins.pairbuilder.RandomCooperationConsideringPairBuilderPlugin;
 import loop.plugins.pairbuilder.RandomPairBuilderPlugin;
 import loop.plugins.strategyadjuster.PreferentialAdaptionPlugin;
@@ -184,6 +186,10 @@ public class CentralRepository {
         pairBuilderPlugin = new CooperationConsideringPairBuilderPlugin();
         this.pairBuilderRepo.addEntity(pairBuilderPlugin.getName(), pairBuilderPlugin);
         pairBuilderPlugin = new RandomCooperationConsideringPairBuilderPlugin();
+        this.pairBuilderRepo.addEntity(pairBuilderPlugin.getName(), pairBuilderPlugin);
+        pairBuilderPlugin = new CandidateCooperationConsideringPairBuilderPlugin();
+        this.pairBuilderRepo.addEntity(pairBuilderPlugin.getName(), pairBuilderPlugin);
+        pairBuilderPlugin = new NetworkPairBuilderPlugin();
         this.pairBuilderRepo.addEntity(pairBuilderPlugin.getName(), pairBuilderPlugin);
 
 	    //success quantifiers
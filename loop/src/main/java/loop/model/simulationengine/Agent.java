@@ -1,19 +1,21 @@
 package loop.model.simulationengine;
 
+import loop.model.simulationengine.strategies.MixedStrategy;
 import loop.model.simulationengine.strategies.Strategy;
 
 /**
  * This class represents an agent. It provides getters for its group afliation, its current and
  * initial capital and its current strategy.
+ * <p>
+ * An agent does not hold any state itself, it is a view on the entry with its index in an
+ * {@link AgentStore}. Agents created by the public constructor get a store of their own.
  * 
  * @author Peter Koepernik
  *
  */
 public class Agent {
-    private int capital;
-    private int initialCapital;
-    private Strategy strategy;
-    private int groupId;
+    private final AgentStore store;
+    private final int index;
     
     /**
      * Creates a new agent with given initial capital, given strategy and given group affiliation.
@@ -23,10 +25,20 @@ public class Agent {
      * @param groupId the {@code id} of the group this agent belongs to, if it is cohesive; {@code 0} otherwise
      */
     public Agent(final int initialCapital, final Strategy initialStrategy, final int groupId) {
-        this.capital = initialCapital;
-        this.initialCapital = initialCapital;
-        this.strategy = initialStrategy;
-        this.groupId = groupId;
+        this.store = new AgentStore(1);
+        this.store.addAgent(initialCapital, initialStrategy, groupId);
+        this.index = 0;
+    }
+    
+    /**
+     * Creates a new view on the agent with the given index in the given store.
+     *
+     * @param store the store holding the state of the agent
+     * @param index the index of the agent in the store
+     */
+    Agent(final AgentStore store, final int index) {
+        this.store = store;
+        this.index = index;
     }
     
     /**
@@ -34,7 +46,7 @@ public class Agent {
      * @return the current capital of this agent
      */
     public int getCapital() {
-        return this.capital;
+        return store.getCapital(index);
     }
     
     /**
@@ -42,7 +54,7 @@ public class Agent {
      * @return the initial capital of this agent
      */
     public int getInitialCapital() {
-        return this.initialCapital;
+        return store.getInitialCapital(index);
     }
     
     /**
@@ -51,7 +63,7 @@ public class Agent {
      * @param capital the amount by which the agents capital shall be increased
      */
     public void addCapital(final int capital) {
-        this.capital += capital;
+        store.addCapital(index, capital);
     }
     
     /**
@@ -59,7 +71,7 @@ public class Agent {
      * @return the current strategy of this agent
      */
     public Strategy getStrategy() {
-        return this.strategy;
+        return store.getStrategy(index);
     }
     
     /**
@@ -68,7 +80,18 @@ public class Agent {
      * @param strategy the strategy this agent shall use
      */
     public void setStrategy(Strategy strategy) {
-        this.strategy = strategy;
+        store.setStrategy(index, strategy);
+    }
+    
+    /**
+     * Moves the mixed strategy of this agent towards the given mixed strategy, see
+     * {@link AgentStore#interpolateStrategy(int, MixedStrategy, double)}.
+     *
+     * @param target the mixed strategy the strategy of this agent shall be moved towards
+     * @param weight the interpolation parameter, between zero and one
+     */
+    public void interpolateStrategy(MixedStrategy target, double weight) {
+        store.interpolateStrategy(index, target, weight);
     }
     
     /**
@@ -76,7 +99,26 @@ public class Agent {
      * @return the id of the group this agent belongs to, if it is cohesive, {@code -1} otherwise
      */
     public int getGroupId() {
-        return this.groupId;
+        return store.getGroupId(index);
+    }
+    
+    /**
+     * Returns the index of this agent in its {@link AgentStore}. All agents of an iteration share
+     * one store, so within an iteration the index identifies an agent uniquely.
+     *
+     * @return the index of this agent in its store
+     */
+    public int getIndex() {
+        return this.index;
+    }
+    
+    /**
+     * Returns the store holding the state of this agent.
+     *
+     * @return the store holding the state of this agent
+     */
+    AgentStore getStore() {
+        return this.store;
     }
     
     /**
@@ -88,17 +130,18 @@ public class Agent {
      */
     public boolean isGroupAffiliated(Agent otherAgent) {
         if (otherAgent == this) return true;
-        return (otherAgent.getGroupId() != -1 && otherAgent.getGroupId() == this.groupId);
+        int groupId = this.getGroupId();
+        return (groupId != -1 && otherAgent.getGroupId() == groupId);
     }
     
     /**
-     * Returns a copy of this agent.
+     * Returns a copy of this agent. The copy has a store of its own.
      * 
      * @return a copy of this agent
      */
     public Agent getCopy() {
-        Agent copy = new Agent(this.initialCapital, this.strategy, this.groupId);
-        copy.capital = this.capital;
+        Agent copy = new Agent(this.getInitialCapital(), this.getStrategy(), this.getGroupId());
+        copy.addCapital(this.getCapital() - this.getInitialCapital());
         return copy;
     }
 }
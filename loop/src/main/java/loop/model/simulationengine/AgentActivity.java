@@ -0,0 +1,104 @@
+package loop.model.simulationengine;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of when the agents of an {@link AgentStore} last played, as maintained by a
+ * {@link SimulationHistoryBuffer} for all added games regardless of how many of them it retains.
+ * <p>
+ * Every added game and every reset of the history advances a stamp. A component that derives values from the
+ * history remembers the stamp at which it did so (see {@link #getStamp()}) and later asks which agents played
+ * since then, so it only has to update the values of those agents. Like the history, the activity is not thread
+ * safe.
+ */
+public class AgentActivity {
+
+    private long stamp;
+    private long resetStamp;
+    private long[] lastGames;
+    private long[] previousGames;
+    private int[] lastOpponents;
+
+    /**
+     * Creates a new activity for the agents of the given store.
+     *
+     * @param store the store of the agents
+     */
+    AgentActivity(final AgentStore store) {
+        this.lastGames = new long[store.size()];
+        this.previousGames = new long[store.size()];
+        this.lastOpponents = new int[store.size()];
+    }
+
+    /**
+     * Records a game between the agents with the given indices.
+     */
+    void record(final int first, final int second) {
+        ensureCapacity(Math.max(first, second) + 1);
+        stamp++;
+        previousGames[first] = lastGames[first];
+        previousGames[second] = lastGames[second];
+        lastGames[first] = stamp;
+        lastGames[second] = stamp;
+        lastOpponents[first] = second;
+        lastOpponents[second] = first;
+    }
+
+    /**
+     * Records a reset of the history.
+     */
+    void reset() {
+        stamp++;
+        resetStamp = stamp;
+    }
+
+    /**
+     * Returns the current stamp, which advances with every added game and every reset of the history.
+     *
+     * @return the current stamp
+     */
+    public long getStamp() {
+        return stamp;
+    }
+
+    /**
+     * Returns whether the history was reset after the given stamp.
+     *
+     * @param since a stamp returned by {@link #getStamp()}
+     * @return whether the history was reset since
+     */
+    public boolean wasResetSince(final long since) {
+        return resetStamp > since;
+    }
+
+    /**
+     * Returns whether the agent with the given index played a game after the given stamp.
+     *
+     * @param agentIndex the index of the agent in the agent store
+     * @param since a stamp returned by {@link #getStamp()}
+     * @return whether the agent played since
+     */
+    public boolean hasPlayedSince(final int agentIndex, final long since) {
+        return agentIndex < lastGames.length && lastGames[agentIndex] > since;
+    }
+
+    /**
+     * Returns the index of the opponent of the agent with the given index if the agent played exactly one game
+     * after the given stamp, {@code -1} if it played no game or several games since.
+     *
+     * @param agentIndex the index of the agent in the agent store
+     * @param since a stamp returned by {@link #getStamp()}
+     * @return the index of the only opponent since the stamp, or {@code -1}
+     */
+    public int getOnlyOpponentSince(final int agentIndex, final long since) {
+        if (!hasPlayedSince(agentIndex, since) || previousGames[agentIndex] > since) return -1;
+        return lastOpponents[agentIndex];
+    }
+
+    private void ensureCapacity(final int agentCount) {
+        if (agentCount <= lastGames.length) return;
+        lastGames = Arrays.copyOf(lastGames, agentCount);
+        previousGames = Arrays.copyOf(previousGames, agentCount);
+        lastOpponents = Arrays.copyOf(lastOpponents, agentCount);
+    }
+}
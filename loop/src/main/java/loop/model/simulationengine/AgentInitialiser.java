@@ -3,6 +3,7 @@ package loop.model.simulationengine;
 import java.util.ArrayList;
 import java.util.List;
 
+import loop.model.simulationengine.distributions.RandomSource;
 import loop.model.simulationengine.strategies.MixedStrategy;
 import loop.model.simulationengine.strategies.Strategy;
 
@@ -24,37 +25,53 @@ public class AgentInitialiser {
      * @return the initialised agents
      */
     public List<Agent> initialiseAgents(List<EngineSegment> segments, boolean mixedStrategiesAllowed) {
-        List<Agent> agents = new ArrayList<Agent>();
+        return initialiseAgentStore(segments, mixedStrategiesAllowed).asList();
+    }
+    
+    /**
+     * Creates all agents of the given segments in a new {@link AgentStore} and initialises them with
+     * capital, strategy and group affiliation. The agents of the segments are stored consecutively in
+     * the order of the segments.
+     * 
+     * @param segments the segments whose agents shall be initialised
+     * @param mixedStrategiesAllowed indicates whether mixed strategies are allowed
+     * @return the store holding the initialised agents
+     */
+    public AgentStore initialiseAgentStore(List<EngineSegment> segments, boolean mixedStrategiesAllowed) {
+        int agentCount = segments.stream().mapToInt(seg -> seg.getAgentCount()).sum();
+        AgentStore store = new AgentStore(agentCount);
         List<Strategy> allStrategies = new ArrayList<Strategy>();
         segments.stream().map(seg -> seg.getStrategyDistribution().getSupport())
             .forEach(supp -> supp.stream().filter(s -> !allStrategies.stream().anyMatch(s2 -> s2.getName().equals(s.getName())))
                 .forEach(s -> allStrategies.add(s)));
+        if (!mixedStrategiesAllowed) {
+            allStrategies.forEach(s -> store.registerStrategy(s));
+        }
+        List<Strategy> componentStrategies = new ArrayList<Strategy>(allStrategies);
         
         for (EngineSegment segment: segments) {
             //determine intial capitals and strategies
-            List<Integer> capitals = segment.getCapitalDistribution().getPicker().pickMany(segment.getAgentCount());
+            int[] capitals = segment.getCapitalDistribution().sample(segment.getAgentCount(), RandomSource.current());
             List<Strategy> strategies = segment.getStrategyDistribution().getPicker().pickMany(segment.getAgentCount());
 
             //wrapping initial strategies in mixed strategy objects if necessary
             if (mixedStrategiesAllowed) {
                 for (int i = 0; i < strategies.size(); i++) {
-                    List<Double> probabilities = new ArrayList<Double>();
-                    for (Strategy s: allStrategies) {
-                        probabilities.add((s.getName().equals(strategies.get(i).getName())) ? 1.0 : 0.0);
+                    double[] probabilities = new double[allStrategies.size()];
+                    for (int j = 0; j < probabilities.length; j++) {
+                        probabilities[j] = (allStrategies.get(j).getName().equals(strategies.get(i).getName())) ? 1.0 : 0.0;
                     }
-                    MixedStrategy mixedStrategy = new MixedStrategy("--autogenerated--", "--autogenerated--",
-                            new ArrayList<Strategy>(allStrategies), probabilities);
-                    strategies.remove(i);
-                    strategies.add(i, mixedStrategy);
+                    strategies.set(i, MixedStrategy.createUnchecked("--autogenerated--", "--autogenerated--",
+                            componentStrategies, probabilities));
                 }
             }
             
             //create and initialise agents
             for (int i = 0; i < segment.getAgentCount(); i++) {
-                agents.add(new Agent(capitals.get(i), strategies.get(i), segment.getGroupId()));
+                store.addAgent(capitals[i], strategies.get(i), segment.getGroupId());
             }
         }
         
-        return agents;
+        return store;
     }
 }
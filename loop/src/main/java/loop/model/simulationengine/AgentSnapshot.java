@@ -0,0 +1,184 @@
+package loop.model.simulationengine;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import loop.model.simulationengine.strategies.MixedStrategy;
+import loop.model.simulationengine.strategies.Strategy;
+
+/**
+ * A compact snapshot of the ranks and strategies of a list of agents, as taken by a
+ * {@link CountingEquilibriumCriterion} at the end of every adaption step. Instead of copying the agents, the
+ * snapshot stores the rank and the strategy of every agent in primitive arrays, indexed by a dense id of the agent,
+ * and the probabilities of mixed strategies in a flat {@code double} array. Taking a snapshot reuses the arrays of
+ * the previous one.
+ * <p>
+ * If all agents belong to the same {@link AgentStore}, the id of an agent is its index in the store. Otherwise the
+ * ids are assigned in the order of the list the snapshot is taken from.
+ */
+public class AgentSnapshot {
+
+    private int size;
+    private AgentStore store;
+    private Map<Agent, Integer> ids;
+
+    private int[] ranks = new int[0];
+    private Strategy[] strategies = new Strategy[0];
+    private boolean[] mixed = new boolean[0];
+    private int stride;
+    private double[] probabilities = new double[0];
+
+    /**
+     * Creates an empty snapshot.
+     */
+    public AgentSnapshot() {
+    }
+
+    /**
+     * Replaces the content of this snapshot by the ranks and strategies of the given agents, where the rank of an
+     * agent is its position in the list.
+     *
+     * @param agents the agents, ordered by rank
+     */
+    public void capture(final List<Agent> agents) {
+        size = agents.size();
+        store = sharedStore(agents);
+        ids = null;
+        if (store == null) {
+            ids = new IdentityHashMap<Agent, Integer>(2 * size);
+            for (int i = 0; i < size; i++) {
+                ids.put(agents.get(i), i);
+            }
+        }
+
+        int idCount = (store != null) ? store.size() : size;
+        if (ranks.length < idCount) {
+            ranks = new int[idCount];
+            strategies = new Strategy[idCount];
+            mixed = new boolean[idCount];
+        }
+        stride = 0;
+        for (int rank = 0; rank < size; rank++) {
+            Strategy strategy = agents.get(rank).getStrategy();
+            if (strategy instanceof MixedStrategy) {
+                stride = Math.max(stride, ((MixedStrategy) strategy).getSize());
+            }
+        }
+        if (probabilities.length < idCount * stride) {
+            probabilities = new double[idCount * stride];
+        }
+
+        for (int rank = 0; rank < size; rank++) {
+            Agent agent = agents.get(rank);
+            int id = idOf(agent);
+            Strategy strategy = agent.getStrategy();
+            ranks[id] = rank;
+            strategies[id] = strategy;
+            mixed[id] = strategy instanceof MixedStrategy;
+            if (mixed[id]) {
+                MixedStrategy mixedStrategy = (MixedStrategy) strategy;
+                int offset = id * stride;
+                for (int c = 0; c < stride; c++) {
+                    probabilities[offset + c] = (c < mixedStrategy.getSize()) ? mixedStrategy.getProbability(c) : 0.0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether this snapshot was taken from the same agents as the given list contains, i.e. whether the
+     * given agents can be compared with this snapshot.
+     *
+     * @param agents the agents
+     * @return whether this snapshot covers the given agents
+     */
+    public boolean covers(final List<Agent> agents) {
+        if (size == 0 || agents.size() != size) return false;
+        Agent first = agents.get(0);
+        return (store != null) ? first.getStore() == store : ids.containsKey(first);
+    }
+
+    /**
+     * Returns the amount of agents in this snapshot.
+     *
+     * @return the amount of agents
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the id of the given agent in this snapshot. The agent must be covered by this snapshot.
+     *
+     * @param agent the agent
+     * @return the id of the agent
+     */
+    public int idOf(final Agent agent) {
+        return (store != null) ? agent.getIndex() : ids.get(agent);
+    }
+
+    /**
+     * Returns the rank the agent with the given id had when this snapshot was taken.
+     *
+     * @param id the id of the agent
+     * @return the previous rank of the agent
+     */
+    public int getRank(final int id) {
+        return ranks[id];
+    }
+
+    /**
+     * Returns the strategy the agent with the given id had when this snapshot was taken.
+     *
+     * @param id the id of the agent
+     * @return the previous strategy of the agent
+     */
+    public Strategy getStrategy(final int id) {
+        return strategies[id];
+    }
+
+    /**
+     * Returns the sum of the absolute differences between the probabilities of the given mixed strategy and the
+     * probabilities of the mixed strategy the agent with the given id had when this snapshot was taken.
+     *
+     * @param id the id of the agent
+     * @param strategy the current strategy of the agent
+     * @return the distance of the strategies in the sum norm
+     */
+    public double getMixedDistance(final int id, final MixedStrategy strategy) {
+        int offset = id * stride;
+        double distance = 0;
+        for (int c = 0; c < strategy.getSize(); c++) {
+            double previous = (c < stride) ? probabilities[offset + c] : 0.0;
+            distance += Math.abs(strategy.getProbability(c) - previous);
+        }
+        for (int c = strategy.getSize(); c < stride; c++) {
+            distance += Math.abs(probabilities[offset + c]);
+        }
+        return distance;
+    }
+
+    /**
+     * Returns whether the agent with the given id had a mixed strategy when this snapshot was taken.
+     *
+     * @param id the id of the agent
+     * @return whether the previous strategy of the agent was mixed
+     */
+    public boolean wasMixed(final int id) {
+        return mixed[id];
+    }
+
+    /**
+     * Returns the store all given agents belong to, or {@code null} if they do not share a store.
+     */
+    static AgentStore sharedStore(final List<Agent> agents) {
+        if (agents.isEmpty()) return null;
+        AgentStore store = agents.get(0).getStore();
+        for (Agent agent: agents) {
+            if (agent.getStore() != store) return null;
+        }
+        return store;
+    }
+}
@@ -0,0 +1,379 @@
+package loop.model.simulationengine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import loop.model.simulationengine.strategies.MixedStrategy;
+import loop.model.simulationengine.strategies.Strategy;
+
+/**
+ * This class stores the state of all agents of an iteration in parallel primitive arrays: the capital,
+ * the initial capital, the group id and a compact strategy index of every agent. The agents themselves
+ * are only thin views on this store, identified by their index (see {@link Agent#getIndex()}).
+ * <p>
+ * Strategies that are shared by many agents (typically the pure strategies of the population) are
+ * kept in a strategy table and referenced by their index in that table. Strategies that are
+ * individual to a single agent, i.e. {@link MixedStrategy}s, are not added to the table; such agents
+ * have the strategy index {@code -1}.
+ * <p>
+ * For every group, the store keeps the amount of agents using each strategy of the table and the sum
+ * of the component probabilities of all mixed strategies. These counters are updated whenever a strategy
+ * is assigned, so strategy portions can be read in time independent of the amount of agents. They assume
+ * that mixed strategies are not modified after they were assigned to an agent, except through
+ * {@link #interpolateStrategy(int, MixedStrategy, double)}.
+ */
+public class AgentStore {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int size;
+    private int[] capitals;
+    private int[] initialCapitals;
+    private int[] groupIds;
+    private int[] strategyIds;
+    private Strategy[] individualStrategies;
+    private boolean[] ownsStrategy;
+    private int[] strategyVersions;
+    private Agent[] agents;
+
+    private List<Strategy> strategyTable = new ArrayList<Strategy>();
+    private Map<Strategy, Integer> strategyTableIds = new IdentityHashMap<Strategy, Integer>();
+
+    //per group, indexed by group id + 1
+    private int[] groupSizes = new int[0];
+    private int[][] strategyCounts = new int[0][];
+    private double[][] componentSums = new double[0][];
+
+    /**
+     * Creates a new, empty agent store.
+     */
+    public AgentStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new, empty agent store with space for the given amount of agents.
+     *
+     * @param capacity the amount of agents that can be stored without resizing
+     */
+    public AgentStore(final int capacity) {
+        int initialCapacity = Math.max(capacity, 1);
+        this.capitals = new int[initialCapacity];
+        this.initialCapitals = new int[initialCapacity];
+        this.groupIds = new int[initialCapacity];
+        this.strategyIds = new int[initialCapacity];
+        this.individualStrategies = new Strategy[initialCapacity];
+        this.ownsStrategy = new boolean[initialCapacity];
+        this.strategyVersions = new int[initialCapacity];
+        this.agents = new Agent[initialCapacity];
+    }
+
+    /**
+     * Adds a new agent with given initial capital, given strategy and given group affiliation
+     * to this store and returns it.
+     *
+     * @param initialCapital the initial capital of the agent
+     * @param initialStrategy the initial strategy of the agent
+     * @param groupId the {@code id} of the group the agent belongs to, if it is cohesive; {@code -1} otherwise
+     * @return the created agent
+     */
+    public Agent addAgent(final int initialCapital, final Strategy initialStrategy, final int groupId) {
+        if (size == capitals.length) {
+            grow();
+        }
+        int index = size++;
+        capitals[index] = initialCapital;
+        initialCapitals[index] = initialCapital;
+        groupIds[index] = groupId;
+        int slot = slot(groupId);
+        groupSizes[slot]++;
+        assignStrategy(index, initialStrategy);
+        agents[index] = new Agent(this, index);
+        return agents[index];
+    }
+
+    /**
+     * Adds the given strategy to the strategy table of this store, if not already contained, and
+     * returns its index in the table.
+     *
+     * @param strategy the strategy that shall be registered
+     * @return the index of the strategy in the strategy table
+     */
+    public int registerStrategy(final Strategy strategy) {
+        Integer id = strategyTableIds.get(strategy);
+        if (id != null) return id;
+        strategyTable.add(strategy);
+        strategyTableIds.put(strategy, strategyTable.size() - 1);
+        return strategyTable.size() - 1;
+    }
+
+    /**
+     * Returns the strategy with the given index in the strategy table.
+     *
+     * @param strategyId the index of the strategy in the strategy table
+     * @return the strategy with the given index
+     */
+    public Strategy getTableStrategy(final int strategyId) {
+        return strategyTable.get(strategyId);
+    }
+
+    /**
+     * Returns the amount of strategies in the strategy table.
+     *
+     * @return the amount of strategies in the strategy table
+     */
+    public int getTableSize() {
+        return strategyTable.size();
+    }
+
+    /**
+     * Returns the amount of agents in this store.
+     *
+     * @return the amount of agents in this store
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the agent with the given index.
+     *
+     * @param index the index of the agent
+     * @return the agent with the given index
+     */
+    public Agent getAgent(final int index) {
+        return agents[index];
+    }
+
+    /**
+     * Returns a new, modifiable list of all agents of this store, ordered by their index. This is
+     * the form in which the agents are handed to pair builders, success quantifiers, strategy adjusters
+     * and equilibrium criteria.
+     *
+     * @return a list of all agents of this store
+     */
+    public List<Agent> asList() {
+        return new ArrayList<Agent>(Arrays.asList(agents).subList(0, size));
+    }
+
+    /**
+     * Returns the current capital of the agent with the given index.
+     *
+     * @param index the index of the agent
+     * @return the current capital of the agent
+     */
+    public int getCapital(final int index) {
+        return capitals[index];
+    }
+
+    /**
+     * Returns the initial capital of the agent with the given index.
+     *
+     * @param index the index of the agent
+     * @return the initial capital of the agent
+     */
+    public int getInitialCapital(final int index) {
+        return initialCapitals[index];
+    }
+
+    /**
+     * Increases the capital of the agent with the given index by the given amount.
+     *
+     * @param index the index of the agent
+     * @param capital the amount by which the capital shall be increased
+     */
+    public void addCapital(final int index, final int capital) {
+        capitals[index] += capital;
+    }
+
+    /**
+     * Returns the group id of the agent with the given index.
+     *
+     * @param index the index of the agent
+     * @return the id of the group the agent belongs to, if it is cohesive, {@code -1} otherwise
+     */
+    public int getGroupId(final int index) {
+        return groupIds[index];
+    }
+
+    /**
+     * Returns the index of the strategy of the agent with the given index in the strategy table,
+     * or {@code -1} if the agent uses an individual strategy.
+     *
+     * @param index the index of the agent
+     * @return the index of the agents strategy in the strategy table, or {@code -1}
+     */
+    public int getStrategyId(final int index) {
+        return strategyIds[index];
+    }
+
+    /**
+     * Returns the current strategy of the agent with the given index.
+     *
+     * @param index the index of the agent
+     * @return the current strategy of the agent
+     */
+    public Strategy getStrategy(final int index) {
+        int id = strategyIds[index];
+        return (id >= 0) ? strategyTable.get(id) : individualStrategies[index];
+    }
+
+    /**
+     * Sets the strategy of the agent with the given index.
+     *
+     * @param index the index of the agent
+     * @param strategy the new strategy of the agent
+     */
+    public void setStrategy(final int index, final Strategy strategy) {
+        if (getStrategy(index) == strategy) return;
+        count(index, -1);
+        assignStrategy(index, strategy);
+        strategyVersions[index]++;
+    }
+
+    /**
+     * Returns the version of the strategy of the agent with the given index. The version is increased whenever
+     * the strategy of the agent is replaced or modified through this store, so values computed from a strategy can
+     * be recognised as outdated.
+     *
+     * @param index the index of the agent
+     * @return the version of the strategy of the agent
+     */
+    public int getStrategyVersion(final int index) {
+        return strategyVersions[index];
+    }
+
+    /**
+     * Moves the mixed strategy of the agent with the given index towards the given mixed strategy, see
+     * {@link MixedStrategy#interpolate(MixedStrategy, double)}. The first time the strategy of an agent is
+     * interpolated, it is replaced by a copy, because the assigned instance may be shared; afterwards the copy is
+     * modified in place.
+     *
+     * @param index the index of the agent, whose strategy must be mixed
+     * @param target the mixed strategy the strategy of the agent shall be moved towards
+     * @param weight the interpolation parameter, between zero and one
+     */
+    public void interpolateStrategy(final int index, final MixedStrategy target, final double weight) {
+        if (strategyIds[index] >= 0) {
+            throw new IllegalArgumentException("Attempted to interpolate the pure strategy of an agent");
+        }
+        MixedStrategy strategy = (MixedStrategy) individualStrategies[index];
+        count(index, -1);
+        if (!ownsStrategy[index]) {
+            strategy = strategy.copy();
+            individualStrategies[index] = strategy;
+            ownsStrategy[index] = true;
+        }
+        strategy.interpolate(target, weight);
+        count(index, 1);
+        strategyVersions[index]++;
+    }
+
+    /**
+     * Returns the amount of agents in the group with the given id.
+     *
+     * @param groupId the {@code id} of the group, {@code -1} for the agents of non-cohesive groups
+     * @return the amount of agents in the group
+     */
+    public int getGroupSize(final int groupId) {
+        int slot = groupId + 1;
+        return (slot < groupSizes.length) ? groupSizes[slot] : 0;
+    }
+
+    /**
+     * Returns the amount of agents in the group with the given id that use the strategy with the given
+     * index in the strategy table.
+     *
+     * @param groupId the {@code id} of the group, {@code -1} for the agents of non-cohesive groups
+     * @param strategyId the index of the strategy in the strategy table
+     * @return the amount of agents in the group using the strategy
+     */
+    public int getStrategyCount(final int groupId, final int strategyId) {
+        int slot = groupId + 1;
+        if (slot >= strategyCounts.length || strategyId >= strategyCounts[slot].length) return 0;
+        return strategyCounts[slot][strategyId];
+    }
+
+    /**
+     * Returns the sum of the probabilities of the component with the given index over the mixed strategies
+     * of all agents in the group with the given id.
+     *
+     * @param groupId the {@code id} of the group, {@code -1} for the agents of non-cohesive groups
+     * @param component the index of the component strategy
+     * @return the sum of the probabilities of the component in the group
+     */
+    public double getComponentSum(final int groupId, final int component) {
+        int slot = groupId + 1;
+        if (slot >= componentSums.length || component >= componentSums[slot].length) return 0.0;
+        return componentSums[slot][component];
+    }
+
+    private void assignStrategy(final int index, final Strategy strategy) {
+        if (strategy instanceof MixedStrategy) {
+            strategyIds[index] = -1;
+            individualStrategies[index] = strategy;
+        } else {
+            strategyIds[index] = registerStrategy(strategy);
+            individualStrategies[index] = null;
+        }
+        ownsStrategy[index] = false;
+        count(index, 1);
+    }
+
+    /**
+     * Adds the current strategy of the agent with the given index to the counters of its group
+     * ({@code sign = 1}) or removes it from them ({@code sign = -1}).
+     */
+    private void count(final int index, final int sign) {
+        int slot = slot(groupIds[index]);
+        int id = strategyIds[index];
+        if (id >= 0) {
+            if (id >= strategyCounts[slot].length) {
+                strategyCounts[slot] = Arrays.copyOf(strategyCounts[slot], strategyTable.size());
+            }
+            strategyCounts[slot][id] += sign;
+        } else {
+            MixedStrategy strategy = (MixedStrategy) individualStrategies[index];
+            if (strategy.getSize() > componentSums[slot].length) {
+                componentSums[slot] = Arrays.copyOf(componentSums[slot], strategy.getSize());
+            }
+            for (int j = 0; j < strategy.getSupportSize(); j++) {
+                int i = strategy.getSupportIndex(j);
+                componentSums[slot][i] += sign * strategy.getProbability(i);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the counters of the group with the given id, creating them if necessary.
+     */
+    private int slot(final int groupId) {
+        int slot = groupId + 1;
+        if (slot >= groupSizes.length) {
+            int length = slot + 1;
+            groupSizes = Arrays.copyOf(groupSizes, length);
+            strategyCounts = Arrays.copyOf(strategyCounts, length);
+            componentSums = Arrays.copyOf(componentSums, length);
+            for (int i = 0; i < length; i++) {
+                if (strategyCounts[i] == null) strategyCounts[i] = new int[0];
+                if (componentSums[i] == null) componentSums[i] = new double[0];
+            }
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = 2 * capitals.length;
+        capitals = Arrays.copyOf(capitals, capacity);
+        initialCapitals = Arrays.copyOf(initialCapitals, capacity);
+        groupIds = Arrays.copyOf(groupIds, capacity);
+        strategyIds = Arrays.copyOf(strategyIds, capacity);
+        individualStrategies = Arrays.copyOf(individualStrategies, capacity);
+        ownsStrategy = Arrays.copyOf(ownsStrategy, capacity);
+        strategyVersions = Arrays.copyOf(strategyVersions, capacity);
+        agents = Arrays.copyOf(agents, capacity);
+    }
+}
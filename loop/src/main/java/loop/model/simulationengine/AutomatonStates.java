@@ -0,0 +1,126 @@
+package loop.model.simulationengine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import loop.model.simulationengine.strategies.AutomatonStrategy;
+
+/**
+ * This class stores the current state of a number of {@link AutomatonStrategy automata} for every ordered
+ * pair of agents of an {@link AgentStore}. The state of a pair {@code (player, opponent)} for an automaton is
+ * the state the automaton would be in if the player used it against the opponent, given all games of the pair
+ * recorded since the last reset. Every recorded game advances the states of all automata, so the state is also
+ * available for automata the player only uses later, e.g. after a strategy adaption.
+ */
+public class AutomatonStates {
+
+    private final AgentStore store;
+    private final AutomatonStrategy[] automata;
+    private final PairTable table;
+
+    /**
+     * Creates a new table of automaton states for the given automata and all agents currently in the given store.
+     *
+     * @param store the store of the agents
+     * @param automata the automata whose states shall be stored
+     */
+    public AutomatonStates(AgentStore store, List<AutomatonStrategy> automata) {
+        this.store = store;
+        this.automata = new ArrayList<AutomatonStrategy>(automata).toArray(new AutomatonStrategy[0]);
+        this.table = new PairTable(store.size(), (this.automata.length + 3) / 4);
+    }
+
+    /**
+     * Returns the index of the given automaton in this table, or {@code -1} if its states are not stored.
+     *
+     * @param automaton the automaton
+     * @return the index of the automaton, or {@code -1}
+     */
+    public int indexOf(AutomatonStrategy automaton) {
+        for (int i = 0; i < automata.length; i++) {
+            if (automata[i] == automaton) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether both given agents are covered by this table.
+     *
+     * @param player the first agent
+     * @param opponent the second agent
+     * @return whether both agents are covered
+     */
+    public boolean covers(Agent player, Agent opponent) {
+        return player.getStore() == store && opponent.getStore() == store && covers(player.getIndex(), opponent.getIndex());
+    }
+
+    /**
+     * Returns whether both agents with the given indices in the store are covered by this table.
+     *
+     * @param player the index of the first agent
+     * @param opponent the index of the second agent
+     * @return whether both agents are covered
+     */
+    public boolean covers(int player, int opponent) {
+        return player < table.getAgentCount() && opponent < table.getAgentCount();
+    }
+
+    /**
+     * Returns the state of the automaton with the given index for the given pair.
+     *
+     * @param automaton the index of the automaton, see {@link #indexOf(AutomatonStrategy)}
+     * @param player the player
+     * @param opponent the opponent
+     * @return the state of the automaton
+     */
+    public int getState(int automaton, Agent player, Agent opponent) {
+        return getState(automaton, player.getIndex(), opponent.getIndex());
+    }
+
+    /**
+     * Returns the state of the automaton with the given index for the pair of agents with the given indices.
+     *
+     * @param automaton the index of the automaton, see {@link #indexOf(AutomatonStrategy)}
+     * @param player the index of the player
+     * @param opponent the index of the opponent
+     * @return the state of the automaton
+     */
+    public int getState(int automaton, int player, int opponent) {
+        int offset = table.find(player, opponent);
+        if (offset < 0) return 0;
+        return (table.values()[offset + automaton / 4] >>> (8 * (automaton % 4))) & 0xFF;
+    }
+
+    /**
+     * Advances the states of both directions of the given pair after a game.
+     *
+     * @param player1 the index of the first player in the agent store
+     * @param player2 the index of the second player in the agent store
+     * @param p1Cooperated whether the first player cooperated
+     * @param p2Cooperated whether the second player cooperated
+     */
+    public void record(int player1, int player2, boolean p1Cooperated, boolean p2Cooperated) {
+        if (player1 >= table.getAgentCount() || player2 >= table.getAgentCount()) return;
+        advance(player1, player2, p1Cooperated, p2Cooperated);
+        advance(player2, player1, p2Cooperated, p1Cooperated);
+    }
+
+    /**
+     * Resets the states of all pairs to the initial state.
+     */
+    public void reset() {
+        table.reset();
+    }
+
+    private void advance(int player, int opponent, boolean ownCooperated, boolean opponentCooperated) {
+        int offset = table.findOrCreate(player, opponent);
+        int[] values = table.values();
+        for (int i = 0; i < automata.length; i++) {
+            int word = offset + i / 4;
+            int shift = 8 * (i % 4);
+            int state = (values[word] >>> shift) & 0xFF;
+            int next = automata[i].nextState(state, ownCooperated, opponentCooperated);
+            values[word] = (values[word] & ~(0xFF << shift)) | (next << shift);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package loop.model.simulationengine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import loop.model.simulationengine.distributions.RandomSource;
+
+/**
+ * Realises an approximation of the "Paarbildung nach Wunsch" pairing mechanism for large populations. Like the
+ * {@link CooperationConsideringPairBuilder}, it tries to maximize the sum of the cooperation probabilities of the
+ * agents of every pair towards each other, but instead of considering all pairs of agents it only keeps the best
+ * few candidates of every agent.
+ * <p>
+ * The candidates of an agent are the agents of highest positive weight among a random sample of
+ * {@value #SAMPLES_PER_CANDIDATE} agents per candidate. The candidate pairs are then matched greedily in the order
+ * of descending weight, and the remaining agents are paired at random. Time and memory are thus linear in the amount
+ * of agents times the amount of candidates per agent, which trades the quality of the pairs against time: the more
+ * candidates, the closer the result gets to the one of the exact pair builder. The total weight of the pairs
+ * built last for a history is recorded, see {@link #getAchievedWeight(SimulationHistory)}, and can be compared
+ * with the one of other pairs, see {@link #getTotalWeight(List, SimulationHistory)}.
+ * <p>
+ * Cooperation probabilities are obtained through {@link SimulationHistory#getCooperationProbability(Agent, Agent)}.
+ * Grouping the agents by their strategy instead of sampling would not be sound, as the cooperation probabilities
+ * of most strategies depend on the games of the individual agents.
+ */
+public class CandidateCooperationConsideringPairBuilder implements PairBuilder {
+
+    public static final String NAME = "Candidate Cooperation Considering Pair Builder";
+    public static final String DESCRIPTION = "Tries to maximize mutual cooperation probability for each builded pair like the"
+            + " cooperation considering pair builder, but only considers a few randomly sampled candidates for every agent, so"
+            + " it scales to very large populations. The more candidates, the more cooperative the pairs, but the longer it takes.";
+
+    /**
+     * The amount of agents sampled for every candidate of an agent.
+     */
+    public static final int SAMPLES_PER_CANDIDATE = 4;
+
+    private final int candidateCount;
+    private PairBuilder randomPairBuilder = new RandomPairBuilder();
+
+    private final Map<SimulationHistory, Double> achievedWeightByHistory
+            = Collections.synchronizedMap(new WeakHashMap<SimulationHistory, Double>());
+
+    /**
+     * Creates a new candidate cooperation considering pair builder that keeps the given amount of candidates per
+     * agent.
+     *
+     * @param candidateCount the amount of candidates per agent, must be positive
+     */
+    public CandidateCooperationConsideringPairBuilder(int candidateCount) {
+        if (candidateCount < 1) {
+            throw new IllegalArgumentException("The amount of candidates per agent must be positive.");
+        }
+        this.candidateCount = candidateCount;
+    }
+
+    @Override
+    public List<AgentPair> buildPairs(List<Agent> agents, SimulationHistory history) {
+        int agentCount = agents.size();
+        if (agentCount < 2) {
+            achievedWeightByHistory.put(history, 0.0);
+            return new ArrayList<AgentPair>();
+        }
+        int k = Math.min(candidateCount, agentCount - 1);
+        int samples = (int) Math.min((long) k * SAMPLES_PER_CANDIDATE, agentCount - 1);
+        RandomSource random = RandomSource.current();
+
+        //the candidate pairs of all agents, given by the positions of their agents in the list
+        int[] ends = new int[Math.multiplyExact(2 * k, agentCount)];
+        double[] weights = new double[k * agentCount];
+        int edgeCount = 0;
+
+        int[] candidates = new int[k];
+        double[] candidateWeights = new double[k];
+        for (int i = 0; i < agentCount; i++) {
+            int found = 0;
+            for (int s = 0; s < samples; s++) {
+                int j = random.nextInt(agentCount - 1);
+                if (j >= i) j++;
+                if (contains(candidates, found, j)) continue;
+                double weight = getWeight(agents.get(i), agents.get(j), history);
+                if (weight <= 0 || (found == k && weight <= candidateWeights[k - 1])) continue;
+
+                //insert the candidate, keeping the candidates in order of descending weight
+                int position = (found < k) ? found++ : k - 1;
+                while (position > 0 && candidateWeights[position - 1] < weight) {
+                    candidates[position] = candidates[position - 1];
+                    candidateWeights[position] = candidateWeights[position - 1];
+                    position--;
+                }
+                candidates[position] = j;
+                candidateWeights[position] = weight;
+            }
+            for (int c = 0; c < found; c++) {
+                ends[2 * edgeCount] = i;
+                ends[2 * edgeCount + 1] = candidates[c];
+                weights[edgeCount] = candidateWeights[c];
+                edgeCount++;
+            }
+        }
+
+        //match greedily, heaviest pairs first; non-negative doubles are ordered like their bits
+        long[] keys = new long[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            keys[e] = Double.doubleToLongBits(weights[e]);
+        }
+        boolean[] matched = new boolean[agentCount];
+        List<AgentPair> pairs = new ArrayList<AgentPair>(agentCount / 2);
+        double achievedWeight = 0;
+        for (int e: IndexSort.descending(keys)) {
+            int a = ends[2 * e];
+            int b = ends[2 * e + 1];
+            if (!matched[a] && !matched[b]) {
+                matched[a] = true;
+                matched[b] = true;
+                pairs.add(new ConcreteAgentPair(agents.get(a), agents.get(b)));
+                achievedWeight += weights[e];
+            }
+        }
+
+        //pair unmatched agents
+        if (2 * pairs.size() != agentCount) {
+            List<Agent> missedAgents = new ArrayList<Agent>();
+            for (int i = 0; i < agentCount; i++) {
+                if (!matched[i]) missedAgents.add(agents.get(i));
+            }
+            List<AgentPair> randomPairs = randomPairBuilder.buildPairs(missedAgents, history);
+            achievedWeight += getTotalWeight(randomPairs, history);
+            pairs.addAll(randomPairs);
+        }
+
+        achievedWeightByHistory.put(history, achievedWeight);
+        return pairs;
+    }
+
+    /**
+     * Returns the amount of candidates this pair builder keeps per agent.
+     *
+     * @return the amount of candidates per agent
+     */
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    /**
+     * Returns the total weight of the pairs built by the last call of {@link #buildPairs(List, SimulationHistory)}
+     * with the given history, i.e. the sum of the cooperation probabilities of the agents of every pair towards
+     * each other, or {@code NaN} if there was no such call.
+     *
+     * @param history the history
+     * @return the total weight of the pairs built last for the history
+     */
+    @Override
+    public double getAchievedWeight(SimulationHistory history) {
+        Double achievedWeight = achievedWeightByHistory.get(history);
+        return (achievedWeight != null) ? achievedWeight : Double.NaN;
+    }
+
+    @Override
+    public HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.NONE;
+    }
+
+    /**
+     * Returns the total weight of the given pairs, i.e. the sum of the cooperation probabilities of the agents of
+     * every pair towards each other. This is the value the cooperation considering pair builders try to maximize,
+     * so it allows to compare the pairs of this pair builder with those of the {@link CooperationConsideringPairBuilder}.
+     *
+     * @param pairs the pairs
+     * @param history the history the pairs were built with
+     * @return the total weight of the pairs
+     */
+    public static double getTotalWeight(List<AgentPair> pairs, SimulationHistory history) {
+        double totalWeight = 0;
+        for (AgentPair pair: pairs) {
+            totalWeight += getWeight(pair.getFirstAgent(), pair.getSecondAgent(), history);
+        }
+        return totalWeight;
+    }
+
+    private static double getWeight(Agent a1, Agent a2, SimulationHistory history) {
+        return history.getCooperationProbability(a1, a2) + history.getCooperationProbability(a2, a1);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+}
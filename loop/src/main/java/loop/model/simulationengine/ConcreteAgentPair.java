@@ -1,6 +1,7 @@
 package loop.model.simulationengine;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -13,6 +14,7 @@ public class ConcreteAgentPair implements AgentPair {
     
     private Agent firstAgent;
     private Agent secondAgent;
+    private List<Agent> agents;
     
     /**
      * Creates a new agent pair with the given agents.
@@ -37,10 +39,9 @@ public class ConcreteAgentPair implements AgentPair {
 
     @Override
     public List<Agent> getAgents() {
-        List<Agent> agents = new ArrayList<Agent>();
-        agents.add(this.firstAgent);
-        agents.add(this.secondAgent);
-        return agents;
+        if (this.agents == null)
+            this.agents = Collections.unmodifiableList(Arrays.asList(this.firstAgent, this.secondAgent));
+        return this.agents;
     }
 
 }
@@ -64,22 +64,8 @@ public class ConcreteGame implements Game {
 
     @Override
     public GameResult play(Agent player1, Agent player2, boolean p1Cooperates, boolean p2Cooperates) {      
-        int payoff1 = 0;
-        int payoff2 = 0;
-        
-        if (p1Cooperates && p2Cooperates) {
-            payoff1 = this.cc1;
-            payoff2 = this.cc2;
-        } else if (p1Cooperates && !p2Cooperates) {
-            payoff1 = this.cn1;
-            payoff2 = this.cn2;
-        } else if (!p1Cooperates && p2Cooperates) {
-            payoff1 = this.nc1;
-            payoff2 = this.nc2;
-        } else if (!p1Cooperates && !p2Cooperates) {
-            payoff1 = this.nn1;
-            payoff2 = this.nn2;
-        }
+        int payoff1 = getFirstPayoff(p1Cooperates, p2Cooperates);
+        int payoff2 = getSecondPayoff(p1Cooperates, p2Cooperates);
         
         player1.addCapital(payoff1);
         player2.addCapital(payoff2);
@@ -87,6 +73,30 @@ public class ConcreteGame implements Game {
         return new GameResult(player1, player2, p1Cooperates, p2Cooperates, payoff1, payoff2);
     }
     
+    /**
+     * Returns the payoff of the first player for the given decisions, without playing the game.
+     * 
+     * @param p1Cooperates whether the first player cooperates
+     * @param p2Cooperates whether the second player cooperates
+     * @return the payoff of the first player
+     */
+    public int getFirstPayoff(boolean p1Cooperates, boolean p2Cooperates) {
+        if (p1Cooperates) return p2Cooperates ? this.cc1 : this.cn1;
+        return p2Cooperates ? this.nc1 : this.nn1;
+    }
+    
+    /**
+     * Returns the payoff of the second player for the given decisions, without playing the game.
+     * 
+     * @param p1Cooperates whether the first player cooperates
+     * @param p2Cooperates whether the second player cooperates
+     * @return the payoff of the second player
+     */
+    public int getSecondPayoff(boolean p1Cooperates, boolean p2Cooperates) {
+        if (p1Cooperates) return p2Cooperates ? this.cc2 : this.cn2;
+        return p2Cooperates ? this.nc2 : this.nn2;
+    }
+    
     /**
      * Returns an instance of this class representing the prisoners dilemma.
      * 
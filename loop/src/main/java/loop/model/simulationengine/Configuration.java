@@ -2,6 +2,8 @@ package loop.model.simulationengine;
 
 import java.util.List;
 
+import loop.model.simulationengine.distributions.RandomSource;
+
 /**
  * This class represents an elementary conguration and contains only the information needed
  * to execute a single iteration:
@@ -14,6 +16,9 @@ import java.util.List;
  * - the strategy adjuster
  * - the equilibrium criterion
  * - the maximum number of adaption steps
+ * - the random source
+ * - whether the games of a round are played in parallel
+ * - how the efficiency is computed
  * 
  * @author Peter Koepernik
  *
@@ -30,6 +35,10 @@ public class Configuration {
     private EquilibriumCriterion equilibriumCriterion;
     private int maxAdapts;
     private int totalIterations;
+    private RandomSource randomSource;
+    private boolean parallelRounds;
+    private EfficiencyMode efficiencyMode = EfficiencyMode.EXACT;
+    private double efficiencyError;
     
     /**
      * Creates a new configuration with the given parameters.
@@ -47,6 +56,31 @@ public class Configuration {
     public Configuration(Game game, int roundCount, boolean mixedAllowed, List<EngineSegment> segments, PairBuilder pairBuilder,
             SuccessQuantifier successQuantifier, StrategyAdjuster strategyAdjuster, EquilibriumCriterion equilibriumCriterion,
             int maxAdapts, int totalIterations) {
+        this(game, roundCount, mixedAllowed, segments, pairBuilder, successQuantifier, strategyAdjuster, equilibriumCriterion,
+                maxAdapts, totalIterations, new RandomSource());
+    }
+    
+    /**
+     * Creates a new configuration with the given parameters, whose iteration draws all random numbers from the
+     * given random source.
+     * 
+     * @param game the game
+     * @param roundCount the rounds per adaption step
+     * @param mixedAllowed whether mixed strategies are allowed
+     * @param segments the segments
+     * @param pairBuilder the pair builder
+     * @param successQuantifier the success qauntifier
+     * @param strategyAdjuster the strategy adjuster
+     * @param equilibriumCriterion the equilibrium criterion
+     * @param maxAdapts the maximum amount of adaption steps
+     * @param totalIterations the total count of iterations
+     * @param randomSource the random source of the iteration
+     */
+    public Configuration(Game game, int roundCount, boolean mixedAllowed, List<EngineSegment> segments, PairBuilder pairBuilder,
+            SuccessQuantifier successQuantifier, StrategyAdjuster strategyAdjuster, EquilibriumCriterion equilibriumCriterion,
+            int maxAdapts, int totalIterations, RandomSource randomSource) {
+        if (randomSource == null)
+            throw new IllegalArgumentException("The random source must not be null.");
         this.game = game;
         this.roundCount = roundCount;
         this.mixedAllowed = mixedAllowed;
@@ -57,6 +91,7 @@ public class Configuration {
         this.equilibriumCriterion = equilibriumCriterion;
         this.maxAdapts = maxAdapts;
         this.totalIterations = totalIterations;
+        this.randomSource = randomSource;
     }
     
     /**
@@ -148,4 +183,92 @@ public class Configuration {
     public int getTotalIterations() {
     	return totalIterations;
     }
+    
+    /**
+     * Returns the random source the iteration to this configuration draws all random numbers from.
+     * 
+     * @return the random source of this configuration
+     */
+    public RandomSource getRandomSource() {
+        return this.randomSource;
+    }
+    
+    /**
+     * Returns a configuration with the same components as this one, whose iteration draws all random numbers
+     * from the given random source.
+     * 
+     * @param randomSource the random source of the iteration
+     * @return a configuration that only differs from this one in its random source
+     */
+    public Configuration withRandomSource(RandomSource randomSource) {
+        Configuration configuration = new Configuration(game, roundCount, mixedAllowed, segments, pairBuilder, successQuantifier,
+                strategyAdjuster, equilibriumCriterion, maxAdapts, totalIterations, randomSource);
+        configuration.parallelRounds = parallelRounds;
+        configuration.efficiencyMode = efficiencyMode;
+        configuration.efficiencyError = efficiencyError;
+        return configuration;
+    }
+    
+    /**
+     * Returns whether the decisions of the agents in a round are evaluated in parallel. In that case, all decisions
+     * of a round only depend on the games of previous rounds, and the results of the round are added to the history
+     * in one batch afterwards.
+     * 
+     * @return whether the rounds are played in parallel
+     */
+    public boolean playsRoundsInParallel() {
+        return this.parallelRounds;
+    }
+    
+    /**
+     * Returns a configuration with the same components and random source as this one, that plays the games of a
+     * round in parallel if and only if {@code parallelRounds} is {@code true}.
+     * 
+     * @param parallelRounds whether the games of a round shall be played in parallel
+     * @return a configuration that only differs from this one in whether rounds are played in parallel
+     */
+    public Configuration withParallelRounds(boolean parallelRounds) {
+        Configuration configuration = withRandomSource(randomSource);
+        configuration.parallelRounds = parallelRounds;
+        return configuration;
+    }
+    
+    /**
+     * Returns how the efficiency of the final state of the iteration is computed.
+     * 
+     * @return the efficiency mode of this configuration
+     */
+    public EfficiencyMode getEfficiencyMode() {
+        return this.efficiencyMode;
+    }
+    
+    /**
+     * Returns the standard error up to which the efficiency is estimated if the efficiency mode is
+     * {@link EfficiencyMode#SAMPLED}.
+     * 
+     * @return the target standard error of the estimated efficiency
+     */
+    public double getEfficiencyError() {
+        return this.efficiencyError;
+    }
+    
+    /**
+     * Returns a configuration with the same components and random source as this one, that computes the efficiency
+     * in the given mode.
+     * 
+     * @param efficiencyMode the efficiency mode
+     * @param efficiencyError the standard error up to which the efficiency is estimated in mode
+     *                        {@link EfficiencyMode#SAMPLED}, ignored otherwise
+     * @return a configuration that only differs from this one in how the efficiency is computed
+     */
+    public Configuration withEfficiencyMode(EfficiencyMode efficiencyMode, double efficiencyError) {
+        if (efficiencyMode == null)
+            throw new IllegalArgumentException("The efficiency mode must not be null.");
+        if (efficiencyMode == EfficiencyMode.SAMPLED && !(efficiencyError > 0))
+            throw new IllegalArgumentException("The standard error of a sampled efficiency must be positive.");
+        Configuration configuration = withRandomSource(randomSource);
+        configuration.efficiencyMode = efficiencyMode;
+        configuration.efficiencyError = efficiencyError;
+        return configuration;
+    }
 }
@@ -0,0 +1,95 @@
+package loop.model.simulationengine;
+
+import java.util.Arrays;
+
+/**
+ * A bounded cache of cooperation probabilities for the agents of an {@link AgentStore}, as maintained by a
+ * {@link SimulationHistoryBuffer} (see {@link SimulationHistory#getCooperationProbability(Agent, Agent)}).
+ * <p>
+ * The cooperation probability of a player towards an opponent only depends on the strategy of the player, the
+ * history and the capitals, which only change when a game is played. The cache therefore stores every value
+ * together with the epoch of the history and the strategy versions (see {@link AgentStore#getStrategyVersion(int)})
+ * of both agents it was computed for. The history starts a new epoch whenever a game is added or it is reset,
+ * which invalidates all entries at once.
+ * <p>
+ * The cache is direct mapped: every pair of agents has exactly one slot, and a newer value replaces the value of
+ * another pair in the same slot. Its memory is thus bounded by the capacity, independent of the amount of agents.
+ * Like the history, the cache is not thread safe.
+ */
+public class CooperationCache {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final AgentStore store;
+    private final int shift;
+    private final long[] keys;
+    private final long[] epochs;
+    private final long[] versions;
+    private final double[] values;
+    private long epoch;
+
+    /**
+     * Creates a new cooperation cache for the agents of the given store.
+     *
+     * @param store the store of the agents
+     * @param capacity the maximum amount of cached values, rounded up to a power of two
+     */
+    public CooperationCache(final AgentStore store, final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of a cooperation cache must be positive.");
+        }
+        this.store = store;
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(capacity - 1, 1));
+        this.shift = 64 - bits;
+        this.keys = new long[1 << bits];
+        this.epochs = new long[1 << bits];
+        this.versions = new long[1 << bits];
+        this.values = new double[1 << bits];
+        Arrays.fill(epochs, -1);
+    }
+
+    /**
+     * Returns the probability with which the given player cooperates in a game against the given opponent, computed
+     * by the strategy of the player if it is not cached for the current epoch and strategies.
+     *
+     * @param player the player
+     * @param opponent the opponent
+     * @param history the history the probability is computed with
+     * @return the cooperation probability of the player against the opponent
+     */
+    public double getCooperationProbability(final Agent player, final Agent opponent, final SimulationHistory history) {
+        if (player.getStore() != store || opponent.getStore() != store) {
+            return player.getStrategy().getCooperationProbability(player, opponent, history);
+        }
+        int p = player.getIndex();
+        int o = opponent.getIndex();
+        long key = ((long) p << 32) | (o & 0xFFFFFFFFL);
+        long version = ((long) store.getStrategyVersion(p) << 32) | (store.getStrategyVersion(o) & 0xFFFFFFFFL);
+        int slot = (int) ((key * GOLDEN_GAMMA) >>> shift);
+        if (epochs[slot] == epoch && keys[slot] == key && versions[slot] == version) {
+            return values[slot];
+        }
+        double value = player.getStrategy().getCooperationProbability(player, opponent, history);
+        keys[slot] = key;
+        epochs[slot] = epoch;
+        versions[slot] = version;
+        values[slot] = value;
+        return value;
+    }
+
+    /**
+     * Starts a new epoch, which invalidates all cached values.
+     */
+    public void invalidate() {
+        epoch++;
+    }
+
+    /**
+     * Returns the maximum amount of cached values.
+     *
+     * @return the capacity of this cache
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+}
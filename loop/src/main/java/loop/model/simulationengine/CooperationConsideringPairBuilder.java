@@ -1,83 +1,306 @@
 package loop.model.simulationengine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
-import org.jgrapht.alg.interfaces.MatchingAlgorithm;
-import org.jgrapht.alg.matching.PathGrowingWeightedMatching;
-import org.jgrapht.graph.SimpleWeightedGraph;
+import loop.model.simulationengine.strategies.IndexedStrategy;
 
 /**
  * Realises the "Paarbildung nach Wunsch" pairing mechanism as described in the specification.
- * 
+ * <p>
+ * The weight of a pair of agents is the sum of their cooperation probabilities towards each other. The pairs are
+ * chosen by the path growing algorithm for maximum weight matchings, which only matches pairs of positive weight;
+ * the remaining agents are paired at random.
+ * <p>
+ * The weights are kept in a triangular matrix per history and updated incrementally: if the agents are all agents of
+ * the {@link AgentStore} of a {@link SimulationHistoryBuffer}, only the weights of pairs that may have changed since
+ * the last call, according to the {@link AgentActivity} of the history and the {@link CooperationScope} of the
+ * strategies, are recomputed. Otherwise all weights are recomputed on every call.
+ *
  * @author Peter Koepernik
  *
  */
 public class CooperationConsideringPairBuilder implements PairBuilder {
-    
+
     public static final String NAME = "Cooperation Considering Pair Builder";
     public static final String DESCRIPTION = "Tries to maximize mutual cooperation probability for each builded pair, i.e. builds pairs"
             + " such that the probability of both agents cooperating is as high as possible for each pair.";
-    
+
     private PairBuilder randomPairBuilder = new RandomPairBuilder();
-    private SimpleWeightedGraph<Agent, AgentPair> graph;
-    private List<Agent> allAgents;
-    private List<AgentPair> allPairs;
-    
+
+    //a history belongs to a single iteration, so the weights of a history are only used by one thread at a time
+    private final Map<SimulationHistory, Weights> weightsByHistory
+            = Collections.synchronizedMap(new WeakHashMap<SimulationHistory, Weights>());
+
     @Override
     public List<AgentPair> buildPairs(List<Agent> agents, SimulationHistory history) {
-        //initialise graph etc. on first call with new agents
-        if (this.allAgents == null || this.allAgents.size() != agents.size() || !this.allAgents.containsAll(agents)) {
-            init(agents);
-        }
-        
-        //set edge weights
-        for (AgentPair pair: allPairs) {
-            Agent a1 = pair.getFirstAgent();
-            Agent a2 = pair.getSecondAgent();
-            double weight = a1.getStrategy().getCooperationProbability(a1, a2, history)
-                    + a2.getStrategy().getCooperationProbability(a2, a1, history);
-            graph.setEdgeWeight(pair, weight);
+        Weights weights = weightsByHistory.get(history);
+        if (weights == null) {
+            weights = new Weights();
+            weightsByHistory.put(history, weights);
         }
-        
+        weights.update(agents, history);
+
         //create matching
-        MatchingAlgorithm.Matching<Agent, AgentPair> matching = new PathGrowingWeightedMatching<Agent, AgentPair>(graph, false).getMatching();
-        List<AgentPair> pairs = new ArrayList<AgentPair>(matching.getEdges());
-        
+        List<AgentPair> pairs = weights.match();
+
         //pair unmatched agents
         if (2 * pairs.size() != agents.size()) {
-            List<Agent> pairedAgents = new ArrayList<Agent>();
-            for (AgentPair pair: pairs) {
-                pairedAgents.add(pair.getFirstAgent());
-                pairedAgents.add(pair.getSecondAgent());
+            List<Agent> missedAgents = new ArrayList<Agent>();
+            for (int i = 0; i < agents.size(); i++) {
+                if (!weights.isMatched(weights.tracked ? agents.get(i).getIndex() : i)) {
+                    missedAgents.add(agents.get(i));
+                }
             }
-            
-            List<Agent> missedAgents = new ArrayList<Agent>(agents);
-            missedAgents.removeAll(pairedAgents);
-            pairs.addAll(randomPairBuilder.buildPairs(missedAgents, history));
+            List<AgentPair> randomPairs = randomPairBuilder.buildPairs(missedAgents, history);
+            weights.achievedWeight += CandidateCooperationConsideringPairBuilder.getTotalWeight(randomPairs, history);
+            pairs.addAll(randomPairs);
         }
-        
+
         return pairs;
     }
-    
-    private void init(List<Agent> agents) {
-        this.allAgents = new ArrayList<Agent>();
-        this.allPairs = new ArrayList<AgentPair>();
-        graph = new SimpleWeightedGraph<Agent, AgentPair>(null);
-        
-        for (Agent a1: agents) {
-            this.allAgents.add(a1);
-            for (Agent a2: agents) {
-                if (a1 == a2) continue;
-                if (!graph.containsVertex(a1)) graph.addVertex(a1);
-                if (!graph.containsVertex(a2)) graph.addVertex(a2);
-                
-                if (!graph.containsEdge(a1, a2)) {
-                    AgentPair agentPair = new ConcreteAgentPair(a1, a2);
-                    this.allPairs.add(agentPair);
-                    graph.addEdge(a1, a2, agentPair);
+
+    /**
+     * Returns the total weight of the pairs built by the last call of {@link #buildPairs(List, SimulationHistory)}
+     * with the given history, i.e. the sum of the cooperation probabilities of the agents of every pair towards
+     * each other, or {@code NaN} if there was no such call.
+     *
+     * @param history the history
+     * @return the total weight of the pairs built last for the history
+     */
+    @Override
+    public double getAchievedWeight(SimulationHistory history) {
+        Weights weights = weightsByHistory.get(history);
+        return (weights != null) ? weights.achievedWeight : Double.NaN;
+    }
+
+    /**
+     * Returns the weight of the pair of the given agents as of the last call of {@link #buildPairs(List, SimulationHistory)}
+     * with the given history.
+     */
+    double getWeight(SimulationHistory history, Agent first, Agent second) {
+        Weights weights = weightsByHistory.get(history);
+        return weights.values[Weights.index(weights.vertexOf(first), weights.vertexOf(second))];
+    }
+
+    @Override
+    public HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.NONE;
+    }
+
+    /**
+     * The weights of all pairs of agents for one history, together with what they were computed from.
+     */
+    private static class Weights {
+        private Agent[] vertices = new Agent[0];
+        private double[] values = new double[0];
+
+        //whether the vertices are the agents of the store of a history buffer, in the order of their indices
+        private boolean tracked;
+        private AgentStore store;
+        private long stamp;
+        private int[] strategyVersions;
+        private int[] capitals;
+
+        private boolean[] changed = new boolean[0];
+        private boolean[] visible = new boolean[0];
+        private boolean[] matched = new boolean[0];
+        private int[] firstEnds = new int[0];
+        private int[] secondEnds = new int[0];
+
+        //the total weight of the pairs built last
+        private double achievedWeight;
+
+        /**
+         * Brings the weights up to date with the given agents and history.
+         */
+        void update(List<Agent> agents, SimulationHistory history) {
+            AgentStore agentStore = storeOf(agents, history);
+            AgentActivity activity = (agentStore != null) ? ((HistoryView) history).getAgentActivity() : null;
+            boolean complete = activity == null || !tracked || store != agentStore || vertices.length != agents.size()
+                    || activity.wasResetSince(stamp);
+            resize(agents.size());
+
+            if (activity == null) {
+                tracked = false;
+                store = null;
+                agents.toArray(vertices);
+                for (int i = 1; i < vertices.length; i++) {
+                    for (int j = 0; j < i; j++) {
+                        values[index(i, j)] = history.getCooperationProbability(vertices[i], vertices[j])
+                                + history.getCooperationProbability(vertices[j], vertices[i]);
+                    }
+                }
+                return;
+            }
+
+            HistoryView view = (HistoryView) history;
+            if (complete) {
+                tracked = true;
+                store = agentStore;
+                strategyVersions = new int[vertices.length];
+                capitals = new int[vertices.length];
+                for (int i = 0; i < vertices.length; i++) {
+                    vertices[i] = agentStore.getAgent(i);
+                    changed[i] = true;
+                }
+            } else {
+                markChanged(activity, view);
+            }
+
+            for (int i = 0; i < vertices.length; i++) {
+                if (!changed[i]) continue;
+                for (int j = 0; j < vertices.length; j++) {
+                    //a pair of changed agents is only computed once
+                    if (j != i && !(changed[j] && j < i)) {
+                        computeWeight(i, j, view);
+                    }
+                }
+            }
+            for (int i = 0; i < vertices.length; i++) {
+                strategyVersions[i] = agentStore.getStrategyVersion(i);
+                capitals[i] = agentStore.getCapital(i);
+            }
+            stamp = activity.getStamp();
+        }
+
+        /**
+         * Marks the agents whose weights may have changed since the last update and recomputes the weights of
+         * pairs that changed on their own.
+         */
+        private void markChanged(AgentActivity activity, HistoryView view) {
+            CooperationScope scope = CooperationScope.PAIR;
+            for (int i = 0; i < vertices.length; i++) {
+                scope = scope.and(store.getStrategy(i).getCooperationScope());
+            }
+            boolean anyChanged = activity.getStamp() != stamp;
+            for (int i = 0; i < vertices.length; i++) {
+                changed[i] = store.getStrategyVersion(i) != strategyVersions[i]
+                        || (scope != CooperationScope.PAIR && store.getCapital(i) != capitals[i]);
+                anyChanged |= changed[i];
+            }
+
+            if (scope == CooperationScope.HISTORY) {
+                if (anyChanged) Arrays.fill(changed, true);
+                return;
+            }
+            for (int i = 0; i < vertices.length; i++) {
+                if (changed[i] || !activity.hasPlayedSince(i, stamp)) continue;
+                int opponent = (scope == CooperationScope.PAIR) ? activity.getOnlyOpponentSince(i, stamp) : -1;
+                if (opponent < 0) {
+                    changed[i] = true;
+                } else if (!changed[opponent] && (i < opponent || activity.getOnlyOpponentSince(opponent, stamp) != i)) {
+                    //only the pair itself changed, unless the opponent is recomputed anyway
+                    computeWeight(i, opponent, view);
                 }
             }
         }
+
+        private void computeWeight(int i, int j, HistoryView view) {
+            values[index(i, j)] = IndexedStrategy.cooperationProbability(store.getStrategy(i), i, j, view)
+                    + IndexedStrategy.cooperationProbability(store.getStrategy(j), j, i, view);
+        }
+
+        /**
+         * Returns the matching of the path growing algorithm: it grows paths along the heaviest edges of positive
+         * weight, adding their edges alternately to two matchings, and returns the heavier one.
+         */
+        List<AgentPair> match() {
+            int n = vertices.length;
+            for (int i = 0; i < n; i++) {
+                visible[i] = false;
+                for (int j = 0; j < n && !visible[i]; j++) {
+                    visible[i] = j != i && values[index(i, j)] > 0;
+                }
+                matched[i] = false;
+            }
+
+            //the ends of the edges of both matchings, two consecutive entries per edge
+            int[][] ends = {firstEnds, secondEnds};
+            int[] sizes = new int[2];
+            double[] weights = new double[2];
+            int current = 0;
+            for (int start = 0; start < n; start++) {
+                int x = visible[start] ? start : -1;
+                while (x >= 0) {
+                    int heaviest = -1;
+                    double maxWeight = 0;
+                    for (int y = 0; y < n; y++) {
+                        if (y != x && visible[y] && values[index(x, y)] > maxWeight) {
+                            maxWeight = values[index(x, y)];
+                            heaviest = y;
+                        }
+                    }
+                    if (heaviest >= 0) {
+                        ends[current][sizes[current]++] = x;
+                        ends[current][sizes[current]++] = heaviest;
+                        weights[current] += maxWeight;
+                        current = 1 - current;
+                    }
+                    visible[x] = false;
+                    x = heaviest;
+                }
+            }
+
+            int chosen = (weights[0] > weights[1]) ? 0 : 1;
+            achievedWeight = weights[chosen];
+            List<AgentPair> matching = new ArrayList<AgentPair>(sizes[chosen] / 2);
+            for (int k = 0; k < sizes[chosen]; k += 2) {
+                int a = ends[chosen][k];
+                int b = ends[chosen][k + 1];
+                matching.add(new ConcreteAgentPair(vertices[a], vertices[b]));
+                matched[a] = true;
+                matched[b] = true;
+            }
+            return matching;
+        }
+
+        boolean isMatched(int vertex) {
+            return matched[vertex];
+        }
+
+        private int vertexOf(Agent agent) {
+            if (tracked) return agent.getIndex();
+            return Arrays.asList(vertices).indexOf(agent);
+        }
+
+        private void resize(int n) {
+            if (vertices.length == n) return;
+            long size = (long) n * (n - 1) / 2;
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Too many agents to consider the cooperation of all pairs.");
+            }
+            vertices = new Agent[n];
+            values = new double[(int) size];
+            changed = new boolean[n];
+            visible = new boolean[n];
+            matched = new boolean[n];
+            firstEnds = new int[n];
+            secondEnds = new int[n];
+        }
+
+        private static int index(int i, int j) {
+            return (i > j) ? (int) ((long) i * (i - 1) / 2) + j : (int) ((long) j * (j - 1) / 2) + i;
+        }
+
+        /**
+         * Returns the store of the given agents if they are exactly the agents of the store of the given history
+         * and the history keeps track of their activity, {@code null} otherwise.
+         */
+        private AgentStore storeOf(List<Agent> agents, SimulationHistory history) {
+            if (!(history instanceof HistoryView) || ((HistoryView) history).getAgentActivity() == null) return null;
+            AgentStore agentStore = ((HistoryView) history).getAgentStore();
+            if (agentStore.size() != agents.size()) return null;
+            boolean[] seen = new boolean[agents.size()];
+            for (Agent agent: agents) {
+                if (agent.getStore() != agentStore || seen[agent.getIndex()]) return null;
+                seen[agent.getIndex()] = true;
+            }
+            return agentStore;
+        }
     }
 }
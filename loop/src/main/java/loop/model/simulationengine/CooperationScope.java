@@ -0,0 +1,37 @@
+package loop.model.simulationengine;
+
+/**
+ * Describes what the cooperation probability of a player towards an opponent under a strategy depends on besides
+ * the strategies of the two agents. Components that keep cooperation probabilities across games, like the
+ * {@link CooperationConsideringPairBuilder}, use the scope to tell which probabilities a game may have changed.
+ * Scopes are ordered from the narrowest to the widest.
+ */
+public enum CooperationScope {
+
+    /**
+     * The probability only depends on the games the player and the opponent played against each other.
+     */
+    PAIR,
+
+    /**
+     * The probability only depends on the capitals and groups of the player and the opponent and on the games
+     * either of them played.
+     */
+    AGENTS,
+
+    /**
+     * The probability may depend on anything, in particular on games between other agents. This is the scope of
+     * every strategy that does not declare one.
+     */
+    HISTORY;
+
+    /**
+     * Returns the narrowest scope that covers both this and the given scope.
+     *
+     * @param other the other scope
+     * @return the wider of both scopes
+     */
+    public CooperationScope and(final CooperationScope other) {
+        return (other.compareTo(this) > 0) ? other : this;
+    }
+}
@@ -1,13 +1,13 @@
 package loop.model.simulationengine;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * This class represents an equilibrium criterion that checks a certain condition each round
  * and recognizes an equilibrium, if this condition is met for a certain number of consecutive
  * adaptation steps. This condition and the necessary amount of consecutive condition-meeting
- * adaptation steps are implemented as template methods.
+ * adaptation steps are implemented as template methods. The condition compares the current
+ * agents with an {@link AgentSnapshot} of the previous adaptation step.
  * 
  * @author Peter Koepernik
  *
@@ -15,29 +15,27 @@ import java.util.List;
 public abstract class CountingEquilibriumCriterion implements EquilibriumCriterion {
     
     private int consecutiveRounds = 0;
-    private List<Agent> lastRoundAgentsFlatCopy;
-    private List<Agent> lastRoundAgentsDeepCopy;
+    private boolean hasSnapshot = false;
+    private AgentSnapshot snapshot = new AgentSnapshot();
     
     @Override
     public boolean isEquilibrium(final List<Agent> agents, final SimulationHistory history) {
 
-        if (lastRoundAgentsFlatCopy != null && !lastRoundAgentsFlatCopy.contains(agents.get(0))) {
-            lastRoundAgentsFlatCopy = null;
-            lastRoundAgentsDeepCopy = null;
+        if (hasSnapshot && !snapshot.covers(agents)) {
+            hasSnapshot = false;
             consecutiveRounds = 0;
         }
 
         //check for equilibrium
         boolean isEquilibrium = false;
-        if (this.lastRoundAgentsFlatCopy != null && this.lastRoundAgentsDeepCopy != null
-                && this.hasEquilibriumCondition(lastRoundAgentsFlatCopy, lastRoundAgentsDeepCopy, agents)) {
+        if (hasSnapshot && this.hasEquilibriumCondition(snapshot, agents)) {
             isEquilibrium = this.longEnough(++this.consecutiveRounds);
         } else {
             this.consecutiveRounds = 0;
         }
 
-        this.lastRoundAgentsFlatCopy = new ArrayList<Agent>(agents);
-        this.lastRoundAgentsDeepCopy = this.deepCopy(agents);
+        snapshot.capture(agents);
+        hasSnapshot = true;
 
         return isEquilibrium;
     }
@@ -45,12 +43,11 @@ public abstract class CountingEquilibriumCriterion implements EquilibriumCriteri
     /**
      * Returns whether the equilibrium condition is met for the current adaption step.
      * 
-     * @param lastRoundAgentsFlatCopy a list of the current agents ordered as they were last round
-     * @param lastRoundAgentsDeepCopy a deep copy of the list of all agents from last round
+     * @param previous the snapshot of the agents at the end of the previous adaption step
+     * @param agents the current agents, ordered by rank
      * @return {@code true} if the condition is met, {@code false} otherwise
      */
-    public abstract boolean hasEquilibriumCondition(final List<Agent> lastRoundAgentsFlatCopy,
-            final List<Agent> lastRoundAgentsDeepCopy, final List<Agent> agents);
+    public abstract boolean hasEquilibriumCondition(final AgentSnapshot previous, final List<Agent> agents);
     
     /**
      * Returns whether {@code steps} is larger or equal to the minimum amount of consecutive
@@ -61,11 +58,13 @@ public abstract class CountingEquilibriumCriterion implements EquilibriumCriteri
      */
     public abstract boolean longEnough(int steps);
     
-    private List<Agent> deepCopy(final List<Agent> agents) {
-        List<Agent> copy = new ArrayList<Agent>();
-        for (Agent a: agents) {
-            copy.add(a.getCopy());
-        }
-        return copy;
+    /**
+     * Returns {@link HistoryRequirement#NONE}, as the condition only compares the agents with their snapshot.
+     * 
+     * @return {@link HistoryRequirement#NONE}
+     */
+    @Override
+    public HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.NONE;
     }
 }
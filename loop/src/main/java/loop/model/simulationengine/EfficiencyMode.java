@@ -0,0 +1,24 @@
+package loop.model.simulationengine;
+
+/**
+ * The ways in which the {@link SimulationEngine} can compute the efficiency of the final state of an iteration,
+ * that is the mean probability of an agent cooperating with another agent.
+ */
+public enum EfficiencyMode {
+
+    /**
+     * The efficiency is computed exactly, by evaluating all ordered pairs of agents one after another.
+     */
+    EXACT,
+
+    /**
+     * The efficiency is computed exactly, by evaluating blocks of rows of the pair matrix in parallel.
+     */
+    PARALLEL,
+
+    /**
+     * The efficiency is estimated from randomly sampled pairs of agents, until the standard error of the
+     * estimate falls below the bound given by the configuration.
+     */
+    SAMPLED
+}
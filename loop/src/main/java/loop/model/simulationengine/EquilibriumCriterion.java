@@ -21,4 +21,14 @@ public interface EquilibriumCriterion {
      * @return {@code true} if an equilibrium is reached, {@code false} otherwise
      */
     boolean isEquilibrium(final List<Agent> agents, final SimulationHistory history);
+    
+    /**
+     * Returns how much of the history this equilibrium criterion reads to recognise an equilibrium.
+     * By default all games are assumed to be read.
+     * 
+     * @return the history requirement of this equilibrium criterion
+     */
+    default HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.FULL;
+    }
 }
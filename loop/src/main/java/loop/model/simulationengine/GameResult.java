@@ -1,6 +1,7 @@
 package loop.model.simulationengine;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -16,6 +17,7 @@ public class GameResult {
     private Agent player1, player2;
     private boolean hasCooperated1, hasCooperated2;
     private int payoff1, payoff2;
+    private List<Agent> agents;
     
     /**
      * Creates a new game result.
@@ -75,17 +77,34 @@ public class GameResult {
     }
     
     /**
-     * Returns the two players of this game.
+     * Returns the two players of this game as an unmodifiable list, which is only created on the first call.
      * 
      * @return the two players of this game
      */
     public List<Agent> getAgents() {
-        List<Agent> agents = new ArrayList<Agent>();
-        agents.add(player1);
-        agents.add(player2);
+        if (agents == null)
+            agents = Collections.unmodifiableList(Arrays.asList(player1, player2));
         return agents;
     }
     
+    /**
+     * Returns the first player of this game.
+     * 
+     * @return the first player of this game
+     */
+    public Agent getFirstAgent() {
+        return player1;
+    }
+    
+    /**
+     * Returns the second player of this game.
+     * 
+     * @return the second player of this game
+     */
+    public Agent getSecondAgent() {
+        return player2;
+    }
+    
     /**
      * If the given agent was one of the players of this game, returns the other player,
      * otherwise returns {@code null}.
@@ -0,0 +1,128 @@
+package loop.model.simulationengine;
+
+import java.io.Serializable;
+
+/**
+ * Describes how much of the {@link SimulationHistory} of an adaption step a component of a simulation reads:
+ * nothing at all, only the {@link InteractionSummary}, the last games of every agent, or all games. The
+ * {@link SimulationEngine} combines the requirements of all strategies and components of a configuration with
+ * {@link #and(HistoryRequirement)} and lets the history retain no more than the combination requires.
+ * <p>
+ * Cooperation probabilities obtained through {@link SimulationHistory#getCooperationProbability(Agent, Agent)}
+ * are covered by the requirements of the strategies, so a component that only reads those requires nothing
+ * itself. Automaton states are maintained by the history for all automaton strategies regardless of their
+ * requirements.
+ */
+public final class HistoryRequirement implements Serializable {
+
+    private static final long serialVersionUID = 2941163820157423096L;
+
+    private static final int ALL_GAMES = Integer.MAX_VALUE;
+
+    /**
+     * The requirement of a component that does not read the history.
+     */
+    public static final HistoryRequirement NONE = new HistoryRequirement(false, 0);
+
+    /**
+     * The requirement of a component that only reads the interaction summary of the history.
+     */
+    public static final HistoryRequirement SUMMARY = new HistoryRequirement(true, 0);
+
+    /**
+     * The requirement of a component that may read all games of the history. This is the requirement of every
+     * component that does not declare one.
+     */
+    public static final HistoryRequirement FULL = new HistoryRequirement(false, ALL_GAMES);
+
+    private final boolean summary;
+    private final int depth;
+
+    private HistoryRequirement(final boolean summary, final int depth) {
+        this.summary = summary;
+        this.depth = depth;
+    }
+
+    /**
+     * Returns the requirement of a component that reads at most the given amount of most recent games of every
+     * agent.
+     *
+     * @param depth the amount of most recent games of every agent that are read, must be positive
+     * @return the requirement of a component that reads the last {@code depth} games of every agent
+     */
+    public static HistoryRequirement lastGames(final int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The amount of games read per agent must be positive.");
+        }
+        return new HistoryRequirement(false, depth);
+    }
+
+    /**
+     * Returns the requirement that is satisfied if and only if both this and the given requirement are.
+     *
+     * @param other the other requirement
+     * @return the combination of both requirements
+     */
+    public HistoryRequirement and(final HistoryRequirement other) {
+        boolean combinedSummary = summary || other.summary;
+        int combinedDepth = Math.max(depth, other.depth);
+        if (combinedSummary == summary && combinedDepth == depth) return this;
+        if (combinedSummary == other.summary && combinedDepth == other.depth) return other;
+        return new HistoryRequirement(combinedSummary, combinedDepth);
+    }
+
+    /**
+     * Returns whether the interaction summary is read.
+     *
+     * @return whether the interaction summary is read
+     */
+    public boolean needsSummary() {
+        return summary;
+    }
+
+    /**
+     * Returns whether any games are read.
+     *
+     * @return whether any games are read
+     */
+    public boolean needsGames() {
+        return depth > 0;
+    }
+
+    /**
+     * Returns whether all games are read.
+     *
+     * @return whether all games are read
+     */
+    public boolean needsAllGames() {
+        return depth == ALL_GAMES;
+    }
+
+    /**
+     * Returns the amount of most recent games of every agent that are read. If all games are read, this is
+     * {@link Integer#MAX_VALUE}.
+     *
+     * @return the amount of games read per agent
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!(obj instanceof HistoryRequirement)) return false;
+        HistoryRequirement other = (HistoryRequirement) obj;
+        return summary == other.summary && depth == other.depth;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Boolean.hashCode(summary) + depth;
+    }
+
+    @Override
+    public String toString() {
+        String games = needsAllGames() ? "all games" : (depth > 0) ? "last " + depth + " games" : "no games";
+        return summary ? games + " and summary" : games;
+    }
+}
@@ -0,0 +1,63 @@
+package loop.model.simulationengine;
+
+/**
+ * A read-only view on the history of the current adaption step that addresses agents by their index in an
+ * {@link AgentStore} instead of by {@link Agent} objects. Strategies that are evaluated through this view (see
+ * {@link loop.model.simulationengine.strategies.IndexedStrategy}) can decide without allocating any objects,
+ * as long as the summaries they read are maintained.
+ * <p>
+ * Strategies must not add results to or reset the history returned by {@link #getHistory()}.
+ */
+public interface HistoryView {
+
+    /**
+     * Returns the store of the agents whose indices are used with this view.
+     *
+     * @return the agent store of this view
+     */
+    AgentStore getAgentStore();
+
+    /**
+     * Returns whether the given agent belongs to the agent store of this view.
+     *
+     * @param agent the agent
+     * @return whether the agent can be addressed by its index in this view
+     */
+    default boolean covers(Agent agent) {
+        return agent.getStore() == getAgentStore();
+    }
+
+    /**
+     * Returns the history this view is based on, for strategies that read the games themselves.
+     *
+     * @return the history of this view
+     */
+    SimulationHistory getHistory();
+
+    /**
+     * Returns the interaction summary of the history, or {@code null} if the history does not maintain one.
+     *
+     * @return the interaction summary, or {@code null}
+     */
+    default InteractionSummary getInteractionSummary() {
+        return getHistory().getInteractionSummary();
+    }
+
+    /**
+     * Returns the automaton states of the history, or {@code null} if the history does not maintain them.
+     *
+     * @return the automaton states, or {@code null}
+     */
+    default AutomatonStates getAutomatonStates() {
+        return getHistory().getAutomatonStates();
+    }
+
+    /**
+     * Returns the activity of the agents of the history, or {@code null} if the history does not keep track of it.
+     *
+     * @return the agent activity, or {@code null}
+     */
+    default AgentActivity getAgentActivity() {
+        return null;
+    }
+}
@@ -0,0 +1,195 @@
+package loop.model.simulationengine;
+
+import java.util.Arrays;
+
+/**
+ * Sorts the indices of an array of keys by their keys, without boxing. Ties are always broken by the index,
+ * so the order is deterministic and equal keys keep their relative order.
+ * <p>
+ * If the keys span less than {@code 2^32} values, every key is packed together with its index into a single
+ * {@code long} and the packed values are sorted with {@link Arrays#sort(long[])}. Otherwise the indices are sorted
+ * with a comparator.
+ * <p>
+ * The adaptive variants are meant for keys that are almost in order already, such as the capitals of agents listed
+ * in the order of their previous ranking. They check whether the keys are sorted, then try an insertion sort whose
+ * work is bounded by a multiple of the amount of keys, and only if that fails sort the keys from scratch, with a
+ * counting sort if the keys span few values.
+ */
+public final class IndexSort {
+
+    /**
+     * The maximum average amount of moves per key an adaptive sort spends on insertion sort.
+     */
+    private static final int INSERTION_MOVES_PER_KEY = 4;
+    
+    /**
+     * The maximum amount of distinct key values per key for which an adaptive sort uses a counting sort.
+     */
+    private static final int COUNTING_VALUES_PER_KEY = 2;
+
+    private IndexSort() {
+    }
+
+    /**
+     * Returns the indices of the given keys, ordered by ascending key.
+     *
+     * @param keys the keys
+     * @return the indices {@code 0, ..., keys.length - 1}, ordered by ascending key
+     */
+    public static int[] ascending(final long[] keys) {
+        return sort(keys, false);
+    }
+
+    /**
+     * Returns the indices of the given keys, ordered by descending key.
+     *
+     * @param keys the keys
+     * @return the indices {@code 0, ..., keys.length - 1}, ordered by descending key
+     */
+    public static int[] descending(final long[] keys) {
+        return sort(keys, true);
+    }
+
+    /**
+     * Returns the indices of the given keys, ordered by ascending key.
+     *
+     * @param keys the keys
+     * @return the indices {@code 0, ..., keys.length - 1}, ordered by ascending key
+     */
+    public static int[] ascending(final int[] keys) {
+        return sort(toLong(keys), false);
+    }
+
+    /**
+     * Returns the indices of the given keys, ordered by descending key.
+     *
+     * @param keys the keys
+     * @return the indices {@code 0, ..., keys.length - 1}, ordered by descending key
+     */
+    public static int[] descending(final int[] keys) {
+        return sort(toLong(keys), true);
+    }
+
+    /**
+     * Returns the indices of the given keys, ordered by descending key, exploiting that the keys are almost in
+     * descending order already. The result is the same as the one of {@link #descending(long[])}.
+     *
+     * @param keys the keys, preferably almost in descending order
+     * @return the indices {@code 0, ..., keys.length - 1}, ordered by descending key
+     */
+    public static int[] descendingAdaptive(final long[] keys) {
+        int n = keys.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        if (n < 2) return order;
+
+        long min = keys[0];
+        long max = keys[0];
+        boolean sorted = true;
+        for (int i = 1; i < n; i++) {
+            min = Math.min(min, keys[i]);
+            max = Math.max(max, keys[i]);
+            sorted &= keys[i - 1] >= keys[i];
+        }
+        if (sorted) return order;
+
+        if (insertionSort(keys, order, (long) INSERTION_MOVES_PER_KEY * n)) return order;
+
+        long range = max - min;
+        if (range >= 0 && range < (long) COUNTING_VALUES_PER_KEY * n) {
+            return countingSortDescending(keys, max, (int) range + 1);
+        }
+        return sort(keys, true);
+    }
+
+    /**
+     * Sorts the given order by descending key with an insertion sort, giving up after the given amount of moves.
+     */
+    private static boolean insertionSort(final long[] keys, final int[] order, final long maxMoves) {
+        long[] sortedKeys = keys.clone();
+        long moves = 0;
+        for (int i = 1; i < order.length; i++) {
+            long key = sortedKeys[i];
+            int index = order[i];
+            int j = i - 1;
+            while (j >= 0 && sortedKeys[j] < key) {
+                sortedKeys[j + 1] = sortedKeys[j];
+                order[j + 1] = order[j];
+                j--;
+                if (++moves > maxMoves) return false;
+            }
+            sortedKeys[j + 1] = key;
+            order[j + 1] = index;
+        }
+        return true;
+    }
+
+    /**
+     * Sorts the indices by descending key with a stable counting sort over the values {@code max - values + 1}
+     * to {@code max}.
+     */
+    private static int[] countingSortDescending(final long[] keys, final long max, final int values) {
+        int[] starts = new int[values + 1];
+        for (long key : keys) {
+            starts[(int) (max - key) + 1]++;
+        }
+        for (int v = 0; v < values; v++) {
+            starts[v + 1] += starts[v];
+        }
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[starts[(int) (max - keys[i])]++] = i;
+        }
+        return order;
+    }
+
+    private static int[] sort(final long[] keys, final boolean descending) {
+        int n = keys.length;
+        int[] order = new int[n];
+        if (n == 0) return order;
+
+        long min = keys[0];
+        long max = keys[0];
+        for (long key : keys) {
+            min = Math.min(min, key);
+            max = Math.max(max, key);
+        }
+
+        long range = max - min;
+        if (range >= 0 && range <= 0xFFFFFFFFL) {
+            long[] packed = new long[n];
+            for (int i = 0; i < n; i++) {
+                long offset = descending ? max - keys[i] : keys[i] - min;
+                packed[i] = ((offset + Integer.MIN_VALUE) << 32) | i;
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < n; i++) {
+                order[i] = (int) packed[i];
+            }
+            return order;
+        }
+
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, (i, j) -> {
+            int c = descending ? Long.compare(keys[j], keys[i]) : Long.compare(keys[i], keys[j]);
+            return (c != 0) ? c : Integer.compare(i, j);
+        });
+        for (int i = 0; i < n; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    private static long[] toLong(final int[] keys) {
+        long[] copy = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            copy[i] = keys[i];
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,316 @@
+package loop.model.simulationengine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import loop.model.simulationengine.distributions.RandomSource;
+
+/**
+ * An undirected graph on the vertices {@code 0, ..., n - 1} that determines which agents may play against each
+ * other, see {@link NetworkPairBuilder}. The graph has neither loops nor multiple edges.
+ * <p>
+ * The adjacency is stored in compressed sparse row form: the neighbours of vertex {@code v} are the entries
+ * {@code offsets[v]} to {@code offsets[v + 1] - 1} of a single array of targets, in ascending order. The memory of
+ * a network is thus linear in the amount of vertices and edges. A network is immutable and may be shared between
+ * threads.
+ */
+public final class InteractionNetwork {
+
+    private final int[] offsets;
+    private final int[] targets;
+
+    private InteractionNetwork(final int[] offsets, final int[] targets) {
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Creates a new network with the given amount of vertices and the given edges. Edges given twice, in either
+     * direction, are only added once and loops are ignored.
+     *
+     * @param vertexCount the amount of vertices
+     * @param ends the ends of the edges, two consecutive entries per edge
+     * @param edgeCount the amount of edges given by {@code ends}
+     * @return the network
+     */
+    public static InteractionNetwork fromEdges(final int vertexCount, final int[] ends, final int edgeCount) {
+        if (vertexCount < 0 || edgeCount < 0 || 2L * edgeCount > ends.length) {
+            throw new IllegalArgumentException("Invalid amount of vertices or edges for an interaction network.");
+        }
+        int[] offsets = new int[vertexCount + 1];
+        for (int i = 0; i < 2 * edgeCount; i++) {
+            if (ends[i] < 0 || ends[i] >= vertexCount) {
+                throw new IllegalArgumentException("An edge of an interaction network has an end that is no vertex.");
+            }
+            offsets[ends[i] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] targets = new int[offsets[vertexCount]];
+        int[] next = Arrays.copyOf(offsets, vertexCount);
+        for (int e = 0; e < edgeCount; e++) {
+            int a = ends[2 * e];
+            int b = ends[2 * e + 1];
+            targets[next[a]++] = b;
+            targets[next[b]++] = a;
+        }
+
+        //sort the neighbours of every vertex and drop loops and duplicates
+        int size = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            int start = offsets[v];
+            int end = offsets[v + 1];
+            Arrays.sort(targets, start, end);
+            offsets[v] = size;
+            for (int i = start; i < end; i++) {
+                if (targets[i] != v && (size == offsets[v] || targets[size - 1] != targets[i])) {
+                    targets[size++] = targets[i];
+                }
+            }
+        }
+        offsets[vertexCount] = size;
+        return new InteractionNetwork(offsets, Arrays.copyOf(targets, size));
+    }
+
+    /**
+     * Creates a ring, in which every vertex is connected to the {@code k} nearest vertices on either side.
+     *
+     * @param vertexCount the amount of vertices
+     * @param k the amount of neighbours on either side, must be positive
+     * @return the ring
+     */
+    public static InteractionNetwork ring(final int vertexCount, final int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("The amount of neighbours on either side must be positive.");
+        }
+        int[] ends = new int[Math.multiplyExact(2 * k, vertexCount)];
+        int edgeCount = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            for (int j = 1; j <= k; j++) {
+                ends[2 * edgeCount] = v;
+                ends[2 * edgeCount + 1] = (v + j) % vertexCount;
+                edgeCount++;
+            }
+        }
+        return fromEdges(vertexCount, ends, edgeCount);
+    }
+
+    /**
+     * Creates a square lattice on a torus, in which every vertex is connected to its four orthogonal neighbours.
+     * The vertices are laid out row by row in rows of {@code ceil(sqrt(n))} vertices; the last row may be shorter.
+     *
+     * @param vertexCount the amount of vertices
+     * @return the lattice
+     */
+    public static InteractionNetwork lattice(final int vertexCount) {
+        int width = (int) Math.ceil(Math.sqrt(vertexCount));
+        int[] ends = new int[Math.multiplyExact(4, vertexCount)];
+        int edgeCount = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            int rowStart = v - v % width;
+            int rowEnd = Math.min(rowStart + width, vertexCount);
+            ends[2 * edgeCount] = v;
+            ends[2 * edgeCount + 1] = (v + 1 < rowEnd) ? v + 1 : rowStart;
+            edgeCount++;
+            ends[2 * edgeCount] = v;
+            ends[2 * edgeCount + 1] = (v + width < vertexCount) ? v + width : v % width;
+            edgeCount++;
+        }
+        return fromEdges(vertexCount, ends, edgeCount);
+    }
+
+    /**
+     * Creates a small world network (Watts, Strogatz): a {@link #ring(int, int) ring} in which every edge is
+     * rewired with the given probability, i.e. replaced by an edge from its first end to a uniformly chosen
+     * vertex that is neither that end nor one of its neighbours. The amount of edges thus stays the one of the ring.
+     *
+     * @param vertexCount the amount of vertices
+     * @param k the amount of neighbours on either side in the ring, must be positive
+     * @param rewiring the probability with which an edge is rewired
+     * @param random the source of randomness
+     * @return the small world network
+     */
+    public static InteractionNetwork smallWorld(final int vertexCount, final int k, final double rewiring,
+            final RandomSource random) {
+        if (k < 1 || rewiring < 0 || rewiring > 1) {
+            throw new IllegalArgumentException("Invalid parameters for a small world network.");
+        }
+        int[] ends = new int[Math.multiplyExact(2 * k, vertexCount)];
+        int edgeCount = 0;
+        //the current edges, marked by a non-zero value for their ends in ascending order
+        PairTable edges = new PairTable(vertexCount, vertexCount, 1);
+        int[] degrees = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            for (int j = 1; j <= k; j++) {
+                int u = (v + j) % vertexCount;
+                if (u == v || hasEdge(edges, v, u)) continue;
+                setEdge(edges, v, u, 1);
+                degrees[v]++;
+                degrees[u]++;
+                ends[2 * edgeCount] = v;
+                ends[2 * edgeCount + 1] = u;
+                edgeCount++;
+            }
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            int v = ends[2 * e];
+            if (!(random.nextDouble() < rewiring) || degrees[v] >= vertexCount - 1) continue;
+            int target;
+            do {
+                target = random.nextInt(vertexCount);
+            } while (target == v || hasEdge(edges, v, target));
+            int u = ends[2 * e + 1];
+            setEdge(edges, v, u, 0);
+            degrees[u]--;
+            setEdge(edges, v, target, 1);
+            degrees[target]++;
+            ends[2 * e + 1] = target;
+        }
+        return fromEdges(vertexCount, ends, edgeCount);
+    }
+
+    /**
+     * Creates a scale free network by preferential attachment (Barabási, Albert): starting with a clique of
+     * {@code m + 1} vertices, every further vertex is connected to {@code m} distinct earlier vertices, chosen with
+     * probabilities proportional to their degrees.
+     *
+     * @param vertexCount the amount of vertices
+     * @param m the amount of edges of every added vertex, must be positive
+     * @param random the source of randomness
+     * @return the scale free network
+     */
+    public static InteractionNetwork scaleFree(final int vertexCount, final int m, final RandomSource random) {
+        if (m < 1) {
+            throw new IllegalArgumentException("The amount of edges per added vertex must be positive.");
+        }
+        int initial = Math.min(m + 1, vertexCount);
+        //every edge adds both ends, so picking a uniform entry picks a vertex proportional to its degree
+        int[] ends = new int[Math.multiplyExact(2 * m, vertexCount) + initial * initial];
+        int edgeCount = 0;
+        for (int a = 0; a < initial; a++) {
+            for (int b = a + 1; b < initial; b++) {
+                ends[2 * edgeCount] = a;
+                ends[2 * edgeCount + 1] = b;
+                edgeCount++;
+            }
+        }
+        int[] chosen = new int[m];
+        for (int v = initial; v < vertexCount; v++) {
+            int found = 0;
+            while (found < m) {
+                int target = (edgeCount > 0) ? ends[random.nextInt(2 * edgeCount)] : random.nextInt(v);
+                boolean known = false;
+                for (int i = 0; i < found; i++) {
+                    known |= chosen[i] == target;
+                }
+                if (!known) chosen[found++] = target;
+            }
+            for (int i = 0; i < m; i++) {
+                ends[2 * edgeCount] = v;
+                ends[2 * edgeCount + 1] = chosen[i];
+                edgeCount++;
+            }
+        }
+        return fromEdges(vertexCount, ends, edgeCount);
+    }
+
+    /**
+     * Reads a network from an edge list: every line that is neither empty nor starts with {@code #} consists of
+     * the two ends of an edge, separated by whitespace. The amount of vertices is one more than the largest end.
+     *
+     * @param reader the reader of the edge list
+     * @return the network
+     * @throws IOException if reading fails
+     */
+    public static InteractionNetwork read(final Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        int[] ends = new int[64];
+        int edgeCount = 0;
+        int vertexCount = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] tokens = line.split("\\s+");
+            if (tokens.length < 2) {
+                throw new IllegalArgumentException("Invalid line in an edge list: " + line);
+            }
+            if (2 * edgeCount + 2 > ends.length) {
+                ends = Arrays.copyOf(ends, Math.multiplyExact(2, ends.length));
+            }
+            for (int i = 0; i < 2; i++) {
+                int end = Integer.parseInt(tokens[i]);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Invalid vertex in an edge list: " + end);
+                }
+                ends[2 * edgeCount + i] = end;
+                vertexCount = Math.max(vertexCount, end + 1);
+            }
+            edgeCount++;
+        }
+        return fromEdges(vertexCount, ends, edgeCount);
+    }
+
+    private static boolean hasEdge(final PairTable edges, final int a, final int b) {
+        int offset = edges.find(Math.min(a, b), Math.max(a, b));
+        return offset >= 0 && edges.values()[offset] != 0;
+    }
+
+    private static void setEdge(final PairTable edges, final int a, final int b, final int value) {
+        int offset = edges.findOrCreate(Math.min(a, b), Math.max(a, b));
+        edges.values()[offset] = value;
+    }
+
+    /**
+     * Returns the amount of vertices of this network.
+     *
+     * @return the amount of vertices
+     */
+    public int getVertexCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the amount of edges of this network.
+     *
+     * @return the amount of edges
+     */
+    public int getEdgeCount() {
+        return targets.length / 2;
+    }
+
+    /**
+     * Returns the amount of neighbours of the given vertex.
+     *
+     * @param vertex the vertex
+     * @return the degree of the vertex
+     */
+    public int getDegree(final int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    /**
+     * Returns the neighbour of the given vertex with the given rank, in ascending order of the neighbours.
+     *
+     * @param vertex the vertex
+     * @param i the rank of the neighbour, less than the degree of the vertex
+     * @return the neighbour
+     */
+    public int getNeighbour(final int vertex, final int i) {
+        return targets[offsets[vertex] + i];
+    }
+
+    /**
+     * Returns whether the given vertices are adjacent.
+     *
+     * @param a the first vertex
+     * @param b the second vertex
+     * @return whether the vertices are connected by an edge
+     */
+    public boolean areAdjacent(final int a, final int b) {
+        return Arrays.binarySearch(targets, offsets[a], offsets[a + 1], b) >= 0;
+    }
+}
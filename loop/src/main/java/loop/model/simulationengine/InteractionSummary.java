@@ -0,0 +1,317 @@
+package loop.model.simulationengine;
+
+/**
+ * An interaction summary stores, for every ordered pair of agents of an {@link AgentStore} that played
+ * against each other in the current adaption step, the number of their encounters and how the first agent
+ * of the pair behaved towards the second one: whether it cooperated in their last game, whether it ever
+ * cooperated and whether it ever defected. This allows memory based strategies such as tit-for-tat or grim
+ * to decide in constant time instead of scanning the history.
+ * <p>
+ * In the same way, the summary stores for every agent and every cohesive group how the agent behaved towards
+ * the members of the group, so that group strategies such as group tit-for-tat or group grim decide in constant
+ * time as well.
+ * <p>
+ * For small populations the summary is stored in a dense matrix, for large populations in a primitive hash
+ * table that only holds the pairs that actually met (see {@link #DENSE_LIMIT}). The same holds for the group
+ * aggregates, which are kept in a hash table that only holds the pairs of agents and groups that actually met
+ * once there are more than {@code DENSE_LIMIT * DENSE_LIMIT} such pairs.
+ */
+public class InteractionSummary {
+
+    /**
+     * The maximum amount of agents for which a dense matrix is used.
+     */
+    public static final int DENSE_LIMIT = PairTable.DENSE_LIMIT;
+
+    private static final int LAST_COOPERATED = 1;
+    private static final int EVER_COOPERATED = 2;
+    private static final int EVER_DEFECTED = 4;
+    private static final int COUNT_SHIFT = 3;
+
+    private final AgentStore store;
+    private final PairTable table;
+    private final int groupCount;
+    //null if there are no cohesive groups
+    private final PairTable groupTable;
+
+    /**
+     * Creates an empty interaction summary for all agents currently in the given store.
+     *
+     * @param store the store of the agents whose interactions shall be summarised
+     */
+    public InteractionSummary(AgentStore store) {
+        this.store = store;
+        this.table = new PairTable(store.size(), 1);
+        int maxGroupId = -1;
+        for (int i = 0; i < store.size(); i++) {
+            maxGroupId = Math.max(maxGroupId, store.getGroupId(i));
+        }
+        this.groupCount = maxGroupId + 1;
+        this.groupTable = (groupCount > 0) ? new PairTable(store.size(), groupCount, 1) : null;
+    }
+
+    /**
+     * Records a game between the two given agents.
+     *
+     * @param player1 the index of the first player in the agent store
+     * @param player2 the index of the second player in the agent store
+     * @param p1Cooperated whether the first player cooperated
+     * @param p2Cooperated whether the second player cooperated
+     */
+    public void record(int player1, int player2, boolean p1Cooperated, boolean p2Cooperated) {
+        if (player1 >= table.getAgentCount() || player2 >= table.getAgentCount()) return;
+        int offset = table.findOrCreate(player1, player2);
+        table.values()[offset] = update(table.values()[offset], p1Cooperated);
+        offset = table.findOrCreate(player2, player1);
+        table.values()[offset] = update(table.values()[offset], p2Cooperated);
+        if (groupTable != null) {
+            int group2 = store.getGroupId(player2);
+            if (group2 >= 0 && group2 < groupCount) {
+                offset = groupTable.findOrCreate(player1, group2);
+                groupTable.values()[offset] = update(groupTable.values()[offset], p1Cooperated);
+            }
+            int group1 = store.getGroupId(player1);
+            if (group1 >= 0 && group1 < groupCount) {
+                offset = groupTable.findOrCreate(player2, group1);
+                groupTable.values()[offset] = update(groupTable.values()[offset], p2Cooperated);
+            }
+        }
+    }
+
+    /**
+     * Returns whether both given agents are covered by this summary. Only for covered agents the other methods
+     * of this summary return meaningful values.
+     *
+     * @param player the first agent
+     * @param opponent the second agent
+     * @return whether both agents are covered by this summary
+     */
+    public boolean covers(Agent player, Agent opponent) {
+        return player.getStore() == store && opponent.getStore() == store && covers(player.getIndex(), opponent.getIndex());
+    }
+
+    /**
+     * Returns whether both agents with the given indices in the store are covered by this summary.
+     *
+     * @param player the index of the first agent
+     * @param opponent the index of the second agent
+     * @return whether both agents are covered by this summary
+     */
+    public boolean covers(int player, int opponent) {
+        return player < table.getAgentCount() && opponent < table.getAgentCount();
+    }
+
+    /**
+     * Returns whether this summary keeps the group aggregates for the given agent and the group of the given
+     * member. Only then the group methods of this summary return meaningful values.
+     *
+     * @param agent the agent whose behaviour towards the group is queried
+     * @param member an agent of a cohesive group
+     * @return whether the group aggregates of the agent and the group of the member are kept
+     */
+    public boolean coversGroup(Agent agent, Agent member) {
+        return agent.getStore() == store && member.getStore() == store && coversGroup(agent.getIndex(), member.getIndex());
+    }
+
+    /**
+     * Returns whether this summary keeps the group aggregates for the agent with the given index and the group of
+     * the agent with the given member index.
+     *
+     * @param agent the index of the agent whose behaviour towards the group is queried
+     * @param member the index of an agent of a cohesive group
+     * @return whether the group aggregates of the agent and the group of the member are kept
+     */
+    public boolean coversGroup(int agent, int member) {
+        if (groupTable == null || !covers(agent, member)) return false;
+        int group = store.getGroupId(member);
+        return group >= 0 && group < groupCount;
+    }
+
+    /**
+     * Returns how many games the given agent played against members of the group of the given member.
+     *
+     * @param agent the agent
+     * @param member an agent of a cohesive group
+     * @return the number of games of the agent against the group
+     */
+    public int getGroupEncounters(Agent agent, Agent member) {
+        return getGroupEncounters(agent.getIndex(), member.getIndex());
+    }
+
+    /**
+     * Returns how many games the agent with the given index played against members of the group of the agent
+     * with the given member index.
+     *
+     * @param agent the index of the agent
+     * @param member the index of an agent of a cohesive group
+     * @return the number of games of the agent against the group
+     */
+    public int getGroupEncounters(int agent, int member) {
+        return getGroup(agent, member) >>> COUNT_SHIFT;
+    }
+
+    /**
+     * Returns whether the given agent cooperated in its last game against a member of the group of the given
+     * member. If it never played against the group, {@code false} is returned.
+     *
+     * @param agent the agent whose behaviour shall be returned
+     * @param member an agent of a cohesive group
+     * @return whether the agent cooperated in its last game against the group
+     */
+    public boolean cooperatedLastTimeWithGroup(Agent agent, Agent member) {
+        return cooperatedLastTimeWithGroup(agent.getIndex(), member.getIndex());
+    }
+
+    /**
+     * Returns whether the agent with the given index cooperated in its last game against a member of the group of
+     * the agent with the given member index. If it never played against the group, {@code false} is returned.
+     *
+     * @param agent the index of the agent whose behaviour shall be returned
+     * @param member the index of an agent of a cohesive group
+     * @return whether the agent cooperated in its last game against the group
+     */
+    public boolean cooperatedLastTimeWithGroup(int agent, int member) {
+        return (getGroup(agent, member) & LAST_COOPERATED) != 0;
+    }
+
+    /**
+     * Returns whether the given agent ever defected in a game against a member of the group of the given member.
+     *
+     * @param agent the agent whose behaviour shall be returned
+     * @param member an agent of a cohesive group
+     * @return whether the agent ever defected against the group
+     */
+    public boolean hasEverDefectedAgainstGroup(Agent agent, Agent member) {
+        return hasEverDefectedAgainstGroup(agent.getIndex(), member.getIndex());
+    }
+
+    /**
+     * Returns whether the agent with the given index ever defected in a game against a member of the group of the
+     * agent with the given member index.
+     *
+     * @param agent the index of the agent whose behaviour shall be returned
+     * @param member the index of an agent of a cohesive group
+     * @return whether the agent ever defected against the group
+     */
+    public boolean hasEverDefectedAgainstGroup(int agent, int member) {
+        return (getGroup(agent, member) & EVER_DEFECTED) != 0;
+    }
+
+    /**
+     * Returns how many games the given agents played against each other.
+     *
+     * @param player the first agent
+     * @param opponent the second agent
+     * @return the number of encounters of the given agents
+     */
+    public int getEncounters(Agent player, Agent opponent) {
+        return getEncounters(player.getIndex(), opponent.getIndex());
+    }
+
+    /**
+     * Returns how many games the agents with the given indices played against each other.
+     *
+     * @param player the index of the first agent
+     * @param opponent the index of the second agent
+     * @return the number of encounters of the agents
+     */
+    public int getEncounters(int player, int opponent) {
+        return get(player, opponent) >>> COUNT_SHIFT;
+    }
+
+    /**
+     * Returns whether the given player cooperated in its last game against the given opponent. If they never
+     * met, {@code false} is returned.
+     *
+     * @param player the agent whose behaviour shall be returned
+     * @param opponent the opponent
+     * @return whether the player cooperated in its last game against the opponent
+     */
+    public boolean cooperatedLastTime(Agent player, Agent opponent) {
+        return cooperatedLastTime(player.getIndex(), opponent.getIndex());
+    }
+
+    /**
+     * Returns whether the agent with index {@code player} cooperated in its last game against the agent with
+     * index {@code opponent}. If they never met, {@code false} is returned.
+     *
+     * @param player the index of the first agent
+     * @param opponent the index of the second agent
+     * @return whether the player cooperated in its last game against the opponent
+     */
+    public boolean cooperatedLastTime(int player, int opponent) {
+        return (get(player, opponent) & LAST_COOPERATED) != 0;
+    }
+
+    /**
+     * Returns whether the given player ever cooperated in a game against the given opponent.
+     *
+     * @param player the agent whose behaviour shall be returned
+     * @param opponent the opponent
+     * @return whether the player ever cooperated against the opponent
+     */
+    public boolean hasEverCooperated(Agent player, Agent opponent) {
+        return hasEverCooperated(player.getIndex(), opponent.getIndex());
+    }
+
+    /**
+     * Returns whether the agent with index {@code player} ever cooperated in a game against the agent with
+     * index {@code opponent}.
+     *
+     * @param player the index of the first agent
+     * @param opponent the index of the second agent
+     * @return whether the player ever cooperated against the opponent
+     */
+    public boolean hasEverCooperated(int player, int opponent) {
+        return (get(player, opponent) & EVER_COOPERATED) != 0;
+    }
+
+    /**
+     * Returns whether the given player ever defected in a game against the given opponent.
+     *
+     * @param player the agent whose behaviour shall be returned
+     * @param opponent the opponent
+     * @return whether the player ever defected against the opponent
+     */
+    public boolean hasEverDefected(Agent player, Agent opponent) {
+        return hasEverDefected(player.getIndex(), opponent.getIndex());
+    }
+
+    /**
+     * Returns whether the agent with index {@code player} ever defected in a game against the agent with
+     * index {@code opponent}.
+     *
+     * @param player the index of the first agent
+     * @param opponent the index of the second agent
+     * @return whether the player ever defected against the opponent
+     */
+    public boolean hasEverDefected(int player, int opponent) {
+        return (get(player, opponent) & EVER_DEFECTED) != 0;
+    }
+
+    /**
+     * Removes all recorded games.
+     */
+    public void reset() {
+        table.reset();
+        if (groupTable != null) {
+            groupTable.reset();
+        }
+    }
+    
+    private int getGroup(int agent, int member) {
+        int offset = groupTable.find(agent, store.getGroupId(member));
+        return (offset < 0) ? 0 : groupTable.values()[offset];
+    }
+
+    private int get(int player, int opponent) {
+        int offset = table.find(player, opponent);
+        return (offset < 0) ? 0 : table.values()[offset];
+    }
+
+    private static int update(int entry, boolean cooperated) {
+        int flags = (entry & (EVER_COOPERATED | EVER_DEFECTED))
+                | (cooperated ? (LAST_COOPERATED | EVER_COOPERATED) : EVER_DEFECTED);
+        return (((entry >>> COUNT_SHIFT) + 1) << COUNT_SHIFT) | flags;
+    }
+}
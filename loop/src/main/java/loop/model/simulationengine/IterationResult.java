@@ -33,6 +33,10 @@ public class IterationResult implements Serializable {
     //capital chart
     private Map<String, List<Integer>> groupCapitals;
     
+    private long seed;
+    private double efficiencyError;
+    private double pairWeight = Double.NaN;
+    
     
     /**
      * Creates a new iteration result.
@@ -53,6 +57,64 @@ public class IterationResult implements Serializable {
         this.groupCapitals = groupCapitals;
     }
     
+    /**
+     * Creates a new iteration result of an iteration whose random source had the given seed.
+     * 
+     * @param equilibriumReached whether an equilibrium was reached
+     * @param efficiency the efficiency of the final state
+     * @param adapts the number of performed adaption steps
+     * @param strategyNames the names of all strategies
+     * @param strategyPortions the portions of all strategies throughout all adaption steps
+     * @param groupCapitals the capitals of all agents, partitioned into their groups
+     * @param seed the seed of the random source of the iteration
+     */
+    public IterationResult(boolean equilibriumReached, double efficiency, int adapts, List<String> strategyNames,
+            Map<String, List<double[]>> strategyPortions, Map<String, List<Integer>> groupCapitals, long seed) {
+        this(equilibriumReached, efficiency, adapts, strategyNames, strategyPortions, groupCapitals);
+        this.seed = seed;
+    }
+    
+    /**
+     * Creates a new iteration result of an iteration whose random source had the given seed and whose efficiency
+     * was estimated with the given standard error.
+     * 
+     * @param equilibriumReached whether an equilibrium was reached
+     * @param efficiency the efficiency of the final state
+     * @param adapts the number of performed adaption steps
+     * @param strategyNames the names of all strategies
+     * @param strategyPortions the portions of all strategies throughout all adaption steps
+     * @param groupCapitals the capitals of all agents, partitioned into their groups
+     * @param seed the seed of the random source of the iteration
+     * @param efficiencyError the standard error of the efficiency, {@code 0} if it was computed exactly
+     */
+    public IterationResult(boolean equilibriumReached, double efficiency, int adapts, List<String> strategyNames,
+            Map<String, List<double[]>> strategyPortions, Map<String, List<Integer>> groupCapitals, long seed,
+            double efficiencyError) {
+        this(equilibriumReached, efficiency, adapts, strategyNames, strategyPortions, groupCapitals, seed);
+        this.efficiencyError = efficiencyError;
+    }
+    
+    /**
+     * Creates a new iteration result of an iteration whose random source had the given seed, whose efficiency
+     * was estimated with the given standard error and whose pair builder achieved the given weight.
+     * 
+     * @param equilibriumReached whether an equilibrium was reached
+     * @param efficiency the efficiency of the final state
+     * @param adapts the number of performed adaption steps
+     * @param strategyNames the names of all strategies
+     * @param strategyPortions the portions of all strategies throughout all adaption steps
+     * @param groupCapitals the capitals of all agents, partitioned into their groups
+     * @param seed the seed of the random source of the iteration
+     * @param efficiencyError the standard error of the efficiency, {@code 0} if it was computed exactly
+     * @param pairWeight the total weight of the pairs built last, {@code NaN} if the pair builder does not weigh pairs
+     */
+    public IterationResult(boolean equilibriumReached, double efficiency, int adapts, List<String> strategyNames,
+            Map<String, List<double[]>> strategyPortions, Map<String, List<Integer>> groupCapitals, long seed,
+            double efficiencyError, double pairWeight) {
+        this(equilibriumReached, efficiency, adapts, strategyNames, strategyPortions, groupCapitals, seed, efficiencyError);
+        this.pairWeight = pairWeight;
+    }
+    
     /**
      * Returns, whether an equilibrium was reached.
      * 
@@ -71,6 +133,27 @@ public class IterationResult implements Serializable {
         return this.efficiency;
     }
     
+    /**
+     * Returns the standard error of the efficiency if it was estimated by sampling, or {@code 0} if it was
+     * computed exactly.
+     * 
+     * @return the standard error of the efficiency
+     */
+    public double getEfficiencyError() {
+        return this.efficiencyError;
+    }
+    
+    /**
+     * Returns the total weight of the pairs built in the last round, i.e. the sum of the cooperation probabilities
+     * of the agents of every pair towards each other, or {@code NaN} if the pair builder does not weigh pairs.
+     * 
+     * @return the total weight of the pairs built last
+     * @see PairBuilder#getAchievedWeight(SimulationHistory)
+     */
+    public double getPairWeight() {
+        return this.pairWeight;
+    }
+    
     /**
      * Returns the amount of performed adaption steps.
      * 
@@ -107,4 +190,14 @@ public class IterationResult implements Serializable {
     public Map<String, List<Integer>> getGroupCapitals() {
         return this.groupCapitals;
     }
+    
+    /**
+     * Returns the seed of the random source of the iteration. Executing an iteration to the same elementary
+     * configuration with a random source with this seed reproduces the iteration.
+     * 
+     * @return the seed of the iteration
+     */
+    public long getSeed() {
+        return this.seed;
+    }
 }
@@ -0,0 +1,245 @@
+package loop.model.simulationengine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import loop.model.simulationengine.distributions.RandomSource;
+
+/**
+ * Realises local play on a sparse {@link InteractionNetwork}: agents are only paired with their neighbours in the
+ * network.
+ * <p>
+ * Every agent is placed on a vertex of the network. If the agents are the agents of one {@link AgentStore}, the
+ * vertex of an agent is its {@link Agent#getIndex() index}, otherwise it is the position of the agent in the list
+ * given on the first call with a history. The placement is kept for all further calls with the same history, so an
+ * agent keeps its neighbours during the whole iteration.
+ * <p>
+ * The network is either given or generated from a {@link Topology} once per history, i.e. once per iteration, with
+ * as many vertices as there are agents. Each round, the vertices are visited in random order and every vertex that
+ * is not yet matched is paired with a random neighbour that is not yet matched either. This yields a random maximal
+ * matching of the network in time linear in the amount of vertices and edges. Agents without an unmatched neighbour
+ * do not play in that round, since pairing them at random would contradict local play.
+ */
+public class NetworkPairBuilder implements PairBuilder {
+
+    public static final String NAME = "Network Pair Builder";
+    public static final String DESCRIPTION = "Places the agents on an interaction network, e.g. a ring, a lattice, a small world"
+            + " or a scale free network, and only pairs agents that are neighbours in the network. Agents without an unpaired"
+            + " neighbour don't play in that round.";
+
+    /**
+     * The topologies of the networks this pair builder can generate.
+     */
+    public enum Topology {
+
+        /**
+         * A ring, in which every agent is connected to the nearest agents on either side, see
+         * {@link InteractionNetwork#ring(int, int)}.
+         */
+        RING,
+
+        /**
+         * A square lattice on a torus, see {@link InteractionNetwork#lattice(int)}. The amount of links is ignored.
+         */
+        LATTICE,
+
+        /**
+         * A ring with randomly rewired edges, see {@link InteractionNetwork#smallWorld(int, int, double, RandomSource)}.
+         */
+        SMALL_WORLD,
+
+        /**
+         * A network generated by preferential attachment, see
+         * {@link InteractionNetwork#scaleFree(int, int, RandomSource)}.
+         */
+        SCALE_FREE;
+
+        /**
+         * Generates a network of this topology.
+         *
+         * @param vertexCount the amount of vertices
+         * @param links the amount of neighbours on either side for rings and small worlds, the amount of edges of
+         *        every added vertex for scale free networks
+         * @param rewiring the probability with which an edge of a small world is rewired
+         * @param random the source of randomness
+         * @return the network
+         */
+        public InteractionNetwork create(int vertexCount, int links, double rewiring, RandomSource random) {
+            switch (this) {
+            case RING:
+                return InteractionNetwork.ring(vertexCount, links);
+            case LATTICE:
+                return InteractionNetwork.lattice(vertexCount);
+            case SMALL_WORLD:
+                return InteractionNetwork.smallWorld(vertexCount, links, rewiring, random);
+            default:
+                return InteractionNetwork.scaleFree(vertexCount, links, random);
+            }
+        }
+    }
+
+    private final InteractionNetwork network;
+    private final Topology topology;
+    private final int links;
+    private final double rewiring;
+
+    //a history belongs to a single iteration, so the placement of a history is only used by one thread at a time
+    private final Map<SimulationHistory, Placement> placementByHistory
+            = Collections.synchronizedMap(new WeakHashMap<SimulationHistory, Placement>());
+
+    /**
+     * Creates a new network pair builder that pairs the agents on the given network. Agents placed on a vertex
+     * beyond the network do not play.
+     *
+     * @param network the network
+     */
+    public NetworkPairBuilder(InteractionNetwork network) {
+        if (network == null) {
+            throw new IllegalArgumentException("The interaction network must not be null.");
+        }
+        this.network = network;
+        this.topology = null;
+        this.links = 0;
+        this.rewiring = 0;
+    }
+
+    /**
+     * Creates a new network pair builder that generates a network of the given topology for every history.
+     *
+     * @param topology the topology of the networks
+     * @param links the amount of neighbours on either side for rings and small worlds, the amount of edges of every
+     *        added vertex for scale free networks, must be positive
+     * @param rewiring the probability with which an edge of a small world is rewired
+     */
+    public NetworkPairBuilder(Topology topology, int links, double rewiring) {
+        if (topology == null || links < 1 || rewiring < 0 || rewiring > 1) {
+            throw new IllegalArgumentException("Invalid parameters for the generation of interaction networks.");
+        }
+        this.network = null;
+        this.topology = topology;
+        this.links = links;
+        this.rewiring = rewiring;
+    }
+
+    @Override
+    public List<AgentPair> buildPairs(List<Agent> agents, SimulationHistory history) {
+        RandomSource random = RandomSource.current();
+        Placement placement = placementByHistory.get(history);
+        if (placement == null) {
+            InteractionNetwork placementNetwork = (network != null) ? network
+                    : topology.create(agents.size(), links, rewiring, random);
+            placement = new Placement(placementNetwork, agents);
+            placementByHistory.put(history, placement);
+        }
+        InteractionNetwork graph = placement.network;
+        int vertexCount = graph.getVertexCount();
+
+        //the agent on every vertex this round, if any
+        Agent[] agentOnVertex = new Agent[vertexCount];
+        for (Agent agent: agents) {
+            int vertex = placement.vertexOf(agent);
+            if (vertex >= 0 && vertex < vertexCount) agentOnVertex[vertex] = agent;
+        }
+
+        int[] order = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            order[v] = v;
+        }
+        boolean[] matched = new boolean[vertexCount];
+        List<AgentPair> pairs = new ArrayList<AgentPair>(agents.size() / 2);
+        for (int i = vertexCount - 1; i >= 0; i--) {
+            //draw the next vertex like a Fisher-Yates shuffle
+            int j = random.nextInt(i + 1);
+            int v = order[j];
+            order[j] = order[i];
+            order[i] = v;
+            if (matched[v] || agentOnVertex[v] == null) continue;
+
+            int degree = graph.getDegree(v);
+            int start = (degree > 0) ? random.nextInt(degree) : 0;
+            for (int k = 0; k < degree; k++) {
+                int u = graph.getNeighbour(v, (start + k) % degree);
+                if (!matched[u] && agentOnVertex[u] != null) {
+                    matched[v] = true;
+                    matched[u] = true;
+                    pairs.add(new ConcreteAgentPair(agentOnVertex[v], agentOnVertex[u]));
+                    break;
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Returns the network the agents were placed on by the first call of
+     * {@link #buildPairs(List, SimulationHistory)} with the given history, or {@code null} if there was no such call.
+     *
+     * @param history the history
+     * @return the network of the history
+     */
+    public InteractionNetwork getNetwork(SimulationHistory history) {
+        Placement placement = placementByHistory.get(history);
+        return (placement != null) ? placement.network : null;
+    }
+
+    /**
+     * Returns the vertex the given agent was placed on for the given history, or {@code -1} if it was not placed.
+     *
+     * @param history the history
+     * @param agent the agent
+     * @return the vertex of the agent
+     */
+    public int getVertex(SimulationHistory history, Agent agent) {
+        Placement placement = placementByHistory.get(history);
+        return (placement != null) ? placement.vertexOf(agent) : -1;
+    }
+
+    @Override
+    public HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.NONE;
+    }
+
+    /**
+     * The network of one history, together with the vertices of the agents.
+     */
+    private static class Placement {
+
+        private final InteractionNetwork network;
+        //the common store of the agents if they are placed by their index, null otherwise
+        private final AgentStore agentStore;
+        private final Map<Agent, Integer> vertices;
+
+        private Placement(InteractionNetwork network, List<Agent> agents) {
+            this.network = network;
+            this.agentStore = haveDistinctIndices(agents) && !agents.isEmpty() ? agents.get(0).getStore() : null;
+            this.vertices = new IdentityHashMap<Agent, Integer>();
+            if (agentStore == null) {
+                for (int i = 0; i < agents.size(); i++) {
+                    vertices.put(agents.get(i), i);
+                }
+            }
+        }
+
+        private int vertexOf(Agent agent) {
+            if (agentStore != null) return (agent.getStore() == agentStore) ? agent.getIndex() : -1;
+            Integer vertex = vertices.get(agent);
+            return (vertex != null) ? vertex : -1;
+        }
+
+        private static boolean haveDistinctIndices(List<Agent> agents) {
+            if (agents.isEmpty()) return true;
+            AgentStore agentStore = agents.get(0).getStore();
+            if (agentStore.size() != agents.size()) return false;
+            boolean[] seen = new boolean[agents.size()];
+            for (Agent agent: agents) {
+                if (agent.getStore() != agentStore || seen[agent.getIndex()]) return false;
+                seen[agent.getIndex()] = true;
+            }
+            return true;
+        }
+    }
+}
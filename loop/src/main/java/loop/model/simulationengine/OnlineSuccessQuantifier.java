@@ -0,0 +1,51 @@
+package loop.model.simulationengine;
+
+import java.util.List;
+
+/**
+ * A {@link SuccessQuantifier} that ranks the agents by the payoffs they received in the elapsed adaption step and
+ * therefore does not need to evaluate the history itself. The {@link SimulationEngine} accumulates the payoffs of
+ * all games while they are played and hands them to {@link #createRanking(List, long[])}, so the history is not
+ * passed over a second time.
+ * <p>
+ * {@link #createRanking(List, SimulationHistory)} is still used if the quantifier is applied outside of the
+ * simulation engine.
+ */
+public interface OnlineSuccessQuantifier extends SuccessQuantifier {
+
+    /**
+     * Creates and returns a ranking of the given agents from the payoffs they received in the elapsed
+     * adaption step.
+     *
+     * @param agents the agents that shall be ranked
+     * @param payoffs the total payoff every agent received in the elapsed adaption step, indexed by the
+     * {@linkplain Agent#getIndex() index} of the agent
+     * @return the created ranking
+     */
+    List<Agent> createRanking(final List<Agent> agents, final long[] payoffs);
+
+    /**
+     * Creates and returns a ranking of the given agents from the payoffs they received in the elapsed
+     * adaption step, see {@link SuccessQuantifier#rank(List, SimulationHistory)}. By default this wraps the
+     * list created by {@link #createRanking(List, long[])}.
+     *
+     * @param agents the agents that shall be ranked
+     * @param payoffs the total payoff every agent received in the elapsed adaption step, indexed by the
+     * {@linkplain Agent#getIndex() index} of the agent
+     * @return the created ranking
+     */
+    default Ranking rank(final List<Agent> agents, final long[] payoffs) {
+        return new Ranking(createRanking(agents, payoffs));
+    }
+    
+    /**
+     * Returns {@link HistoryRequirement#NONE}, as the payoffs are handed to an online success quantifier
+     * directly.
+     * 
+     * @return {@link HistoryRequirement#NONE}
+     */
+    @Override
+    default HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.NONE;
+    }
+}
@@ -20,4 +20,26 @@ public interface PairBuilder {
      * @return the built pairs
      */
     List<AgentPair> buildPairs(final List<Agent> agents, final SimulationHistory history);
+    
+    /**
+     * Returns how much of the history this pair builder reads to build the pairs.
+     * By default all games are assumed to be read.
+     * 
+     * @return the history requirement of this pair builder
+     */
+    default HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.FULL;
+    }
+    
+    /**
+     * Returns the total weight of the pairs built by the last call of {@link #buildPairs(List, SimulationHistory)}
+     * with the given history, if this pair builder weighs pairs, i.e. the sum of the cooperation probabilities of
+     * the agents of every pair towards each other. By default pairs are not weighed and {@code NaN} is returned.
+     * 
+     * @param history the history
+     * @return the total weight of the pairs built last for the history, or {@code NaN}
+     */
+    default double getAchievedWeight(final SimulationHistory history) {
+        return Double.NaN;
+    }
 }
@@ -0,0 +1,160 @@
+package loop.model.simulationengine;
+
+import java.util.Arrays;
+
+/**
+ * A table holding a fixed amount of {@code int} values for every ordered pair of agents of an
+ * {@link AgentStore}, or more generally for every pair of a row and a column, e.g. of an agent and a group.
+ * For small tables the values are stored in a dense matrix, for large tables in an open addressing hash table
+ * with {@code long} keys that only holds the pairs that were written.
+ * <p>
+ * The values of a pair are addressed by an offset into {@link #values()}; the values of a pair that was
+ * never written are all {@code 0}.
+ */
+class PairTable {
+
+    /**
+     * The maximum amount of agents for which a dense matrix is used. Tables of rows and columns are dense up to
+     * the same amount of pairs.
+     */
+    static final int DENSE_LIMIT = 1024;
+
+    private static final long EMPTY = -1L;
+
+    private final int agentCount;
+    private final int columnCount;
+    private final int width;
+    private final boolean dense;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates a new table for the given amount of agents with the given amount of values per pair.
+     *
+     * @param agentCount the amount of agents
+     * @param width the amount of values per pair
+     */
+    PairTable(int agentCount, int width) {
+        this(agentCount, agentCount, width);
+    }
+
+    /**
+     * Creates a new table for the given amount of rows, i.e. agents, and columns with the given amount of values
+     * per pair.
+     *
+     * @param agentCount the amount of agents
+     * @param columnCount the amount of columns
+     * @param width the amount of values per pair
+     */
+    PairTable(int agentCount, int columnCount, int width) {
+        this.agentCount = agentCount;
+        this.columnCount = columnCount;
+        this.width = width;
+        this.dense = (long) agentCount * columnCount <= (long) DENSE_LIMIT * DENSE_LIMIT;
+        if (dense) {
+            values = new int[agentCount * columnCount * width];
+        } else {
+            allocate(Integer.highestOneBit(Math.max(agentCount, 8)) * 4);
+        }
+    }
+
+    /**
+     * Returns the amount of agents covered by this table.
+     *
+     * @return the amount of agents
+     */
+    int getAgentCount() {
+        return agentCount;
+    }
+
+    /**
+     * Returns the array holding the values. The array may be replaced by {@link #findOrCreate(int, int)}.
+     *
+     * @return the array holding the values
+     */
+    int[] values() {
+        return values;
+    }
+
+    /**
+     * Returns the offset of the values of the given pair, or {@code -1} if the pair was never written.
+     *
+     * @param player the index of the first agent
+     * @param opponent the index of the second agent
+     * @return the offset of the values of the pair, or {@code -1}
+     */
+    int find(int player, int opponent) {
+        if (dense) return (player * columnCount + opponent) * width;
+        long key = key(player, opponent);
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) return i * width;
+            if (keys[i] == EMPTY) return -1;
+        }
+    }
+
+    /**
+     * Returns the offset of the values of the given pair, creating an entry if necessary.
+     *
+     * @param player the index of the first agent
+     * @param opponent the index of the second agent
+     * @return the offset of the values of the pair
+     */
+    int findOrCreate(int player, int opponent) {
+        if (dense) return (player * columnCount + opponent) * width;
+        long key = key(player, opponent);
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == key) return i * width;
+        if (2 * (size + 1) > keys.length) {
+            rehash();
+            return findOrCreate(player, opponent);
+        }
+        keys[i] = key;
+        size++;
+        return i * width;
+    }
+
+    /**
+     * Sets all values of all pairs to {@code 0}.
+     */
+    void reset() {
+        if (!dense) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+        Arrays.fill(values, 0);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity * width];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(2 * oldKeys.length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int offset = findOrCreate((int) (oldKeys[i] >>> 32), (int) oldKeys[i]);
+            System.arraycopy(oldValues, i * width, values, offset, width);
+        }
+    }
+
+    private static long key(int player, int opponent) {
+        return ((long) player << 32) | opponent;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32);
+    }
+}
@@ -1,6 +1,6 @@
 package loop.model.simulationengine;
 
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -10,7 +10,7 @@ import java.util.Map;
  * @author Peter Koepernik
  *
  */
-public class PayoffInLastAdapt implements SuccessQuantifier {
+public class PayoffInLastAdapt implements OnlineSuccessQuantifier {
     
     public static final String NAME = "Payoff in the Last Adaption Step";
     public static final String DESCRIPTION = "Uses the total payoff received within the games "
@@ -18,19 +18,38 @@ public class PayoffInLastAdapt implements SuccessQuantifier {
     
     @Override
     public List<Agent> createRanking(List<Agent> agents, SimulationHistory history) {
-        Map<Agent, Double> payoffs = new HashMap<Agent, Double>();
-        for (Agent a: agents) {
-            payoffs.put(a, 0.0);
+        return rank(agents, history).getAgents();
+    }
+    
+    @Override
+    public Ranking rank(List<Agent> agents, SimulationHistory history) {
+        Map<Agent, Integer> positions = new IdentityHashMap<Agent, Integer>();
+        for (int i = 0; i < agents.size(); i++) {
+            positions.put(agents.get(i), i);
         }
+        long[] payoffs = new long[agents.size()];
         for (GameResult game: history.getAllResults()) {
-            Agent a1 = game.getAgents().get(0);
-            Agent a2 = game.getOtherAgent(a1);
-            double p1 = game.getPayoff(a1);
-            double p2 = game.getPayoff(a2);
-            payoffs.replace(a1, payoffs.get(a1) + p1);
-            payoffs.replace(a2, payoffs.get(a2) + p2);
+            Agent a1 = game.getFirstAgent();
+            Agent a2 = game.getSecondAgent();
+            Integer p1 = positions.get(a1);
+            Integer p2 = positions.get(a2);
+            if (p1 != null) payoffs[p1] += game.getPayoff(a1);
+            if (p2 != null) payoffs[p2] += game.getPayoff(a2);
+        }
+        return Ranking.byDescendingScore(agents, payoffs);
+    }
+    
+    @Override
+    public List<Agent> createRanking(List<Agent> agents, long[] payoffs) {
+        return rank(agents, payoffs).getAgents();
+    }
+    
+    @Override
+    public Ranking rank(List<Agent> agents, long[] payoffs) {
+        long[] keys = new long[agents.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = payoffs[agents.get(i).getIndex()];
         }
-        agents.sort((a1, a2) -> (payoffs.get(a2) - payoffs.get(a1) < 0) ? -1 : ((payoffs.get(a2) - payoffs.get(a1) > 0) ? 1 : 0));
-        return agents;
+        return Ranking.byDescendingScore(agents, keys);
     }
 }
@@ -1,11 +1,9 @@
 package loop.model.simulationengine;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
+import loop.model.simulationengine.distributions.RandomSource;
 import loop.model.simulationengine.strategies.MixedStrategy;
-import loop.model.simulationengine.strategies.Strategy;
 
 /**
  * Realises the "preferential adaption" adaption mechanism described in the specification.
@@ -43,6 +41,12 @@ public class PreferentialAdaption implements StrategyAdjuster {
     
     @Override
     public void adaptStrategies(List<Agent> agents, SimulationHistory history) {
+        adaptStrategies(new Ranking(agents), history);
+    }
+    
+    @Override
+    public void adaptStrategies(Ranking ranking, SimulationHistory history) {
+        List<Agent> agents = ranking.getAgents();
         double beta_prime = this.beta / (agents.size() - 1);
         
         //check whether all strategies are mixed
@@ -51,8 +55,8 @@ public class PreferentialAdaption implements StrategyAdjuster {
             if (!(agent.getStrategy() instanceof MixedStrategy)) allMixed = false;
         }
         
+        RandomSource r = RandomSource.current();
         for (Agent agentA: agents) {
-            Random r = new Random();
             if (r.nextDouble() > this.alpha) continue;
             
             //choose Agent B
@@ -60,42 +64,36 @@ public class PreferentialAdaption implements StrategyAdjuster {
             double P = 0; //P = sum_{l=/=i} p_{il}
             for (Agent a: agents) {
                 if (a == agentA) continue;
-                P += agentA.getStrategy().getCooperationProbability(agentA, a, history);
+                P += history.getCooperationProbability(agentA, a);
             }
             double p = P * r.nextDouble();
             for (Agent a: agents) {
                 if (a == agentA) continue;
-                if (p <= agentA.getStrategy().getCooperationProbability(agentA, a, history)) {
+                if (p <= history.getCooperationProbability(agentA, a)) {
                     agentB = a;
                     break;
                 }
-                p -= agentA.getStrategy().getCooperationProbability(agentA, a, history);
+                p -= history.getCooperationProbability(agentA, a);
             }
             
             //assert agentB != null, sonst probabilities fucked up
             
-            int deltaR = agents.indexOf(agentA) - agents.indexOf(agentB);
+            int deltaR = ranking.getRank(agentA) - ranking.getRank(agentB);
             if (deltaR < 0) continue;
             
             //adapt strategy
-            double delta = beta_prime * deltaR * agentA.getStrategy().getCooperationProbability(agentA, agentB, history);
+            double delta = beta_prime * deltaR * history.getCooperationProbability(agentA, agentB);
             if (allMixed) { //interpolate strategies
-                MixedStrategy stratA = (MixedStrategy) agentA.getStrategy();
-                MixedStrategy stratB = (MixedStrategy) agentB.getStrategy();
-                
-                List<Strategy> partStrats = new ArrayList<Strategy>(stratA.getComponentStrategies());
-                List<Double> interpolationProbs = new ArrayList<Double>();
-                for (Strategy s: partStrats) {
-                    int index = partStrats.indexOf(s);
-                    double probA = stratA.getComponent(index);
-                    double probB = stratB.getComponent(index);
-                    interpolationProbs.add(probA + delta * (probB - probA));
-                }
-                agentA.setStrategy(new MixedStrategy("--autogenerated--", "--autogenerated--", partStrats, interpolationProbs));
+                agentA.interpolateStrategy((MixedStrategy) agentB.getStrategy(), delta);
             } else { //take strategy with probability delta
                 if (r.nextDouble() <= delta)
                     agentA.setStrategy(agentB.getStrategy());
             }
         }
     }
+    
+    @Override
+    public HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.NONE;
+    }
 }
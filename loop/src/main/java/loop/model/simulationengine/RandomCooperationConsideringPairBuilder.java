@@ -1,7 +1,8 @@
 package loop.model.simulationengine;
 
 import java.util.List;
-import java.util.Random;
+
+import loop.model.simulationengine.distributions.RandomSource;
 
 /**
  * Realises the "Paarbildung nach Wunsch mit Zufall" pairing mechanism as described in the specification.
@@ -32,9 +33,15 @@ public class RandomCooperationConsideringPairBuilder implements PairBuilder {
     
     @Override
     public List<AgentPair> buildPairs(List<Agent> agents, SimulationHistory history) {
-        if (new Random().nextDouble() <= this.randomnessFactor) {
+        if (RandomSource.current().nextDouble() <= this.randomnessFactor) {
             return this.randomPairBuilder.buildPairs(agents, history);
         }
         return this.cooperationConsideringPairBuilder.buildPairs(agents, history);
     }
+    
+    @Override
+    public HistoryRequirement getHistoryRequirement() {
+        return this.randomPairBuilder.getHistoryRequirement()
+                .and(this.cooperationConsideringPairBuilder.getHistoryRequirement());
+    }
 }
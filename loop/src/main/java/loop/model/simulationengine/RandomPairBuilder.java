@@ -3,10 +3,11 @@ package loop.model.simulationengine;
 import java.util.ArrayList;
 import java.util.List;
 
-import loop.model.simulationengine.distributions.UniformFiniteDistribution;
+import loop.model.simulationengine.distributions.RandomSource;
 
 /**
- * Realises the random pairing of agents.
+ * Realises the random pairing of agents. The agents are drawn by a partial Fisher-Yates shuffle, so building the
+ * pairs takes time linear in the amount of agents.
  * 
  * @author Peter Koepernik
  *
@@ -23,11 +24,24 @@ public class RandomPairBuilder implements PairBuilder {
     public List<AgentPair> buildPairs(final List<Agent> agents, final SimulationHistory history) {
         int pairCount = agents.size() / 2;
         List<AgentPair> pairs = new ArrayList<AgentPair>(pairCount);
-        UniformFiniteDistribution<Agent> agentDist = new UniformFiniteDistribution<Agent>(agents);
+        Agent[] order = agents.toArray(new Agent[agents.size()]);
+        RandomSource random = RandomSource.current();
         
-        while (pairs.size() < pairCount) {
-            pairs.add(new ConcreteAgentPair(agentDist.pickAndRemove(), agentDist.pickAndRemove()));
+        //partial Fisher-Yates shuffle, every two drawn agents form a pair
+        for (int i = 0; i < 2 * pairCount; i++) {
+            int j = i + random.nextInt(order.length - i);
+            Agent agent = order[j];
+            order[j] = order[i];
+            order[i] = agent;
+            if (i % 2 == 1) {
+                pairs.add(new ConcreteAgentPair(order[i - 1], order[i]));
+            }
         }
         return pairs;
     }
+    
+    @Override
+    public HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.NONE;
+    }
 }
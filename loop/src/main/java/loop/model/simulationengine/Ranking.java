@@ -0,0 +1,123 @@
+package loop.model.simulationengine;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A ranking of agents, as handed from a {@link SuccessQuantifier} to a {@link StrategyAdjuster}. Besides the agents
+ * ordered by their success, a ranking knows the rank of every agent, so that rank differences can be computed in
+ * constant time, and optionally the score every agent was ranked by.
+ * <p>
+ * The ranks are taken when the ranking is created. If all agents belong to the same {@link AgentStore}, they are
+ * stored in an array indexed by the index of the agents, otherwise in a map.
+ */
+public class Ranking {
+
+    private final List<Agent> agents;
+    private final long[] scores;
+    private final int[] ranks;
+    private final Map<Agent, Integer> rankMap;
+
+    /**
+     * Creates a new ranking of the given agents without scores.
+     *
+     * @param agents the agents, ordered by their success (best first)
+     */
+    public Ranking(final List<Agent> agents) {
+        this(agents, null);
+    }
+
+    private Ranking(final List<Agent> agents, final long[] scores) {
+        this.agents = agents;
+        this.scores = scores;
+        AgentStore store = AgentSnapshot.sharedStore(agents);
+        if (store != null) {
+            this.ranks = new int[store.size()];
+            this.rankMap = null;
+            for (int rank = 0; rank < agents.size(); rank++) {
+                ranks[agents.get(rank).getIndex()] = rank;
+            }
+        } else {
+            this.ranks = null;
+            this.rankMap = new IdentityHashMap<Agent, Integer>(2 * agents.size());
+            for (int rank = 0; rank < agents.size(); rank++) {
+                rankMap.put(agents.get(rank), rank);
+            }
+        }
+    }
+
+    /**
+     * Sorts the given list of agents by descending score and returns the ranking with these scores. The sort is
+     * stable: agents with equal scores keep their relative order. It is cheapest if the list is almost ordered by
+     * descending score already, e.g. because it is the ranking of the previous adaption step and the scores have
+     * changed only a little since then.
+     *
+     * @param agents the agents, they are reordered
+     * @param scores the scores of the agents, in the order of the given list
+     * @return the ranking of the given agents
+     */
+    public static Ranking byDescendingScore(final List<Agent> agents, final long[] scores) {
+        if (agents.size() != scores.length) {
+            throw new IllegalArgumentException("Attempted to rank agents by scores of different size");
+        }
+        int[] order = IndexSort.descendingAdaptive(scores);
+        List<Agent> copy = new ArrayList<Agent>(agents);
+        long[] sorted = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            agents.set(i, copy.get(order[i]));
+            sorted[i] = scores[order[i]];
+        }
+        return new Ranking(agents, sorted);
+    }
+
+    /**
+     * Returns the ranked agents, ordered by their success (best first).
+     *
+     * @return the ranked agents
+     */
+    public List<Agent> getAgents() {
+        return agents;
+    }
+
+    /**
+     * Returns the amount of ranked agents.
+     *
+     * @return the amount of ranked agents
+     */
+    public int size() {
+        return agents.size();
+    }
+
+    /**
+     * Returns the rank of the given agent, i.e. its position in {@link #getAgents()}, starting with {@code 0} for
+     * the most successful agent.
+     *
+     * @param agent a ranked agent
+     * @return the rank of the agent
+     */
+    public int getRank(final Agent agent) {
+        return (ranks != null) ? ranks[agent.getIndex()] : rankMap.get(agent);
+    }
+
+    /**
+     * Returns whether this ranking knows the scores the agents were ranked by.
+     *
+     * @return whether this ranking has scores
+     */
+    public boolean hasScores() {
+        return scores != null;
+    }
+
+    /**
+     * Returns the score of the agent with the given rank. Must only be called if this ranking
+     * {@linkplain #hasScores() has scores}.
+     *
+     * @param rank the rank
+     * @return the score of the agent with the given rank
+     */
+    public long getScore(final int rank) {
+        return scores[rank];
+    }
+}
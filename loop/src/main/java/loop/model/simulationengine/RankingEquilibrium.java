@@ -34,21 +34,10 @@ public class RankingEquilibrium extends CountingEquilibriumCriterion {
     }
     
     @Override
-    public boolean hasEquilibriumCondition(final List<Agent> lastRoundAgentsFlatCopy,
-            final List<Agent> lastRoundAgentsDeepCopy, final List<Agent> agents) {
-        if (lastRoundAgentsFlatCopy.size() != agents.size() || lastRoundAgentsDeepCopy.size() != agents.size()) {
-            throw new IllegalArgumentException("Invalid parameters in call of 'hasEquilibriumCondition'");
-        }
-        
-        int[] oldRank = new int[agents.size()];
-        
-        for (int i = 0; i < agents.size(); i++) {
-            oldRank[i] = lastRoundAgentsFlatCopy.indexOf(agents.get(i));
-        }
-        
-        int diff = 0;
+    public boolean hasEquilibriumCondition(final AgentSnapshot previous, final List<Agent> agents) {
+        long diff = 0;
         for (int i = 0; i < agents.size(); i++) {
-            diff += Math.abs(i - oldRank[i]);
+            diff += Math.abs(i - previous.getRank(previous.idOf(agents.get(i))));
         }
 
         return (diff < 0.5 * alpha * agents.size() * agents.size());
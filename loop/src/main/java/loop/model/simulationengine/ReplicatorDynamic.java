@@ -1,12 +1,10 @@
 package loop.model.simulationengine;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
-import loop.model.simulationengine.distributions.UniformFiniteDistribution;
+import loop.model.simulationengine.distributions.RandomSource;
+import loop.model.simulationengine.distributions.UniformIndexSampler;
 import loop.model.simulationengine.strategies.MixedStrategy;
-import loop.model.simulationengine.strategies.Strategy;
 
 /**
  * Realises the "replicator dynamic" adaption mechanism described in the specification.
@@ -43,6 +41,12 @@ public class ReplicatorDynamic implements StrategyAdjuster {
     
     @Override
     public void adaptStrategies(List<Agent> agents, SimulationHistory history) {
+        adaptStrategies(new Ranking(agents), history);
+    }
+    
+    @Override
+    public void adaptStrategies(Ranking ranking, SimulationHistory history) {
+        List<Agent> agents = ranking.getAgents();
         double beta_prime = this.beta / (agents.size() - 1);
         
         //check whether all strategies are mixed
@@ -51,38 +55,33 @@ public class ReplicatorDynamic implements StrategyAdjuster {
             if (!(agent.getStrategy() instanceof MixedStrategy)) allMixed = false;
         }
         
-        UniformFiniteDistribution<Agent> dist = new UniformFiniteDistribution<Agent>(agents);
-        for (Agent agentA: agents) {
-            Random r = new Random();
+        UniformIndexSampler sampler = new UniformIndexSampler(agents.size());
+        RandomSource r = RandomSource.current();
+        for (int a = 0; a < agents.size(); a++) {
+            Agent agentA = agents.get(a);
             if (r.nextDouble() > this.alpha) continue;
             
             //choose Agent B
-            dist.removeObject(agentA);
-            Agent agentB = dist.getPicker().pickOne();
-            dist.addObject(agentA);
+            sampler.remove(a);
+            Agent agentB = agents.get(sampler.pick(r));
+            sampler.restore(a);
             
-            int deltaR = agents.indexOf(agentA) - agents.indexOf(agentB);
+            int deltaR = ranking.getRank(agentA) - ranking.getRank(agentB);
             if (deltaR < 0) continue;
             
             //adapt strategy
             double delta = beta_prime * deltaR;
             if (allMixed) { //interpolate strategies
-                MixedStrategy stratA = (MixedStrategy) agentA.getStrategy();
-                MixedStrategy stratB = (MixedStrategy) agentB.getStrategy();
-                
-                List<Strategy> partStrats = new ArrayList<Strategy>(stratA.getComponentStrategies());
-                List<Double> interpolationProbs = new ArrayList<Double>();
-                for (Strategy s: partStrats) {
-                    int index = partStrats.indexOf(s);
-                    double probA = stratA.getComponent(index);
-                    double probB = stratB.getComponent(index);
-                    interpolationProbs.add(probA + delta * (probB - probA));
-                }
-                agentA.setStrategy(new MixedStrategy("--autogenerated--", "--autogenerated--", partStrats, interpolationProbs));
+                agentA.interpolateStrategy((MixedStrategy) agentB.getStrategy(), delta);
             } else { //take strategy with probability delta
                 if (r.nextDouble() <= delta)
                     agentA.setStrategy(agentB.getStrategy());
             }
         }
     }
+    
+    @Override
+    public HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.NONE;
+    }
 }
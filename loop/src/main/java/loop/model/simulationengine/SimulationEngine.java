@@ -1,11 +1,22 @@
 package loop.model.simulationengine;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import loop.model.simulationengine.distributions.RandomSource;
+import loop.model.simulationengine.strategies.AutomatonStrategy;
+import loop.model.simulationengine.strategies.CompositeStrategy;
+import loop.model.simulationengine.strategies.IndexedStrategy;
 import loop.model.simulationengine.strategies.MixedStrategy;
 import loop.model.simulationengine.strategies.Strategy;
 
@@ -17,21 +28,60 @@ import loop.model.simulationengine.strategies.Strategy;
  */
 public class SimulationEngine {
     
+    /**
+     * The indices of the random streams of the components, derived from the random source of the configuration.
+     */
+    private static final int INITIALISATION_STREAM = 0;
+    private static final int PAIRING_STREAM = 1;
+    private static final int STRATEGY_STREAM = 2;
+    private static final int ADJUSTMENT_STREAM = 3;
+    private static final int EFFICIENCY_STREAM = 4;
+    
+    /**
+     * The amount of pairs whose decisions are evaluated by one task if a round is played in parallel. Every chunk
+     * draws from its own random stream, so the result does not depend on how the chunks are scheduled.
+     */
+    private static final int ROUND_CHUNK_SIZE = 1024;
+    
+    /**
+     * The amount of rows of the pair matrix that are evaluated by one task if the efficiency is computed in parallel.
+     */
+    private static final int EFFICIENCY_BLOCK_SIZE = 64;
+    
+    /**
+     * The minimum amount of sampled pairs before a sampled efficiency may stop.
+     */
+    private static final int MIN_EFFICIENCY_SAMPLES = 1000;
+    
+    /**
+     * The maximum amount of cooperation probabilities cached by the history.
+     */
+    private static final int MAX_COOPERATION_CACHE_SIZE = 1 << 18;
+    
+    private AgentStore agentStore;
     private List<Agent> agents;
-    private SimulationHistory history;
+    private SimulationHistoryBuffer history;
     private PairBuilder pairBuilder;
     private SuccessQuantifier successQuantifier;
+    private long[] stepPayoffs;
     private StrategyAdjuster strategyAdjuster;
     private EquilibriumCriterion equilibriumCriterion;
     private int adaptionsteps;
     private boolean equilibriumReached;
     private double efficiency;
+    private double efficiencyError;
+    private double pairWeight;
     private Configuration configuration;
     
+    //random streams of the components
+    private RandomSource pairingRandom;
+    private RandomSource strategyRandom;
+    private RandomSource adjustmentRandom;
+    
     //for the strategy distributions over time
     private Map<Integer, List<double[]>> strategyPortions;
-    private Map<Integer, Integer> groupSizes;
     private List<String> strategyNames;
+    private int[] strategyNameIndices;
     
     private boolean printInfo = false;
     private int printPeriod = 5;
@@ -41,31 +91,41 @@ public class SimulationEngine {
     private boolean finished = false;
     
     /**
-     * Executes an iteration to the given elementary configuration.
+     * Executes an iteration to the given elementary configuration. The agent initialisation, the pair builder,
+     * the strategies and the adaption (ranking, strategy adjuster and equilibrium criterion) each draw from
+     * their own stream derived from the random source of the configuration, so an iteration is fully
+     * determined by the seed of that source.
      * 
      * @param configuration the elementary configuration to which an iteration shall be executed
      */
     public void executeIteration(Configuration configuration) {
+        RandomSource random = configuration.getRandomSource();
+        pairingRandom = random.derive(PAIRING_STREAM);
+        strategyRandom = random.derive(STRATEGY_STREAM);
+        adjustmentRandom = random.derive(ADJUSTMENT_STREAM);
+        RandomSource.bind(random.derive(INITIALISATION_STREAM));
+        try {
+            execute(configuration);
+        } finally {
+            RandomSource.bind(null);
+        }
+    }
+    
+    private void execute(Configuration configuration) {
         this.configuration = configuration;
         
         initialiseAgents();
         
-        history = new SimulationHistoryMap();
         pairBuilder = configuration.getPairBuilder();
         successQuantifier = configuration.getSuccessQuantifier();
         strategyAdjuster = configuration.getStrategyAdjuster();
         equilibriumCriterion = configuration.getEquilibriumCriterion();
+        initialiseHistory();
+        stepPayoffs = (successQuantifier instanceof OnlineSuccessQuantifier) ? new long[agentStore.size()] : null;
         
         strategyPortions = new HashMap<Integer, List<double[]>>();
-        groupSizes = new HashMap<Integer, Integer>();
         configuration.getSegments().forEach(seg -> strategyPortions.putIfAbsent(seg.getGroupId(), new ArrayList<double[]>()));
         
-        agents.forEach(agent -> {
-            int id = agent.getGroupId();
-            groupSizes.putIfAbsent(id, 0);
-            groupSizes.put(id, groupSizes.get(id) + 1);
-        });
-        
         strategyNames = new ArrayList<String>();
         if (configuration.allowsMixedStrategies()) {
             strategyNames = ((MixedStrategy) agents.get(0).getStrategy()).getComponentStrategies().stream().map(
@@ -78,6 +138,7 @@ public class SimulationEngine {
         
         adaptionsteps = 0;
         equilibriumReached = false;
+        pairWeight = Double.NaN;
         
         printCounter = 1;
         
@@ -94,26 +155,100 @@ public class SimulationEngine {
     }
     
     private void initialiseAgents() {
-        agents = new AgentInitialiser().initialiseAgents(configuration.getSegments(), configuration.allowsMixedStrategies());
+        agentStore = new AgentInitialiser().initialiseAgentStore(configuration.getSegments(), configuration.allowsMixedStrategies());
+        agents = agentStore.asList();
+        strategyNameIndices = new int[0];
+    }
+    
+    /**
+     * Creates the history. The history retains no more than the combined {@link HistoryRequirement} of the strategies
+     * of the population, the pair builder, the success quantifier, the strategy adjuster and the equilibrium criterion
+     * demands: all games, the most recent games of every agent or no games at all, and an interaction summary only
+     * if it is read. If the population uses automaton strategies, the history maintains their states. The history
+     * caches cooperation probabilities for up to {@link #MAX_COOPERATION_CACHE_SIZE} pairs of agents.
+     */
+    private void initialiseHistory() {
+        SimulationHistoryBuffer historyBuffer = new SimulationHistoryBuffer(agentStore, configuration.getGame());
+        List<AutomatonStrategy> automata = new ArrayList<AutomatonStrategy>();
+        HistoryRequirement requirement = collectStrategies(automata)
+                .and(pairBuilder.getHistoryRequirement())
+                .and(successQuantifier.getHistoryRequirement())
+                .and(strategyAdjuster.getHistoryRequirement())
+                .and(equilibriumCriterion.getHistoryRequirement());
+        if (!automata.isEmpty())
+            historyBuffer.enableAutomatonStates(automata);
+        if (requirement.needsSummary())
+            historyBuffer.enableInteractionSummary();
+        if (!requirement.needsGames()) {
+            historyBuffer.setRecording(false);
+        } else if (!requirement.needsAllGames()) {
+            historyBuffer.retainLastGames(requirement.getDepth());
+        }
+        long pairCount = (long) agentStore.size() * agentStore.size();
+        historyBuffer.enableCooperationCache((int) Math.min(Math.max(pairCount, 1), MAX_COOPERATION_CACHE_SIZE));
+        history = historyBuffer;
+    }
+    
+    /**
+     * Adds all automaton strategies used in the population, including the components of mixed strategies and the
+     * operands of composite strategies, to the given list and returns the combined history requirement of all
+     * strategies used in the population.
+     */
+    private HistoryRequirement collectStrategies(List<AutomatonStrategy> automata) {
+        Set<Strategy> strategies = Collections.newSetFromMap(new IdentityHashMap<Strategy, Boolean>());
+        Deque<Strategy> pending = new ArrayDeque<Strategy>();
+        for (int i = 0; i < agentStore.size(); i++) {
+            pending.push(agentStore.getStrategy(i));
+        }
+        HistoryRequirement requirement = HistoryRequirement.NONE;
+        while (!pending.isEmpty()) {
+            Strategy strategy = pending.pop();
+            if (!strategies.add(strategy)) continue;
+            if (strategy instanceof MixedStrategy) {
+                pending.addAll(((MixedStrategy) strategy).getComponentStrategies());
+                continue;
+            }
+            if (strategy instanceof CompositeStrategy)
+                pending.addAll(((CompositeStrategy) strategy).getOperands());
+            if (strategy instanceof AutomatonStrategy)
+                automata.add((AutomatonStrategy) strategy);
+            requirement = requirement.and(strategy.getHistoryRequirement());
+        }
+        return requirement;
     }
     
     private void executeAdaptionStep() {
         //reset history
         history.reset();
+        if (stepPayoffs != null) Arrays.fill(stepPayoffs, 0);
         
         //execute rounds
         for (int round = 0; round < configuration.getRoundCount(); round++) {
+            RandomSource.bind(pairingRandom);
             List<AgentPair> agentPairs = pairBuilder.buildPairs(agents, history);
-            for (AgentPair pair: agentPairs) {
-                playGame(pair);
+            pairWeight = pairBuilder.getAchievedWeight(history);
+            RandomSource.bind(strategyRandom);
+            if (configuration.playsRoundsInParallel() && agentPairs.size() > ROUND_CHUNK_SIZE) {
+                playRoundInParallel(agentPairs);
+            } else {
+                for (AgentPair pair: agentPairs) {
+                    playGame(pair);
+                }
             }
         }
         
         //rank agents
-        agents = successQuantifier.createRanking(agents, history);
+        RandomSource.bind(adjustmentRandom);
+        Ranking ranking;
+        if (stepPayoffs != null) {
+            ranking = ((OnlineSuccessQuantifier) successQuantifier).rank(agents, stepPayoffs);
+        } else {
+            ranking = successQuantifier.rank(agents, history);
+        }
+        agents = ranking.getAgents();
         
         //adapt strategies
-        strategyAdjuster.adaptStrategies(agents, history);
+        strategyAdjuster.adaptStrategies(ranking, history);
         
         //check for equilibrium
         equilibriumReached = equilibriumCriterion.isEquilibrium(agents, history);
@@ -121,56 +256,198 @@ public class SimulationEngine {
         adaptionsteps++;
     }
     
+    /**
+     * Appends the current strategy portions of every group, read from the strategy counters of the agent store.
+     */
     private void calculateStrategyPortions() {
+        if (!configuration.allowsMixedStrategies()) {
+            updateStrategyNameIndices();
+        }
         strategyPortions.forEach((grpId, portionList) -> {
             double[] portions = new double[strategyNames.size()];
-            for (int i = 0; i < strategyNames.size(); i++) {
-                portions[i] = 0.0;
+            if (configuration.allowsMixedStrategies()) {
+                for (int i = 0; i < portions.length; i++) {
+                    portions[i] = agentStore.getComponentSum(grpId, i);
+                }
+            } else { //only pure strategies
+                for (int id = 0; id < strategyNameIndices.length; id++) {
+                    portions[strategyNameIndices[id]] += agentStore.getStrategyCount(grpId, id);
+                }
+            }
+            double groupSize = agentStore.getGroupSize(grpId);
+            for (int i = 0; i < portions.length; i++) {
+                portions[i] /= groupSize;
             }
             portionList.add(portions);
         });
-        
-        int lastIndex = adaptionsteps - 1;
-        
-        if (configuration.allowsMixedStrategies()) {
-            agents.forEach(agent -> {
-                MixedStrategy s = (MixedStrategy) agent.getStrategy();
-                for (int i = 0; i < s.getSize(); i++) {
-                    strategyPortions.get(agent.getGroupId()).get(lastIndex)[i] += s.getComponent(i);
-                }
-            });
-        } else { //only pure strategies
-            agents.forEach(agent -> {
-                Strategy s = agent.getStrategy();
-                strategyPortions.get(agent.getGroupId()).get(lastIndex)[strategyNames.indexOf(s.getName())] += 1.0;
-            });
+    }
+    
+    /**
+     * Maps every strategy in the strategy table of the agent store to the index of its name in
+     * {@code strategyNames}. Only strategies added to the table since the last call are looked up.
+     */
+    private void updateStrategyNameIndices() {
+        int known = strategyNameIndices.length;
+        if (known == agentStore.getTableSize()) return;
+        strategyNameIndices = Arrays.copyOf(strategyNameIndices, agentStore.getTableSize());
+        for (int id = known; id < strategyNameIndices.length; id++) {
+            strategyNameIndices[id] = strategyNames.indexOf(agentStore.getTableStrategy(id).getName());
         }
-        
-        strategyPortions.forEach((grpId, portionsList) -> {
-            double[] portions = portionsList.get(lastIndex);
-            for (int i = 0; i < strategyNames.size(); i++) {
-                portions[i] /= groupSizes.get(grpId).doubleValue();
-            }
-        });
     }
     
     private void playGame(AgentPair pair) {
-        Agent p1 = pair.getFirstAgent();
-        Agent p2 = pair.getSecondAgent();
-        boolean p1Cooperates = p1.getStrategy().isCooperative(p1, p2, history);
-        boolean p2Cooperates = p2.getStrategy().isCooperative(p2, p1, history);
-        history.addResult(configuration.getGame().play(p1, p2, p1Cooperates, p2Cooperates));
+        int p1 = pair.getFirstAgent().getIndex();
+        int p2 = pair.getSecondAgent().getIndex();
+        boolean p1Cooperates = IndexedStrategy.cooperates(agentStore.getStrategy(p1), p1, p2, history);
+        boolean p2Cooperates = IndexedStrategy.cooperates(agentStore.getStrategy(p2), p2, p1, history);
+        play(p1, p2, p1Cooperates, p2Cooperates);
+    }
+    
+    /**
+     * Lets the agents with the given indices play the game with the given decisions, adds the result to the history
+     * and, if the success quantifier ranks online, accumulates the payoffs. For a {@link ConcreteGame} this does not
+     * create a {@link GameResult}.
+     */
+    private void play(int p1, int p2, boolean p1Cooperates, boolean p2Cooperates) {
+        Game game = configuration.getGame();
+        if (!(game instanceof ConcreteGame)) {
+            addResult(game.play(agentStore.getAgent(p1), agentStore.getAgent(p2), p1Cooperates, p2Cooperates));
+            return;
+        }
+        ConcreteGame concreteGame = (ConcreteGame) game;
+        int payoff1 = concreteGame.getFirstPayoff(p1Cooperates, p2Cooperates);
+        int payoff2 = concreteGame.getSecondPayoff(p1Cooperates, p2Cooperates);
+        agentStore.addCapital(p1, payoff1);
+        agentStore.addCapital(p2, payoff2);
+        history.addResult(agentStore.getAgent(p1), agentStore.getAgent(p2), p1Cooperates, p2Cooperates, payoff1, payoff2);
+        if (stepPayoffs != null) {
+            stepPayoffs[p1] += payoff1;
+            stepPayoffs[p2] += payoff2;
+        }
+    }
+    
+    /**
+     * Adds the given result to the history and, if the success quantifier ranks online, accumulates the payoffs.
+     */
+    private void addResult(GameResult result) {
+        history.addResult(result);
+        if (stepPayoffs != null) {
+            Agent p1 = result.getFirstAgent();
+            Agent p2 = result.getSecondAgent();
+            stepPayoffs[p1.getIndex()] += result.getPayoff(p1);
+            stepPayoffs[p2.getIndex()] += result.getPayoff(p2);
+        }
+    }
+    
+    /**
+     * Evaluates the decisions of all pairs of a round in parallel on the common fork-join pool, based on the history
+     * of the previous rounds, and then plays the games and adds their results to the history in the order of the pairs.
+     */
+    private void playRoundInParallel(List<AgentPair> pairs) {
+        int pairCount = pairs.size();
+        boolean[] decisions = new boolean[2 * pairCount];
+        long roundSeed = strategyRandom.nextLong();
+        int chunkCount = (pairCount + ROUND_CHUNK_SIZE - 1) / ROUND_CHUNK_SIZE;
+        IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+            RandomSource.bind(new RandomSource(RandomSource.deriveSeed(roundSeed, chunk)));
+            try {
+                int end = Math.min(pairCount, (chunk + 1) * ROUND_CHUNK_SIZE);
+                for (int i = chunk * ROUND_CHUNK_SIZE; i < end; i++) {
+                    int p1 = pairs.get(i).getFirstAgent().getIndex();
+                    int p2 = pairs.get(i).getSecondAgent().getIndex();
+                    decisions[2 * i] = IndexedStrategy.cooperates(agentStore.getStrategy(p1), p1, p2, history);
+                    decisions[2 * i + 1] = IndexedStrategy.cooperates(agentStore.getStrategy(p2), p2, p1, history);
+                }
+            } finally {
+                RandomSource.bind(null);
+            }
+        });
+        RandomSource.bind(strategyRandom);
+        
+        for (int i = 0; i < pairCount; i++) {
+            play(pairs.get(i).getFirstAgent().getIndex(), pairs.get(i).getSecondAgent().getIndex(),
+                    decisions[2 * i], decisions[2 * i + 1]);
+        }
     }
     
     private void calculateEfficiency() {
-        efficiency = 0.0;
-        for (Agent a: agents) {
-            for (Agent b: agents) {
-                if (a == b) continue;
-                efficiency += a.getStrategy().getCooperationProbability(a, b, history);
+        efficiencyError = 0.0;
+        int agentCount = agentStore.size();
+        switch (configuration.getEfficiencyMode()) {
+            case PARALLEL:
+                int blockCount = (agentCount + EFFICIENCY_BLOCK_SIZE - 1) / EFFICIENCY_BLOCK_SIZE;
+                double[] blockSums = new double[blockCount];
+                IntStream.range(0, blockCount).parallel().forEach(block -> blockSums[block] = cooperationSum(
+                        block * EFFICIENCY_BLOCK_SIZE, Math.min(agentCount, (block + 1) * EFFICIENCY_BLOCK_SIZE), false));
+                efficiency = 0.0;
+                for (double sum : blockSums) {
+                    efficiency += sum;
+                }
+                break;
+            case SAMPLED:
+                sampleEfficiency();
+                return;
+            default:
+                efficiency = cooperationSum(0, agentCount, true);
+        }
+        efficiency /= (double) agentCount * (agentCount - 1);
+    }
+    
+    /**
+     * Returns the sum of the cooperation probabilities of all agents with an index in {@code [from, to)} towards all
+     * other agents. The cooperation cache of the history is only used if {@code cached} is set, because it must not
+     * be accessed concurrently.
+     */
+    private double cooperationSum(int from, int to, boolean cached) {
+        double sum = 0.0;
+        int agentCount = agentStore.size();
+        for (int i = from; i < to; i++) {
+            Agent a = agentStore.getAgent(i);
+            Strategy strategy = agentStore.getStrategy(i);
+            for (int j = 0; j < agentCount; j++) {
+                if (i == j) continue;
+                sum += cached ? history.getCooperationProbability(a, agentStore.getAgent(j))
+                        : IndexedStrategy.cooperationProbability(strategy, i, j, history);
             }
         }
-        efficiency /= agents.size() * (agents.size() - 1);
+        return sum;
+    }
+    
+    /**
+     * Estimates the efficiency as the mean cooperation probability of ordered pairs of distinct agents, drawn
+     * uniformly with replacement. Sampling stops as soon as the standard error of the mean is below the bound of the
+     * configuration, but not before {@link #MIN_EFFICIENCY_SAMPLES} pairs are sampled, and at the latest after as
+     * many samples as there are ordered pairs. If there are at most {@code MIN_EFFICIENCY_SAMPLES} ordered pairs,
+     * the efficiency is computed exactly instead.
+     */
+    private void sampleEfficiency() {
+        RandomSource random = configuration.getRandomSource().derive(EFFICIENCY_STREAM);
+        int agentCount = agentStore.size();
+        double maxSamples = (double) agentCount * (agentCount - 1);
+        if (maxSamples <= MIN_EFFICIENCY_SAMPLES) {
+            //also yields NaN for less than two agents, like the exact computation
+            efficiency = cooperationSum(0, agentCount, true) / maxSamples;
+            return;
+        }
+        double targetError = configuration.getEfficiencyError();
+        
+        long samples = 0;
+        double mean = 0.0;
+        double squares = 0.0;
+        while (samples < maxSamples) {
+            int i = random.nextInt(agentCount);
+            int j = random.nextInt(agentCount - 1);
+            if (j >= i) j++;
+            double p = history.getCooperationProbability(agentStore.getAgent(i), agentStore.getAgent(j));
+            samples++;
+            double delta = p - mean;
+            mean += delta / samples;
+            squares += delta * (p - mean);
+            if (samples >= MIN_EFFICIENCY_SAMPLES && Math.sqrt(squares / (samples - 1) / samples) <= targetError)
+                break;
+        }
+        efficiency = mean;
+        efficiencyError = (samples > 1) ? Math.sqrt(squares / (samples - 1) / samples) : 0.0;
     }
     
     /**
@@ -223,6 +500,29 @@ public class SimulationEngine {
         return efficiency;
     }
     
+    /**
+     * Returns the standard error of the efficiency of the last executed simulation if it was estimated by sampling
+     * (see {@link EfficiencyMode#SAMPLED}), or {@code 0.0} if it was computed exactly or none has been executed yet.
+     * 
+     * @return the standard error of the efficiency
+     */
+    public double getEfficiencyError() {
+        if (!finished) return 0.0;
+        return efficiencyError;
+    }
+    
+    /**
+     * Returns the total weight of the pairs built in the last round of the last executed simulation, see
+     * {@link PairBuilder#getAchievedWeight(SimulationHistory)}, or {@code NaN} if its pair builder does not weigh
+     * pairs or none has been executed yet.
+     * 
+     * @return the total weight of the pairs built last
+     */
+    public double getPairWeight() {
+        if (!finished) return Double.NaN;
+        return pairWeight;
+    }
+    
     /**
      * Returns the number of executed adaption steps in the last executed simulation, or {@code 0} if none has been executed yet.
      * 
@@ -259,6 +559,17 @@ public class SimulationEngine {
         return strategyPortions;
     }
     
+    /**
+     * Returns the seed of the random source of the last executed simulation, or {@code 0} if none has been executed yet.
+     * Executing an iteration to the same configuration with a random source with this seed reproduces the iteration.
+     * 
+     * @return the seed of the last executed simulation
+     */
+    public long getSeed() {
+        if (!finished) return 0;
+        return configuration.getRandomSource().getSeed();
+    }
+    
     /*
     private void printStepInfo() {
         if (!printInfo) return;
@@ -93,4 +93,37 @@ public interface SimulationHistory {
      * Resets the history;
      */
     void reset();
+    
+    /**
+     * Returns a summary of the interactions of all pairs of agents in this history that can be queried in
+     * constant time, or {@code null} if this history does not maintain one.
+     * 
+     * @return the interaction summary of this history, or {@code null}
+     */
+    default InteractionSummary getInteractionSummary() {
+        return null;
+    }
+    
+    /**
+     * Returns the states of the automaton strategies for all pairs of agents in this history, or {@code null}
+     * if this history does not maintain them.
+     * 
+     * @return the automaton states of this history, or {@code null}
+     */
+    default AutomatonStates getAutomatonStates() {
+        return null;
+    }
+    
+    /**
+     * Returns the probability with which the given player cooperates in a game against the given opponent, based
+     * on this history. Histories may cache the value (see {@link CooperationCache}), so components that need the
+     * same probabilities repeatedly should obtain them here instead of from the strategy of the player.
+     * 
+     * @param player the player whose cooperation probability shall be returned
+     * @param opponent the opponent
+     * @return the cooperation probability of the player against the opponent
+     */
+    default double getCooperationProbability(Agent player, Agent opponent) {
+        return player.getStrategy().getCooperationProbability(player, opponent, this);
+    }
 }
@@ -0,0 +1,698 @@
+package loop.model.simulationengine;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+import loop.model.simulationengine.strategies.AutomatonStrategy;
+
+/**
+ * This class is an implementation of the {@link SimulationHistory} interface that packs every game into a
+ * primitive record inside reusable arrays instead of storing {@link GameResult} objects. A record consists of
+ * the indices of the two players in their {@link AgentStore}, a code for the two cooperation decisions and,
+ * for each player, a link to the previous record of that player. If the played game is a {@link ConcreteGame},
+ * the payoffs are derived from its payoff matrix, otherwise they are stored as well.
+ * <p>
+ * Records are identified by their sequence number, i.e. the number of records added before them since the
+ * last reset. Optionally, the buffer can be given a capacity, in which case it works as a ring buffer and
+ * only retains the most recent games; all queries then only consider the retained games.
+ * <p>
+ * Alternatively, the buffer can retain only the most recent games of every agent (see
+ * {@link #retainLastGames(int)}), in which case every game is stored once in a window of each of its players. A
+ * game is then retained as long as it is among the most recent games of at least one of its players, so the memory
+ * of the buffer is linear in the amount of agents, however many games are added.
+ * <p>
+ * All agents whose results are added have to belong to the agent store this history was created for. The
+ * lists returned by this history are read only views in ascending age (newest first) that create the
+ * {@link GameResult} objects on access. They reflect the history at the time they were returned and must not
+ * be used after further results have been added.
+ * <p>
+ * The buffer is also a {@link HistoryView} on itself, so strategies can be evaluated for the agents of its store by
+ * their indices.
+ * <p>
+ * Whether or not games are recorded, the buffer keeps track of the {@link AgentActivity} of all agents.
+ */
+public class SimulationHistoryBuffer implements SimulationHistory, HistoryView {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    //move codes: first decision in bit 1, second decision in bit 0, a set bit meaning defection
+    private static final int CC = 0, CN = 1, NC = 2, NN = 3;
+    //set in the move code of a window entry if the agent of the window was the first player
+    private static final int FIRST_PLAYER = 4;
+
+    private final AgentStore store;
+    private final int capacity;
+
+    private int[] firstPlayers;
+    private int[] secondPlayers;
+    private byte[] moves;
+    private long[] previousOfFirst;
+    private long[] previousOfSecond;
+    private int[] firstPayoffs;
+    private int[] secondPayoffs;
+
+    private final int[] firstPayoffMatrix;
+    private final int[] secondPayoffMatrix;
+
+    private long[] latest;
+    private int[] retained;
+    private long added;
+
+    //the windows of the most recent games of every agent, depth entries per agent
+    private int depth;
+    private long[] windowSeqs;
+    private int[] windowOpponents;
+    private byte[] windowMoves;
+    private int[] windowPayoffs1;
+    private int[] windowPayoffs2;
+    private int[] windowHeads;
+
+    private InteractionSummary interactionSummary;
+    private AutomatonStates automatonStates;
+    private CooperationCache cooperationCache;
+    private final AgentActivity activity;
+    private boolean recording = true;
+
+    /**
+     * Creates a new, unbounded history for the agents of the given store that are playing the given game.
+     *
+     * @param store the store of the agents whose games will be added
+     * @param game the game the agents are playing
+     */
+    public SimulationHistoryBuffer(AgentStore store, Game game) {
+        this(store, game, 0);
+    }
+
+    /**
+     * Creates a new history for the agents of the given store that are playing the given game. If the
+     * given capacity is positive, only the given amount of most recent games is retained.
+     *
+     * @param store the store of the agents whose games will be added
+     * @param game the game the agents are playing
+     * @param capacity the amount of games that are retained, or {@code 0} if all games shall be retained
+     */
+    public SimulationHistoryBuffer(AgentStore store, Game game, int capacity) {
+        if (store == null)
+            throw new IllegalArgumentException("The agent store must not be null.");
+        if (capacity < 0)
+            throw new IllegalArgumentException("The capacity must not be negative.");
+        this.store = store;
+        this.capacity = capacity;
+
+        if (game instanceof ConcreteGame) {
+            ConcreteGame concreteGame = (ConcreteGame) game;
+            firstPayoffMatrix = new int[] {concreteGame.getCC1(), concreteGame.getCN1(), concreteGame.getNC1(), concreteGame.getNN1()};
+            secondPayoffMatrix = new int[] {concreteGame.getCC2(), concreteGame.getCN2(), concreteGame.getNC2(), concreteGame.getNN2()};
+        } else {
+            firstPayoffMatrix = null;
+            secondPayoffMatrix = null;
+        }
+
+        allocateRecords((capacity > 0) ? capacity : INITIAL_CAPACITY);
+        activity = new AgentActivity(store);
+        latest = new long[store.size()];
+        retained = new int[store.size()];
+        Arrays.fill(latest, -1);
+    }
+
+    @Override
+    public void addResult(GameResult result) {
+        Agent player1 = result.getFirstAgent();
+        Agent player2 = result.getSecondAgent();
+        addResult(player1, player2, result.hasCooperated(player1), result.hasCooperated(player2),
+                result.getPayoff(player1), result.getPayoff(player2));
+    }
+
+    /**
+     * Adds the result of a game with the given players, cooperation decisions and payoffs to the history without
+     * requiring a {@link GameResult} object.
+     *
+     * @param player1 the first player
+     * @param player2 the second player
+     * @param p1Cooperated whether the first player cooperated
+     * @param p2Cooperated whether the second player cooperated
+     * @param payoff1 the payoff of the first player
+     * @param payoff2 the payoff of the second player
+     */
+    public void addResult(Agent player1, Agent player2, boolean p1Cooperated, boolean p2Cooperated, int payoff1, int payoff2) {
+        if (player1.getStore() != store || player2.getStore() != store)
+            throw new IllegalArgumentException("Only results of agents of the agent store of this history can be added.");
+        int first = player1.getIndex();
+        int second = player2.getIndex();
+
+        if (interactionSummary != null)
+            interactionSummary.record(first, second, p1Cooperated, p2Cooperated);
+        if (automatonStates != null)
+            automatonStates.record(first, second, p1Cooperated, p2Cooperated);
+        if (cooperationCache != null)
+            cooperationCache.invalidate();
+        activity.record(first, second);
+        if (!recording) return;
+
+        ensureAgentCapacity(Math.max(first, second) + 1);
+        if (depth > 0) {
+            int move = (p1Cooperated ? 0 : 2) | (p2Cooperated ? 0 : 1);
+            addToWindow(first, second, move | FIRST_PLAYER, payoff1, payoff2);
+            addToWindow(second, first, move, payoff1, payoff2);
+            latest[first] = added;
+            latest[second] = added;
+            added++;
+            return;
+        }
+
+        long seq = added;
+        int slot;
+        if (capacity > 0) {
+            slot = (int) (seq % capacity);
+            if (seq >= capacity) {
+                //the oldest record is overwritten
+                retained[firstPlayers[slot]]--;
+                retained[secondPlayers[slot]]--;
+            }
+        } else {
+            if (seq == firstPlayers.length)
+                growRecords();
+            slot = (int) seq;
+        }
+
+        firstPlayers[slot] = first;
+        secondPlayers[slot] = second;
+        moves[slot] = (byte) ((p1Cooperated ? 0 : 2) | (p2Cooperated ? 0 : 1));
+        if (firstPayoffs != null) {
+            firstPayoffs[slot] = payoff1;
+            secondPayoffs[slot] = payoff2;
+        }
+        previousOfFirst[slot] = latest[first];
+        previousOfSecond[slot] = latest[second];
+        latest[first] = seq;
+        latest[second] = seq;
+        retained[first]++;
+        retained[second]++;
+        added++;
+    }
+
+    @Override
+    public List<GameResult> getAllResults() {
+        if (depth > 0) return new WindowSlotsView(windowSlots());
+        return new AllResultsView();
+    }
+
+    @Override
+    public List<GameResult> getResultsByAgent(Agent agent) {
+        int index = indexOf(agent);
+        if (index < 0) return new ArrayList<GameResult>();
+        return resultsOf(index);
+    }
+
+    @Override
+    public List<GameResult> getResultsByGroup(Agent agent) {
+        List<GameResult> relevantResults = new ArrayList<GameResult>();
+        for (int i = 0; i < retained.length; i++) {
+            if (retained[i] > 0 && store.getAgent(i).isGroupAffiliated(agent))
+                relevantResults.addAll(resultsOf(i));
+        }
+        return relevantResults;
+    }
+
+    @Override
+    public List<GameResult> getLatestResults() {
+        List<GameResult> results = new ArrayList<GameResult>();
+        for (int i = 0; i < retained.length; i++) {
+            if (retained[i] == 0) continue;
+            if (depth > 0) {
+                int slot = windowSlot(i, 0);
+                if ((windowMoves[slot] & FIRST_PLAYER) != 0 || latest[windowOpponents[slot]] != latest[i])
+                    results.add(createWindowResult(slot));
+                continue;
+            }
+            long seq = latest[i];
+            int slot = slot(seq);
+            //a game that is the latest of both players is only returned once
+            if (firstPlayers[slot] == i || latest[firstPlayers[slot]] != seq)
+                results.add(createResult(seq));
+        }
+        return results;
+    }
+
+    @Override
+    public GameResult getLatesResultsByAgent(Agent agent) {
+        int index = indexOf(agent);
+        if (index < 0 || retained[index] == 0) return null;
+        return latestResultOf(index);
+    }
+
+    @Override
+    public List<GameResult> getLatestResultsByGroup(Agent agent) {
+        List<GameResult> relevantResults = new ArrayList<GameResult>();
+        for (int i = 0; i < retained.length; i++) {
+            if (retained[i] > 0 && store.getAgent(i).isGroupAffiliated(agent))
+                relevantResults.add(latestResultOf(i));
+        }
+        return relevantResults;
+    }
+
+    @Override
+    public List<GameResult> getAllWhere(Predicate<GameResult> condition) {
+        List<GameResult> results = new ArrayList<GameResult>();
+        if (depth > 0) {
+            for (GameResult result : getAllResults()) {
+                if (condition.test(result)) results.add(result);
+            }
+            return results;
+        }
+        for (long seq = added - 1; seq >= oldestRetained(); seq--) {
+            GameResult result = createResult(seq);
+            if (condition.test(result)) results.add(result);
+        }
+        return results;
+    }
+
+    @Override
+    public GameResult getLatestWhere(Predicate<GameResult> condition) {
+        if (depth > 0) {
+            for (GameResult result : getAllResults()) {
+                if (condition.test(result)) return result;
+            }
+            return null;
+        }
+        for (long seq = added - 1; seq >= oldestRetained(); seq--) {
+            GameResult result = createResult(seq);
+            if (condition.test(result)) return result;
+        }
+        return null;
+    }
+
+    @Override
+    public List<Agent> getAgents() {
+        List<Agent> agents = new ArrayList<Agent>();
+        for (int i = 0; i < retained.length; i++) {
+            if (retained[i] > 0) agents.add(store.getAgent(i));
+        }
+        return agents;
+    }
+
+    @Override
+    public void reset() {
+        added = 0;
+        Arrays.fill(latest, -1);
+        Arrays.fill(retained, 0);
+        if (depth > 0)
+            Arrays.fill(windowHeads, 0);
+        if (interactionSummary != null)
+            interactionSummary.reset();
+        if (automatonStates != null)
+            automatonStates.reset();
+        if (cooperationCache != null)
+            cooperationCache.invalidate();
+        activity.reset();
+    }
+
+    @Override
+    public AgentStore getAgentStore() {
+        return store;
+    }
+
+    @Override
+    public SimulationHistory getHistory() {
+        return this;
+    }
+
+    @Override
+    public InteractionSummary getInteractionSummary() {
+        return interactionSummary;
+    }
+
+    /**
+     * Lets this history maintain an {@link InteractionSummary} of all games added from now on until the next
+     * reset. The summary is not limited by the capacity of this history.
+     */
+    public void enableInteractionSummary() {
+        if (interactionSummary == null)
+            interactionSummary = new InteractionSummary(store);
+    }
+
+    @Override
+    public AutomatonStates getAutomatonStates() {
+        return automatonStates;
+    }
+
+    /**
+     * Lets this history maintain the states of the given automata for all pairs of agents for all games added
+     * from now on until the next reset. Like the interaction summary, the states are not limited by the capacity
+     * of this history.
+     *
+     * @param automata the automata whose states shall be maintained
+     */
+    public void enableAutomatonStates(List<AutomatonStrategy> automata) {
+        automatonStates = new AutomatonStates(store, automata);
+    }
+
+    @Override
+    public AgentActivity getAgentActivity() {
+        return activity;
+    }
+
+    @Override
+    public double getCooperationProbability(Agent player, Agent opponent) {
+        if (cooperationCache == null)
+            return player.getStrategy().getCooperationProbability(player, opponent, this);
+        return cooperationCache.getCooperationProbability(player, opponent, this);
+    }
+
+    /**
+     * Lets this history cache cooperation probabilities in a {@link CooperationCache} with the given capacity.
+     *
+     * @param capacity the maximum amount of cached cooperation probabilities
+     */
+    public void enableCooperationCache(int capacity) {
+        cooperationCache = new CooperationCache(store, capacity);
+    }
+
+    /**
+     * Sets whether the games added to this history are recorded. If not, added games only update the interaction
+     * summary and the automaton states, and all queries behave as if no game had been added. This is only
+     * sensible if nothing reads the games themselves.
+     *
+     * @param recording whether added games shall be recorded
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Lets this history only retain the given amount of most recent games of every agent instead of all games. A
+     * game is retained as long as it is among the most recent games of at least one of its players. The history is
+     * reset.
+     *
+     * @param depth the amount of most recent games retained per agent, must be positive
+     */
+    public void retainLastGames(int depth) {
+        if (depth < 1)
+            throw new IllegalArgumentException("The amount of games retained per agent must be positive.");
+        if (capacity > 0)
+            throw new IllegalArgumentException("A history with a capacity cannot retain the games per agent.");
+        this.depth = depth;
+        int windowLength = Math.multiplyExact(latest.length, depth);
+        windowSeqs = new long[windowLength];
+        windowOpponents = new int[windowLength];
+        windowMoves = new byte[windowLength];
+        if (firstPayoffMatrix == null) {
+            windowPayoffs1 = new int[windowLength];
+            windowPayoffs2 = new int[windowLength];
+        }
+        windowHeads = new int[latest.length];
+        allocateRecords(0);
+        reset();
+    }
+
+    /**
+     * Returns the amount of most recent games retained per agent, or {@code 0} if this history does not retain
+     * the games per agent.
+     *
+     * @return the amount of games retained per agent
+     */
+    public int getRetainedGamesPerAgent() {
+        return depth;
+    }
+
+    /**
+     * Returns the amount of games currently retained by this history.
+     *
+     * @return the amount of retained games
+     */
+    public int size() {
+        if (depth > 0) return windowSlots().length;
+        return (int) (added - oldestRetained());
+    }
+
+    /**
+     * Returns the amount of retained games of the agent with the given index.
+     *
+     * @param agentIndex the index of the agent in the agent store
+     * @return the amount of retained games of the agent
+     */
+    public int getGameCount(int agentIndex) {
+        return (agentIndex < retained.length) ? retained[agentIndex] : 0;
+    }
+
+    private int indexOf(Agent agent) {
+        if (agent.getStore() != store || agent.getIndex() >= retained.length) return -1;
+        return agent.getIndex();
+    }
+
+    private long oldestRetained() {
+        return (capacity > 0) ? Math.max(0, added - capacity) : 0;
+    }
+
+    private int slot(long seq) {
+        return (capacity > 0) ? (int) (seq % capacity) : (int) seq;
+    }
+
+    private long previousOf(long seq, int agentIndex) {
+        int slot = slot(seq);
+        long previous = (firstPlayers[slot] == agentIndex) ? previousOfFirst[slot] : previousOfSecond[slot];
+        return (previous >= oldestRetained()) ? previous : -1;
+    }
+
+    private GameResult createResult(long seq) {
+        int slot = slot(seq);
+        int move = moves[slot];
+        int payoff1 = (firstPayoffs != null) ? firstPayoffs[slot] : firstPayoffMatrix[move];
+        int payoff2 = (secondPayoffs != null) ? secondPayoffs[slot] : secondPayoffMatrix[move];
+        return createResult(firstPlayers[slot], secondPlayers[slot], move, payoff1, payoff2);
+    }
+
+    private GameResult createResult(int first, int second, int move, int payoff1, int payoff2) {
+        return new GameResult(store.getAgent(first), store.getAgent(second),
+                move == CC || move == CN, move == CC || move == NC, payoff1, payoff2);
+    }
+
+    private List<GameResult> resultsOf(int agentIndex) {
+        return (depth > 0) ? new WindowView(agentIndex) : new AgentResultsView(agentIndex);
+    }
+
+    private GameResult latestResultOf(int agentIndex) {
+        return (depth > 0) ? createWindowResult(windowSlot(agentIndex, 0)) : createResult(latest[agentIndex]);
+    }
+
+    private void addToWindow(int agentIndex, int opponentIndex, int move, int payoff1, int payoff2) {
+        int slot = agentIndex * depth + windowHeads[agentIndex];
+        windowSeqs[slot] = added;
+        windowOpponents[slot] = opponentIndex;
+        windowMoves[slot] = (byte) move;
+        if (windowPayoffs1 != null) {
+            windowPayoffs1[slot] = payoff1;
+            windowPayoffs2[slot] = payoff2;
+        }
+        windowHeads[agentIndex] = (windowHeads[agentIndex] + 1) % depth;
+        if (retained[agentIndex] < depth)
+            retained[agentIndex]++;
+    }
+
+    /**
+     * Returns the slot of the window entry of the given agent with the given age, {@code 0} being the newest.
+     */
+    private int windowSlot(int agentIndex, int age) {
+        return agentIndex * depth + (windowHeads[agentIndex] - 1 - age + depth) % depth;
+    }
+
+    /**
+     * Returns whether the game with the given sequence number, which the given agent played, is still in the
+     * window of that agent.
+     */
+    private boolean windowRetains(int agentIndex, long seq) {
+        return retained[agentIndex] < depth || seq >= windowSeqs[agentIndex * depth + windowHeads[agentIndex]];
+    }
+
+    /**
+     * Returns the window slots of all retained games, newest first. A game in the windows of both of its players
+     * is only returned from the window of the first player.
+     */
+    private int[] windowSlots() {
+        int entries = 0;
+        for (int games : retained) {
+            entries += games;
+        }
+        int count = 0;
+        int[] slots = new int[entries];
+        for (int i = 0; i < retained.length; i++) {
+            for (int age = 0; age < retained[i]; age++) {
+                int slot = windowSlot(i, age);
+                if ((windowMoves[slot] & FIRST_PLAYER) != 0 || !windowRetains(windowOpponents[slot], windowSeqs[slot]))
+                    slots[count++] = slot;
+            }
+        }
+        long[] seqs = new long[count];
+        for (int j = 0; j < count; j++) {
+            seqs[j] = windowSeqs[slots[j]];
+        }
+        int[] order = IndexSort.descending(seqs);
+        int[] sortedSlots = new int[count];
+        for (int j = 0; j < count; j++) {
+            sortedSlots[j] = slots[order[j]];
+        }
+        return sortedSlots;
+    }
+
+    private GameResult createWindowResult(int slot) {
+        int agentIndex = slot / depth;
+        int move = windowMoves[slot] & ~FIRST_PLAYER;
+        int payoff1 = (windowPayoffs1 != null) ? windowPayoffs1[slot] : firstPayoffMatrix[move];
+        int payoff2 = (windowPayoffs2 != null) ? windowPayoffs2[slot] : secondPayoffMatrix[move];
+        if ((windowMoves[slot] & FIRST_PLAYER) != 0)
+            return createResult(agentIndex, windowOpponents[slot], move, payoff1, payoff2);
+        return createResult(windowOpponents[slot], agentIndex, move, payoff1, payoff2);
+    }
+
+    private void allocateRecords(int length) {
+        firstPlayers = new int[length];
+        secondPlayers = new int[length];
+        moves = new byte[length];
+        previousOfFirst = new long[length];
+        previousOfSecond = new long[length];
+        if (firstPayoffMatrix == null) {
+            firstPayoffs = new int[length];
+            secondPayoffs = new int[length];
+        }
+    }
+
+    private void growRecords() {
+        int length = 2 * firstPlayers.length;
+        firstPlayers = Arrays.copyOf(firstPlayers, length);
+        secondPlayers = Arrays.copyOf(secondPlayers, length);
+        moves = Arrays.copyOf(moves, length);
+        previousOfFirst = Arrays.copyOf(previousOfFirst, length);
+        previousOfSecond = Arrays.copyOf(previousOfSecond, length);
+        if (firstPayoffs != null) {
+            firstPayoffs = Arrays.copyOf(firstPayoffs, length);
+            secondPayoffs = Arrays.copyOf(secondPayoffs, length);
+        }
+    }
+
+    private void ensureAgentCapacity(int agentCount) {
+        if (agentCount <= latest.length) return;
+        int oldLength = latest.length;
+        int length = Math.max(agentCount, store.size());
+        latest = Arrays.copyOf(latest, length);
+        retained = Arrays.copyOf(retained, length);
+        Arrays.fill(latest, oldLength, length, -1);
+        if (depth > 0) {
+            int windowLength = Math.multiplyExact(length, depth);
+            windowSeqs = Arrays.copyOf(windowSeqs, windowLength);
+            windowOpponents = Arrays.copyOf(windowOpponents, windowLength);
+            windowMoves = Arrays.copyOf(windowMoves, windowLength);
+            if (windowPayoffs1 != null) {
+                windowPayoffs1 = Arrays.copyOf(windowPayoffs1, windowLength);
+                windowPayoffs2 = Arrays.copyOf(windowPayoffs2, windowLength);
+            }
+            windowHeads = Arrays.copyOf(windowHeads, length);
+        }
+    }
+
+    /**
+     * A view on all retained games, newest first.
+     */
+    private class AllResultsView extends AbstractList<GameResult> implements RandomAccess {
+        private final long newest = added - 1;
+        private final int size = SimulationHistoryBuffer.this.size();
+
+        @Override
+        public GameResult get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            return createResult(newest - index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A view on the retained games of one agent, newest first. The view remembers the position of the last
+     * accessed game, so accessing the games in ascending order of their index takes constant time per game.
+     */
+    private class AgentResultsView extends AbstractList<GameResult> {
+        private final int agentIndex;
+        private final long head;
+        private final int size;
+        private int cursorIndex;
+        private long cursorSeq;
+
+        private AgentResultsView(int agentIndex) {
+            this.agentIndex = agentIndex;
+            this.head = latest[agentIndex];
+            this.size = retained[agentIndex];
+            this.cursorIndex = 0;
+            this.cursorSeq = head;
+        }
+
+        @Override
+        public GameResult get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            if (index < cursorIndex) {
+                cursorIndex = 0;
+                cursorSeq = head;
+            }
+            while (cursorIndex < index) {
+                cursorSeq = previousOf(cursorSeq, agentIndex);
+                cursorIndex++;
+            }
+            return createResult(cursorSeq);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A view on the window of the most recent games of one agent, newest first.
+     */
+    private class WindowView extends AbstractList<GameResult> implements RandomAccess {
+        private final int agentIndex;
+        private final int size;
+
+        private WindowView(int agentIndex) {
+            this.agentIndex = agentIndex;
+            this.size = retained[agentIndex];
+        }
+
+        @Override
+        public GameResult get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            return createWindowResult(windowSlot(agentIndex, index));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A view on the games in the given window slots.
+     */
+    private class WindowSlotsView extends AbstractList<GameResult> implements RandomAccess {
+        private final int[] slots;
+
+        private WindowSlotsView(int[] slots) {
+            this.slots = slots;
+        }
+
+        @Override
+        public GameResult get(int index) {
+            return createWindowResult(slots[index]);
+        }
+
+        @Override
+        public int size() {
+            return slots.length;
+        }
+    }
+}
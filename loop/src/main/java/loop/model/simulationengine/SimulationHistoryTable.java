@@ -19,10 +19,10 @@ public class SimulationHistoryTable implements SimulationHistory {
     @Override
     public void addResult(GameResult result) {
         this.results.add(0, result);
-        for (Agent agent: result.getAgents()) {
-            if (!agents.contains(agent))
-                agents.add(agent);
-        }
+        if (!agents.contains(result.getFirstAgent()))
+            agents.add(result.getFirstAgent());
+        if (!agents.contains(result.getSecondAgent()))
+            agents.add(result.getSecondAgent());
     }
 
     @Override
@@ -60,7 +60,7 @@ public class SimulationHistoryTable implements SimulationHistory {
         
         //search for the queried results
         for (GameResult result: results) {
-            if (unhandledAgents.contains(result.getAgents().get(0)) || unhandledAgents.contains(result.getAgents().get(1))) {
+            if (unhandledAgents.contains(result.getFirstAgent()) || unhandledAgents.contains(result.getSecondAgent())) {
                 queriedResults.add(result);
                 unhandledAgents.removeAll(result.getAgents());
             }
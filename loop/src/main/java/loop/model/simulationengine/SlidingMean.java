@@ -2,9 +2,18 @@ package loop.model.simulationengine;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Realises the "Gleitender Durchschnitt" success quantification.
+ * <p>
+ * For every round k of the elapsed adaption step, the agents are ranked by the sum of their payoffs in the
+ * window of the last w rounds up to k; agents with equal sums share the best of their ranks. The agents are
+ * then ordered by the sum of their ranks over all rounds, agents with equal rank sums keeping their order.
+ * <p>
+ * By default the payoffs of all agents are read into one matrix and the rounds are ranked in parallel. The
+ * streaming variant only keeps the payoffs of the current window of every agent and ranks the rounds one
+ * after another; it is used automatically if the matrix would have more than {@link #MAX_MATRIX_ENTRIES} entries.
  * 
  * @author Peter Koepernik
  *
@@ -15,7 +24,18 @@ public class SlidingMean implements SuccessQuantifier {
     public static final String DESCRIPTION = "Calculates a sliding mean with window size w over the payoffs received in the elapsed"
             + " adaption step for each agent. Details in the specification";
     
+    /**
+     * The maximum amount of entries of the payoff matrix, above which the streaming variant is used.
+     */
+    public static final long MAX_MATRIX_ENTRIES = 1L << 24;
+    
+    /**
+     * The amount of rounds ranked by one task of the parallel variant.
+     */
+    private static final int ROUNDS_PER_TASK = 8;
+    
     private int w;
+    private boolean streaming;
     
     /**
      * Creates a new {@code SlidingMean} instance with the given window size.
@@ -23,7 +43,22 @@ public class SlidingMean implements SuccessQuantifier {
      * @param windowSize the window size for the calculation of the mean
      */
     public SlidingMean(int windowSize) {
+        this(windowSize, false);
+    }
+    
+    /**
+     * Creates a new {@code SlidingMean} instance with the given window size, that always uses the streaming
+     * variant if {@code streaming} is {@code true}. Both variants create the same rankings.
+     * 
+     * @param windowSize the window size for the calculation of the mean
+     * @param streaming whether the streaming variant shall always be used
+     */
+    public SlidingMean(int windowSize, boolean streaming) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("The window size of a sliding mean must be positive.");
+        }
         this.w = windowSize;
+        this.streaming = streaming;
     }
     
     @Override
@@ -31,49 +66,98 @@ public class SlidingMean implements SuccessQuantifier {
         int R = history.getResultsByAgent(agents.get(0)).size();
         if (R == 0) return agents;
         
-        int[][] a = new int[agents.size()][R];
-        int[][] A = new int[agents.size()][R];
+        long[] rankSum = (streaming || (long) agents.size() * R > MAX_MATRIX_ENTRIES)
+                ? streamedRankSums(agents, history, R) : parallelRankSums(agents, history, R);
         
-        List<GameResult> games;
-        for (int i = 0; i < agents.size(); i++) {
+        int[] order = IndexSort.ascending(rankSum);
+        List<Agent> sortedAgents = new ArrayList<Agent>(agents.size());
+        for (int i : order) {
+            sortedAgents.add(agents.get(i));
+        }
+        return sortedAgents;
+    }
+    
+    /**
+     * Reads the payoffs of all agents into a matrix of prefix sums and ranks the rounds in parallel.
+     */
+    private long[] parallelRankSums(List<Agent> agents, SimulationHistory history, int R) {
+        int n = agents.size();
+        
+        //prefix sums of the payoff streams, one row of length R per agent
+        int[] prefix = new int[n * R];
+        IntStream.range(0, n).parallel().forEach(i -> {
             Agent agent = agents.get(i);
-            games = history.getResultsByAgent(agent);
+            List<GameResult> games = history.getResultsByAgent(agent);
+            int played = Math.min(games.size(), R);
+            int sum = 0;
             for (int k = 0; k < R; k++) {
-                a[i][k] = (games.size() > k) ? games.get(k).getPayoff(agent) : 0;
+                if (k < played) sum += games.get(k).getPayoff(agent);
+                prefix[i * R + k] = sum;
             }
-        }
+        });
         
-        for (int i = 0; i < agents.size(); i++) {
-            A[i][0] = a[i][0];
-            for (int k = 1; k < w; k++) {
-                A[i][k] = A[i][k - 1] + a[i][k];
+        int taskCount = (R + ROUNDS_PER_TASK - 1) / ROUNDS_PER_TASK;
+        long[][] partialSums = new long[taskCount][];
+        IntStream.range(0, taskCount).parallel().forEach(task -> {
+            long[] partial = new long[n];
+            int[] window = new int[n];
+            int end = Math.min(R, (task + 1) * ROUNDS_PER_TASK);
+            for (int k = task * ROUNDS_PER_TASK; k < end; k++) {
+                for (int i = 0; i < n; i++) {
+                    window[i] = prefix[i * R + k] - ((k >= w) ? prefix[i * R + k - w] : 0);
+                }
+                addRanks(window, partial);
             }
-            
-            for (int k = w; k < R; k++) {
-                A[i][k]  = A[i][k - 1] - a[i][k - w] + a[i][k];
+            partialSums[task] = partial;
+        });
+        
+        long[] rankSum = new long[n];
+        for (long[] partial : partialSums) {
+            for (int i = 0; i < n; i++) {
+                rankSum[i] += partial[i];
             }
         }
+        return rankSum;
+    }
+    
+    /**
+     * Ranks the rounds one after another, keeping only the payoffs of the current window of every agent.
+     */
+    private long[] streamedRankSums(List<Agent> agents, SimulationHistory history, int R) {
+        int n = agents.size();
+        int size = Math.min(w, R);
+        List<List<GameResult>> games = new ArrayList<List<GameResult>>(n);
+        for (Agent agent : agents) {
+            games.add(history.getResultsByAgent(agent));
+        }
         
-        int[][] r = new int[agents.size()][R];
-        List<Agent> sortedAgents = new ArrayList<Agent>(agents);
+        int[] recent = new int[n * size];
+        int[] window = new int[n];
+        long[] rankSum = new long[n];
         for (int k = 0; k < R; k++) {
-            final int kFinal = k;
-            sortedAgents.sort((a1, a2) -> A[agents.indexOf(a2)][kFinal] - A[agents.indexOf(a1)][kFinal]);
-            for (int i = 0; i < agents.size(); i++) {
-                r[i][k] = sortedAgents.indexOf(agents.get(i));
+            int slot = k % size;
+            for (int i = 0; i < n; i++) {
+                List<GameResult> agentGames = games.get(i);
+                int payoff = (k < agentGames.size()) ? agentGames.get(k).getPayoff(agents.get(i)) : 0;
+                if (k >= w) window[i] -= recent[i * size + slot];
+                recent[i * size + slot] = payoff;
+                window[i] += payoff;
             }
+            addRanks(window, rankSum);
         }
-        
-        int[] rankSum = new int[agents.size()];
-        for (int i = 0; i < agents.size(); i++) {
-            rankSum[i] = 0;
-            for (int k = 0; k < R; k++) {
-                rankSum[i] += r[i][k];
-            }
+        return rankSum;
+    }
+    
+    /**
+     * Ranks the agents by the given window sums, in descending order, and adds the rank of every agent to its
+     * rank sum. Agents with equal window sums share the best of their ranks.
+     */
+    private static void addRanks(int[] window, long[] rankSum) {
+        int[] order = IndexSort.descending(window);
+        int rank = 0;
+        for (int pos = 0; pos < order.length; pos++) {
+            if (pos > 0 && window[order[pos]] != window[order[pos - 1]]) rank = pos;
+            rankSum[order[pos]] += rank;
         }
-        
-        sortedAgents.sort((a1, a2) -> rankSum[agents.indexOf(a1)] - rankSum[agents.indexOf(a2)]);
-        return sortedAgents;
     }
-
 }
@@ -20,4 +20,26 @@ public interface StrategyAdjuster {
      * @param history the history of the current adaption step
      */
     void adaptStrategies(final List<Agent> agents, final SimulationHistory history);
+    
+    /**
+     * Adjusts the strategies of the ranked agents considering the simulation history of the
+     * current adaption step. Implementations that compare ranks should override this method to
+     * look them up in the ranking; by default the ordered list of the ranking is adjusted.
+     * 
+     * @param ranking the ranking of the agents whose strategies shall be adapted
+     * @param history the history of the current adaption step
+     */
+    default void adaptStrategies(final Ranking ranking, final SimulationHistory history) {
+        adaptStrategies(ranking.getAgents(), history);
+    }
+    
+    /**
+     * Returns how much of the history this strategy adjuster reads to adapt the strategies.
+     * By default all games are assumed to be read.
+     * 
+     * @return the history requirement of this strategy adjuster
+     */
+    default HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.FULL;
+    }
 }
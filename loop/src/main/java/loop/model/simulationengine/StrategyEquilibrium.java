@@ -1,6 +1,5 @@
 package loop.model.simulationengine;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import loop.model.simulationengine.strategies.MixedStrategy;
@@ -41,37 +40,24 @@ public class StrategyEquilibrium extends CountingEquilibriumCriterion {
     }
     
     @Override
-    public boolean hasEquilibriumCondition(final List<Agent> lastRoundAgentsFlatCopy,
-            final List<Agent> lastRoundAgentsDeepCopy, final List<Agent> agents) {
-        if (lastRoundAgentsFlatCopy.size() != agents.size() || lastRoundAgentsDeepCopy.size() != agents.size()) {
-            throw new IllegalArgumentException("Invalid parameters in call of 'hasEquilibriumCondition'");
-        }
-        
-        List<Strategy> oldStrategies = new ArrayList<Strategy>();
-        List<Strategy> newStrategies = new ArrayList<Strategy>();
-        for (Agent a: agents) {
-            oldStrategies.add(lastRoundAgentsDeepCopy.get(lastRoundAgentsFlatCopy.indexOf(a)).getStrategy());
-            newStrategies.add(a.getStrategy());
-        }
-        
-        //Check whether all strategies are mixed
+    public boolean hasEquilibriumCondition(final AgentSnapshot previous, final List<Agent> agents) {
+        //in one pass, sum up the distances of mixed strategies and count the changed strategies,
+        //the former is only used if all old and new strategies are mixed
         boolean allMixed = true;
-        for (Strategy s: oldStrategies) {
-            if (!(s instanceof MixedStrategy)) allMixed = false;
-        }
-        for (Strategy s: newStrategies) {
-            if (!(s instanceof MixedStrategy)) allMixed = false;
-        }
-        
-        double diff = 0;
-        for (int i = 0; i < agents.size(); i++) {
-            if (allMixed) {
-                diff += ((MixedStrategy) newStrategies.get(i)).clone().add(((MixedStrategy) oldStrategies.get(i)).clone().mutliplyBy(-1)).getSumNorm(); 
+        double mixedDiff = 0;
+        int changed = 0;
+        for (Agent a: agents) {
+            int id = previous.idOf(a);
+            Strategy strategy = a.getStrategy();
+            if (strategy != previous.getStrategy(id)) changed++;
+            if (allMixed && strategy instanceof MixedStrategy && previous.wasMixed(id)) {
+                mixedDiff += previous.getMixedDistance(id, (MixedStrategy) strategy);
             } else {
-                diff += (newStrategies.get(i) != oldStrategies.get(i)) ? 2 : 0;
+                allMixed = false;
             }
         }
-        diff *= 0.5;
+        
+        double diff = allMixed ? 0.5 * mixedDiff : changed;
         
         return (diff < this.alpha * agents.size());
     }
@@ -20,4 +20,27 @@ public interface SuccessQuantifier {
      * @return the created ranking
      */
     List<Agent> createRanking(final List<Agent> agents, final SimulationHistory history);
+    
+    /**
+     * Creates and returns a ranking of the given agents that also provides the rank of every agent and, if the
+     * implementation supports it, the scores the agents were ranked by. By default this wraps the list created
+     * by {@link #createRanking(List, SimulationHistory)}.
+     * 
+     * @param agents the agents that shall be ranked
+     * @param history the history of the current adaption step
+     * @return the created ranking
+     */
+    default Ranking rank(final List<Agent> agents, final SimulationHistory history) {
+        return new Ranking(createRanking(agents, history));
+    }
+    
+    /**
+     * Returns how much of the history this success quantifier reads to rank the agents.
+     * By default all games are assumed to be read.
+     * 
+     * @return the history requirement of this success quantifier
+     */
+    default HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.FULL;
+    }
 }
@@ -12,7 +12,20 @@ public class TotalCapital implements SuccessQuantifier {
 
     @Override
     public List<Agent> createRanking(final List<Agent> agents, final SimulationHistory history) {
-        agents.sort((a1, a2) -> (a2.getCapital() - a1.getCapital()));
-        return agents;
+        return rank(agents, history).getAgents();
+    }
+    
+    @Override
+    public Ranking rank(final List<Agent> agents, final SimulationHistory history) {
+        long[] scores = new long[agents.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = agents.get(i).getCapital();
+        }
+        return Ranking.byDescendingScore(agents, scores);
+    }
+    
+    @Override
+    public HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.NONE;
     }
 }
@@ -0,0 +1,92 @@
+package loop.model.simulationengine.distributions;
+
+/**
+ * An alias table (Walker, Vose) for sampling indices from a discrete distribution given by non-negative weights in
+ * constant time. Building the table takes time linear in the amount of weights. An alias table is immutable and
+ * may be shared between threads.
+ */
+public final class AliasTable {
+
+    private final double[] thresholds;
+    private final int[] aliases;
+
+    /**
+     * Creates a new alias table for the distribution that picks index {@code i} with a probability proportional
+     * to {@code weights[i]}.
+     *
+     * @param weights the weights, must be non-negative and must not all be zero
+     */
+    public AliasTable(final double[] weights) {
+        int n = weights.length;
+        double sum = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight)) {
+                throw new IllegalArgumentException("Attempted to create an alias table with a negative weight");
+            }
+            sum += weight;
+        }
+        if (!(sum > 0) || Double.isInfinite(sum)) {
+            throw new IllegalArgumentException("Attempted to create an alias table without positive finite weight");
+        }
+
+        thresholds = new double[n];
+        aliases = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            thresholds[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        //the remaining columns are full, up to rounding errors
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            thresholds[i] = 1.0;
+            aliases[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            thresholds[i] = 1.0;
+            aliases[i] = i;
+        }
+    }
+
+    /**
+     * Returns the amount of indices of this table.
+     *
+     * @return the amount of indices
+     */
+    public int size() {
+        return thresholds.length;
+    }
+
+    /**
+     * Samples an index, using a single random number of the given source.
+     *
+     * @param random the random source
+     * @return the sampled index
+     */
+    public int sample(final RandomSource random) {
+        double u = random.nextDouble() * thresholds.length;
+        int column = Math.min((int) u, thresholds.length - 1);
+        return (u - column < thresholds[column]) ? column : aliases[column];
+    }
+}
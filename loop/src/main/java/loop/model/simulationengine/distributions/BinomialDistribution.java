@@ -1,8 +1,5 @@
 package loop.model.simulationengine.distributions;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Represents a binomial distribution.
  * 
@@ -20,6 +17,8 @@ public class BinomialDistribution implements DiscreteDistribution {
     private double p;
     private int n;
     private org.apache.commons.math3.distribution.BinomialDistribution dist;
+    //built on first use, the sampler is immutable and may be built twice by concurrent threads
+    private volatile DiscreteDistributionUtility.Sampler sampler;
     
     /**
      * Creates a new binomial distribution with the given parameters.
@@ -49,32 +48,29 @@ public class BinomialDistribution implements DiscreteDistribution {
 
     @Override
     public Picker<Integer> getPicker() {
-        return new Picker<Integer>() {
-            
-            @Override
-            public Integer pickOne() {
-                return min + dist.sample();
-            }
-            
-            @Override
-            public List<Integer> pickMany(final int i) {
-                List<Integer> res = new ArrayList<Integer>();
-                for (int j = 0; j < i; j++) {
-                    res.add(pickOne());
-                }
-                return res;
-            }
-        };
+        return getSampler().getPicker();
+    }
+    
+    @Override
+    public int[] sample(final int n, final RandomSource random) {
+        return getSampler().sample(n, random);
     }
 
     @Override
     public int getSupportMin(double q) {
-        return DiscreteDistributionUtility.getSupportMin(this, q, (int) Math.round(n * p));
+        return DiscreteDistributionUtility.getSupportMin(this, q, min + (int) Math.round(n * p));
     }
 
     @Override
     public int getSupportMax(double q) {
-        return DiscreteDistributionUtility.getSupportMax(this, q, (int) Math.round(n * p));
+        return DiscreteDistributionUtility.getSupportMax(this, q, min + (int) Math.round(n * p));
+    }
+    
+    private DiscreteDistributionUtility.Sampler getSampler() {
+        if (sampler == null) {
+            sampler = DiscreteDistributionUtility.getSampler(this);
+        }
+        return sampler;
     }
 
 }
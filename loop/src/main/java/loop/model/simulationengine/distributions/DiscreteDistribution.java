@@ -23,4 +23,17 @@ public interface DiscreteDistribution extends Distribution<Integer> {
      * @return the upper bound of I_q
      */
     int getSupportMax(final double q);
+    
+    /**
+     * Picks the given amount of values from this distribution, using the given random source. Unlike
+     * {@link Picker#pickMany(int)}, the values are not boxed, which matters when initialising large populations.
+     * The default implementation builds an alias table over the support on every call, implementations should
+     * rather build it once.
+     * @param n the amount of values that shall be picked
+     * @param random the random source
+     * @return the picked values
+     */
+    default int[] sample(final int n, final RandomSource random) {
+        return DiscreteDistributionUtility.sample(this, n, random);
+    }
 }
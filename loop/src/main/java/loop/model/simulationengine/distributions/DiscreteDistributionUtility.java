@@ -2,7 +2,6 @@ package loop.model.simulationengine.distributions;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * This class provides some utility for implementations of the {@link DiscreteDistribution} interface, such as
@@ -40,39 +39,42 @@ public class DiscreteDistributionUtility {
     }
     
     /**
-     * Returns a picker to the given probability distribution.
+     * Returns a picker to the given probability distribution. The picker samples from an alias table over the support
+     * of the distribution, which is built once when the picker is created.
      * @param dist the distribution a probability picker shall be returned for
      * @return a picker to the given probability distribution
      */
     public static Picker<Integer> getPicker(final DiscreteDistribution dist) {
-        return new Picker<Integer>() {
-            
-            @Override
-            public Integer pickOne() {
-                int min = dist.getSupportMin(1 - ACCURACY);
-                int max = dist.getSupportMax(1 - ACCURACY);
-                int n = max - min;
-                double[] cumProbs = new double[n + 1];
-                cumProbs[0] = dist.getProbability(min);
-                for (int i = 0; i < n; i++) {
-                    cumProbs[i + 1] = cumProbs[i] + dist.getProbability(i + 1);
-                }
-                cumProbs[n] = 1;
-                double r = new Random().nextDouble();
-                int res = 0;
-                while (r > cumProbs[res]) res++;
-                return (min + res);
-            }
-
-            @Override
-            public List<Integer> pickMany(final int i) {
-                List<Integer> res = new ArrayList<Integer>();
-                for (int j = 0; j < i; j++) {
-                    res.add(pickOne());
-                }
-                return res;
-            }
-        };
+        return getSampler(dist).getPicker();
+    }
+    
+    /**
+     * Picks the given amount of values from the given distribution, using the given random source. The alias table
+     * the values are sampled from is built on every call, so implementations should rather keep a sampler, see
+     * {@link #getSampler(DiscreteDistribution)}.
+     * @param dist the distribution the values shall be picked from
+     * @param n the amount of values that shall be picked
+     * @param random the random source
+     * @return the picked values
+     */
+    public static int[] sample(final DiscreteDistribution dist, final int n, final RandomSource random) {
+        return getSampler(dist).sample(n, random);
+    }
+    
+    /**
+     * Builds a sampler for the given distribution, i.e. an alias table over the support of the distribution, which
+     * holds all but a negligible part of the probability.
+     * @param dist the distribution
+     * @return the sampler
+     */
+    static Sampler getSampler(final DiscreteDistribution dist) {
+        int min = dist.getSupportMin(1 - ACCURACY);
+        int max = dist.getSupportMax(1 - ACCURACY);
+        double[] weights = new double[Math.addExact(max - min, 1)];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = dist.getProbability(min + i);
+        }
+        return new Sampler(min, new AliasTable(weights));
     }
     
     private static Support getSupport(final DiscreteDistribution dist, final double q, final int center) {
@@ -107,4 +109,62 @@ public class DiscreteDistributionUtility {
             return this.max;
         }
     }
+    
+    /**
+     * Samples values of a discrete distribution in constant time from an alias table over its support. A sampler
+     * is immutable, so a distribution may build it once and share it between threads.
+     */
+    static final class Sampler {
+        private final int min;
+        private final AliasTable table;
+        
+        Sampler(final int min, final AliasTable table) {
+            this.min = min;
+            this.table = table;
+        }
+        
+        int sample(final RandomSource random) {
+            return min + table.sample(random);
+        }
+        
+        int[] sample(final int n, final RandomSource random) {
+            if (n < 0) {
+                throw new IllegalArgumentException("Attempted to pick a negative amount of values.");
+            }
+            int[] values = new int[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = min + table.sample(random);
+            }
+            return values;
+        }
+        
+        Picker<Integer> getPicker() {
+            return new Picker<Integer>() {
+                
+                @Override
+                public Integer pickOne() {
+                    return sample(RandomSource.current());
+                }
+                
+                @Override
+                public List<Integer> pickMany(final int i) {
+                    return toList(sample(i, RandomSource.current()));
+                }
+            };
+        }
+    }
+    
+    /**
+     * Returns the given values as a list, e.g. to implement {@link Picker#pickMany(int)} with
+     * {@link DiscreteDistribution#sample(int, RandomSource)}.
+     * @param values the values
+     * @return the values as list
+     */
+    static List<Integer> toList(final int[] values) {
+        List<Integer> res = new ArrayList<Integer>(values.length);
+        for (int value: values) {
+            res.add(value);
+        }
+        return res;
+    }
 }
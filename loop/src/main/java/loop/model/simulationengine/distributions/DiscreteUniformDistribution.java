@@ -1,5 +1,7 @@
 package loop.model.simulationengine.distributions;
 
+import java.util.List;
+
 /**
  * Represents a discrete uniform distribution.
  * 
@@ -35,7 +37,39 @@ public class DiscreteUniformDistribution implements DiscreteDistribution {
 
     @Override
     public Picker<Integer> getPicker() {
-        return DiscreteDistributionUtility.getPicker(this);
+        return new Picker<Integer>() {
+            
+            @Override
+            public Integer pickOne() {
+                return pick(RandomSource.current());
+            }
+            
+            @Override
+            public List<Integer> pickMany(final int i) {
+                return DiscreteDistributionUtility.toList(sample(i, RandomSource.current()));
+            }
+        };
+    }
+    
+    @Override
+    public int[] sample(final int n, final RandomSource random) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Attempted to pick a negative amount of values.");
+        }
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = pick(random);
+        }
+        return values;
+    }
+    
+    private int pick(final RandomSource random) {
+        //the range may exceed the int range
+        long range = (long) max - min + 1;
+        if (range <= Integer.MAX_VALUE) {
+            return min + random.nextInt((int) range);
+        }
+        return (int) (min + (long) (random.nextDouble() * range));
     }
 
     @Override
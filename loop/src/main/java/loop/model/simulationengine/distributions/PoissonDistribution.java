@@ -1,8 +1,5 @@
 package loop.model.simulationengine.distributions;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Represents a Poisson distribution.
  * 
@@ -16,6 +13,8 @@ public class PoissonDistribution implements DiscreteDistribution {
     
     private double lambda;
     private org.apache.commons.math3.distribution.PoissonDistribution dist;
+    //built on first use, the sampler is immutable and may be built twice by concurrent threads
+    private volatile DiscreteDistributionUtility.Sampler sampler;
     
     /**
      * Creates a new Poisson distribution with the given mean.
@@ -38,22 +37,12 @@ public class PoissonDistribution implements DiscreteDistribution {
 
     @Override
     public Picker<Integer> getPicker() {
-        return new Picker<Integer>() {
-            
-            @Override
-            public Integer pickOne() {
-                return dist.sample();
-            }
-            
-            @Override
-            public List<Integer> pickMany(final int i) {
-                List<Integer> res = new ArrayList<Integer>();
-                for (int j = 0; j < i; j++) {
-                    res.add(pickOne());
-                }
-                return res;
-            }
-        };
+        return getSampler().getPicker();
+    }
+    
+    @Override
+    public int[] sample(final int n, final RandomSource random) {
+        return getSampler().sample(n, random);
     }
 
     @Override
@@ -65,5 +54,12 @@ public class PoissonDistribution implements DiscreteDistribution {
     public int getSupportMax(final double q) {
         return DiscreteDistributionUtility.getSupportMax(this, q, (int) Math.round(lambda));
     }
+    
+    private DiscreteDistributionUtility.Sampler getSampler() {
+        if (sampler == null) {
+            sampler = DiscreteDistributionUtility.getSampler(this);
+        }
+        return sampler;
+    }
 
 }
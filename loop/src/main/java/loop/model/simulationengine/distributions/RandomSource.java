@@ -0,0 +1,152 @@
+package loop.model.simulationengine.distributions;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A source of pseudo random numbers for the simulation, based on a {@link SplittableRandom}. A random source is
+ * not thread safe; it is meant to be used by one iteration at a time.
+ * <p>
+ * The simulation engine binds the random source of the iteration it executes to the executing thread (see
+ * {@link #bind(RandomSource)}), so that pickers, strategy adjusters, pair builders and mixed strategies can draw
+ * from it via {@link #current()} without it having to be passed through every interface. If no source is bound,
+ * {@link #current()} returns an unseeded source of the current thread.
+ * <p>
+ * Every random source knows the seed it was created with. Seeds of independent sub-streams are derived from it
+ * with {@link #derive(long)}, so that a tree of seeds (simulation, configuration, iteration, component) is fully
+ * determined by the seed at its root.
+ */
+public class RandomSource {
+
+    private static final ThreadLocal<RandomSource> UNBOUND = ThreadLocal.withInitial(() -> new RandomSource());
+    private static final ThreadLocal<RandomSource> BOUND = new ThreadLocal<RandomSource>();
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final SplittableRandom random;
+
+    /**
+     * Creates a new random source with a random seed.
+     */
+    public RandomSource() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a new random source with the given seed. Two sources created with the same seed produce the same
+     * sequence of numbers.
+     *
+     * @param seed the seed
+     */
+    public RandomSource(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Returns the seed this source was created with.
+     *
+     * @return the seed of this source
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a pseudo random {@code double} that is uniformly distributed in {@code [0, 1)}.
+     *
+     * @return a pseudo random {@code double} in {@code [0, 1)}
+     */
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    /**
+     * Returns a pseudo random {@code int} that is uniformly distributed in {@code [0, bound)}.
+     *
+     * @param bound the exclusive upper bound, must be positive
+     * @return a pseudo random {@code int} in {@code [0, bound)}
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * Returns a pseudo random {@code long}.
+     *
+     * @return a pseudo random {@code long}
+     */
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    /**
+     * Returns a pseudo random {@code boolean}.
+     *
+     * @return a pseudo random {@code boolean}
+     */
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    /**
+     * Returns a new random source that is statistically independent of this one. Splitting advances this
+     * source, so the sequence of splits is determined by the seed of this source.
+     *
+     * @return a new, independent random source
+     */
+    public RandomSource split() {
+        return new RandomSource(random.nextLong());
+    }
+
+    /**
+     * Returns the random source of the sub-stream with the given index. In contrast to {@link #split()}, this
+     * does not advance this source: the derived source only depends on the seed of this source and the index.
+     *
+     * @param index the index of the sub-stream
+     * @return the random source of the sub-stream with the given index
+     */
+    public RandomSource derive(long index) {
+        return new RandomSource(deriveSeed(seed, index));
+    }
+
+    /**
+     * Derives the seed of the sub-stream with the given index from the given seed. Different indices give
+     * statistically independent seeds.
+     *
+     * @param seed the seed of the parent stream
+     * @param index the index of the sub-stream
+     * @return the seed of the sub-stream
+     */
+    public static long deriveSeed(long seed, long index) {
+        long z = seed + (index + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the random source bound to the current thread, or an unseeded source of the current thread if none
+     * is bound.
+     *
+     * @return the random source of the current thread
+     */
+    public static RandomSource current() {
+        RandomSource source = BOUND.get();
+        return (source != null) ? source : UNBOUND.get();
+    }
+
+    /**
+     * Binds the given random source to the current thread, or removes the binding if {@code null} is given.
+     *
+     * @param source the random source that shall be bound to the current thread, or {@code null}
+     */
+    public static void bind(RandomSource source) {
+        if (source == null) {
+            BOUND.remove();
+        } else {
+            BOUND.set(source);
+        }
+    }
+}
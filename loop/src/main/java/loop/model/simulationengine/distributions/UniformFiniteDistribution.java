@@ -3,11 +3,13 @@ package loop.model.simulationengine.distributions;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Represents a uniform distribution over objects of type E with finite support. Implementations
  * provide methods for adding and removing objects.
+ * <p>
+ * Removing an object keeps the order of the support and takes time linear in its size. For repeated picking and
+ * removing from large supports, see {@link UniformIndexSampler}.
  * 
  * @author Peter Koepernik
  *
@@ -54,9 +56,7 @@ public class UniformFiniteDistribution<E> implements FiniteDistribution<E> {
      * @return {@code true} if the given object was contained and successfully removed, {@code false} otherwise
      */
     public boolean removeObject(final E object) {
-        if (!support.contains(object)) return false;
-        support.remove(object);
-        return true;
+        return support.remove(object);
     }
     
     /**
@@ -65,9 +65,7 @@ public class UniformFiniteDistribution<E> implements FiniteDistribution<E> {
      * @return the picked object
      */
     public E pickAndRemove() {
-        E object = this.getPicker().pickOne();
-        this.removeObject(object);
-        return object;
+        return support.remove(RandomSource.current().nextInt(support.size()));
     }
     
     /**
@@ -90,7 +88,7 @@ public class UniformFiniteDistribution<E> implements FiniteDistribution<E> {
 
             @Override
             public E pickOne() {
-                int i = new Random().nextInt(support.size());
+                int i = RandomSource.current().nextInt(support.size());
                 return support.get(i);
             }
 
@@ -0,0 +1,121 @@
+package loop.model.simulationengine.distributions;
+
+/**
+ * A uniform distribution over a mutable set of indices {@code 0, ..., n - 1}, with constant time picking, removing
+ * and restoring of indices.
+ * <p>
+ * The indices are kept in an array whose first {@link #size()} entries are the contained ones, together with the
+ * position of every index in that array. An index is removed by swapping it with the last contained index and
+ * restored by swapping it with the first removed index, so the order of the contained indices changes. Picking and
+ * removing indices repeatedly amounts to a Fisher-Yates shuffle.
+ */
+public final class UniformIndexSampler {
+
+    private final int[] indices;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * Creates a new sampler containing all indices {@code 0, ..., n - 1}.
+     *
+     * @param n the amount of indices, must not be negative
+     */
+    public UniformIndexSampler(final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Attempted to create a sampler with a negative amount of indices");
+        }
+        indices = new int[n];
+        positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+            positions[i] = i;
+        }
+        size = n;
+    }
+
+    /**
+     * Returns the amount of contained indices.
+     *
+     * @return the amount of contained indices
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether no index is contained.
+     *
+     * @return whether no index is contained
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns whether the given index is contained.
+     *
+     * @param index the index
+     * @return whether the index is contained
+     */
+    public boolean contains(final int index) {
+        return index >= 0 && index < positions.length && positions[index] < size;
+    }
+
+    /**
+     * Picks one of the contained indices uniformly at random.
+     *
+     * @param random the source of randomness
+     * @return the picked index
+     */
+    public int pick(final RandomSource random) {
+        if (size == 0) {
+            throw new IllegalArgumentException("Attempted to pick from an empty sampler");
+        }
+        return indices[random.nextInt(size)];
+    }
+
+    /**
+     * Picks one of the contained indices uniformly at random and removes it.
+     *
+     * @param random the source of randomness
+     * @return the picked index
+     */
+    public int pickAndRemove(final RandomSource random) {
+        int index = pick(random);
+        remove(index);
+        return index;
+    }
+
+    /**
+     * Removes the given index, if contained.
+     *
+     * @param index the index
+     * @return {@code true} if the index was contained, {@code false} otherwise
+     */
+    public boolean remove(final int index) {
+        if (!contains(index)) return false;
+        swap(positions[index], --size);
+        return true;
+    }
+
+    /**
+     * Restores the given index after it was removed.
+     *
+     * @param index the index
+     * @return {@code true} if the index was removed before, {@code false} if it was contained or is out of range
+     */
+    public boolean restore(final int index) {
+        if (index < 0 || index >= positions.length || contains(index)) return false;
+        swap(positions[index], size++);
+        return true;
+    }
+
+    private void swap(final int position1, final int position2) {
+        int index1 = indices[position1];
+        int index2 = indices[position2];
+        indices[position1] = index2;
+        indices[position2] = index1;
+        positions[index2] = position1;
+        positions[index1] = position2;
+    }
+}
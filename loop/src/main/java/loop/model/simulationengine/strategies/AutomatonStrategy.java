@@ -0,0 +1,243 @@
+package loop.model.simulationengine.strategies;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+import loop.model.simulationengine.Agent;
+import loop.model.simulationengine.AgentPair;
+import loop.model.simulationengine.AutomatonStates;
+import loop.model.simulationengine.CooperationScope;
+import loop.model.simulationengine.GameResult;
+import loop.model.simulationengine.HistoryRequirement;
+import loop.model.simulationengine.HistoryView;
+import loop.model.simulationengine.SimulationHistory;
+
+/**
+ * This class represents a pure strategy that is given as a finite automaton. For every pair of player and
+ * opponent, the automaton starts in state {@code 0}. After every game of the pair, it changes its state
+ * depending on the own move and the move of the opponent in that game. Each state determines whether the
+ * player cooperates.
+ * <p>
+ * If the history of the current adaption step provides {@link AutomatonStates} for this strategy, a decision
+ * is a table lookup. Otherwise the strategy falls back to its condition, which by default replays the games
+ * of the pair from the history.
+ */
+public class AutomatonStrategy extends PureStrategy {
+
+    private static final long serialVersionUID = -3125906658620437911L;
+
+    /**
+     * The maximum amount of states of an automaton.
+     */
+    public static final int MAX_STATES = 256;
+
+    private final boolean[] cooperates;
+    private final byte[] transitions;
+
+    /**
+     * Creates a new automaton strategy with the given states and transitions. The transitions are given
+     * as an array with four entries per state; the entry at index {@code 4 * state + move} is the state
+     * following {@code state}, where {@code move} is {@link #moveCode(boolean, boolean)} of the own move
+     * and the move of the opponent.
+     *
+     * @param name the name of the strategy
+     * @param description the description of the strategy
+     * @param cooperates for every state, whether the player cooperates in that state
+     * @param transitions the transition table
+     */
+    public AutomatonStrategy(final String name, final String description, final boolean[] cooperates, final int[] transitions) {
+        this(name, description, null, cooperates, transitions);
+    }
+
+    /**
+     * Creates a new automaton strategy with the given states and transitions, that uses the given condition if no
+     * {@link AutomatonStates} are available. The condition has to be equivalent to the automaton.
+     *
+     * @param name the name of the strategy
+     * @param description the description of the strategy
+     * @param condition the condition equivalent to the automaton, or {@code null} if the games shall be replayed
+     * @param cooperates for every state, whether the player cooperates in that state
+     * @param transitions the transition table, see {@link #AutomatonStrategy(String, String, boolean[], int[])}
+     */
+    public AutomatonStrategy(final String name, final String description, final BiPredicate<AgentPair, SimulationHistory> condition,
+            final boolean[] cooperates, final int[] transitions) {
+        this(name, description, condition, cooperates.clone(), toByteTable(cooperates.length, transitions));
+    }
+
+    private AutomatonStrategy(final String name, final String description, final BiPredicate<AgentPair, SimulationHistory> condition,
+            final boolean[] cooperates, final byte[] transitions) {
+        super(name, description, (condition != null) ? condition : replay(cooperates, transitions));
+        this.cooperates = cooperates;
+        this.transitions = transitions;
+    }
+
+    @Override
+    public boolean isCooperative(Agent player, Agent opponent, SimulationHistory history) {
+        AutomatonStates states = history.getAutomatonStates();
+        if (states != null) {
+            int id = states.indexOf(this);
+            if (id >= 0 && states.covers(player, opponent))
+                return cooperates[states.getState(id, player, opponent)];
+        }
+        return super.isCooperative(player, opponent, history);
+    }
+
+    @Override
+    public double getCooperationProbability(Agent player, Agent opponent, SimulationHistory history) {
+        return isCooperative(player, opponent, history) ? 1 : 0;
+    }
+
+    @Override
+    public boolean isCooperative(int player, int opponent, HistoryView view) {
+        AutomatonStates states = view.getAutomatonStates();
+        if (states != null) {
+            int id = states.indexOf(this);
+            if (id >= 0 && states.covers(player, opponent))
+                return cooperates[states.getState(id, player, opponent)];
+        }
+        return super.isCooperative(player, opponent, view);
+    }
+
+    @Override
+    public double getCooperationProbability(int player, int opponent, HistoryView view) {
+        return isCooperative(player, opponent, view) ? 1 : 0;
+    }
+
+    /**
+     * Returns {@link HistoryRequirement#NONE}, as the history maintains the {@link AutomatonStates} of all automaton
+     * strategies of a simulation.
+     *
+     * @return {@link HistoryRequirement#NONE}
+     */
+    @Override
+    public HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.NONE;
+    }
+
+    /**
+     * Returns {@link CooperationScope#PAIR}, as the state of an automaton only changes with the games between the
+     * player and the opponent.
+     *
+     * @return {@link CooperationScope#PAIR}
+     */
+    @Override
+    public CooperationScope getCooperationScope() {
+        return CooperationScope.PAIR;
+    }
+
+    /**
+     * Returns the amount of states of this automaton.
+     *
+     * @return the amount of states
+     */
+    public int getStateCount() {
+        return cooperates.length;
+    }
+
+    /**
+     * Returns whether a player cooperates in the given state.
+     *
+     * @param state the state
+     * @return whether a player cooperates in the given state
+     */
+    public boolean cooperates(int state) {
+        return cooperates[state];
+    }
+
+    /**
+     * Returns the state following the given one after a game with the given moves.
+     *
+     * @param state the current state
+     * @param ownCooperated whether the player cooperated
+     * @param opponentCooperated whether the opponent cooperated
+     * @return the following state
+     */
+    public int nextState(int state, boolean ownCooperated, boolean opponentCooperated) {
+        return transitions[4 * state + moveCode(ownCooperated, opponentCooperated)] & 0xFF;
+    }
+
+    /**
+     * Returns the code of the given moves used to index the transition table: {@code 0} if both cooperated,
+     * {@code 1} if only the player cooperated, {@code 2} if only the opponent cooperated and {@code 3} if
+     * none cooperated.
+     *
+     * @param ownCooperated whether the player cooperated
+     * @param opponentCooperated whether the opponent cooperated
+     * @return the code of the moves
+     */
+    public static int moveCode(boolean ownCooperated, boolean opponentCooperated) {
+        return (ownCooperated ? 0 : 2) | (opponentCooperated ? 0 : 1);
+    }
+
+    /**
+     * Creates the transition table of an automaton whose next state only depends on the move of the opponent.
+     *
+     * @param onCooperation for every state, the following state if the opponent cooperated
+     * @param onDefection for every state, the following state if the opponent defected
+     * @return the transition table
+     */
+    public static int[] opponentTransitions(int[] onCooperation, int[] onDefection) {
+        int[] transitions = new int[4 * onCooperation.length];
+        for (int state = 0; state < onCooperation.length; state++) {
+            transitions[4 * state + moveCode(true, true)] = onCooperation[state];
+            transitions[4 * state + moveCode(false, true)] = onCooperation[state];
+            transitions[4 * state + moveCode(true, false)] = onDefection[state];
+            transitions[4 * state + moveCode(false, false)] = onDefection[state];
+        }
+        return transitions;
+    }
+
+    /**
+     * Creates the transition table of an automaton whose next state only depends on the own move.
+     *
+     * @param onCooperation for every state, the following state if the player cooperated
+     * @param onDefection for every state, the following state if the player defected
+     * @return the transition table
+     */
+    public static int[] ownTransitions(int[] onCooperation, int[] onDefection) {
+        int[] transitions = new int[4 * onCooperation.length];
+        for (int state = 0; state < onCooperation.length; state++) {
+            transitions[4 * state + moveCode(true, true)] = onCooperation[state];
+            transitions[4 * state + moveCode(true, false)] = onCooperation[state];
+            transitions[4 * state + moveCode(false, true)] = onDefection[state];
+            transitions[4 * state + moveCode(false, false)] = onDefection[state];
+        }
+        return transitions;
+    }
+
+    private static byte[] toByteTable(int stateCount, int[] transitions) {
+        if (stateCount < 1 || stateCount > MAX_STATES)
+            throw new IllegalArgumentException("An automaton must have between 1 and " + MAX_STATES + " states.");
+        if (transitions.length != 4 * stateCount)
+            throw new IllegalArgumentException("The transition table must have four entries per state.");
+        byte[] table = new byte[transitions.length];
+        for (int i = 0; i < transitions.length; i++) {
+            if (transitions[i] < 0 || transitions[i] >= stateCount)
+                throw new IllegalArgumentException("Invalid target state " + transitions[i] + ".");
+            table[i] = (byte) transitions[i];
+        }
+        return table;
+    }
+
+    /**
+     * Returns a condition that replays the games of the pair from the history, oldest first.
+     */
+    private static BiPredicate<AgentPair, SimulationHistory> replay(boolean[] cooperates, byte[] transitions) {
+        return (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, history) -> {
+            Agent player = pair.getFirstAgent();
+            Agent opponent = pair.getSecondAgent();
+            List<GameResult> results = new ArrayList<GameResult>(history.getResultsByAgent(player));
+            int state = 0;
+            for (int i = results.size() - 1; i >= 0; i--) {
+                GameResult result = results.get(i);
+                if (result.hasAgent(opponent)) {
+                    int move = moveCode(result.hasCooperated(player), result.hasCooperated(opponent));
+                    state = transitions[4 * state + move] & 0xFF;
+                }
+            }
+            return cooperates[state];
+        };
+    }
+}
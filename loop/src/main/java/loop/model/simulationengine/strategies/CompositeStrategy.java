@@ -0,0 +1,57 @@
+package loop.model.simulationengine.strategies;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+import loop.model.simulationengine.AgentPair;
+import loop.model.simulationengine.AutomatonStates;
+import loop.model.simulationengine.HistoryRequirement;
+import loop.model.simulationengine.SimulationHistory;
+
+/**
+ * A pure strategy that decides by combining the decisions of other strategies, its operands. It reads what its
+ * operands read, so its history requirement is the combination of theirs. As automaton strategies require nothing
+ * only because the history maintains their {@link AutomatonStates}, the operands are exposed to let the simulation
+ * engine register the automata among them.
+ */
+public class CompositeStrategy extends PureStrategy {
+
+    private static final long serialVersionUID = -6315473380712946206L;
+
+    private final List<Strategy> operands;
+
+    /**
+     * Creates a new composite strategy of the given operands with the given conditions.
+     *
+     * @param name the name of the strategy
+     * @param description the description of the strategy
+     * @param condition the condition on the opponent, combining the decisions of the operands
+     * @param indexedCondition the equivalent condition on agent indices, or {@code null} if the condition shall be
+     * adapted to agent indices
+     * @param operands the strategies whose decisions are combined
+     */
+    public CompositeStrategy(final String name, final String description, final BiPredicate<AgentPair, SimulationHistory> condition,
+            final IndexedCondition indexedCondition, final List<Strategy> operands) {
+        super(name, description, condition, indexedCondition, requirementOf(operands));
+        this.operands = new ArrayList<Strategy>(operands);
+    }
+
+    private static HistoryRequirement requirementOf(final List<Strategy> operands) {
+        HistoryRequirement requirement = HistoryRequirement.NONE;
+        for (Strategy operand: operands) {
+            requirement = requirement.and(operand.getHistoryRequirement());
+        }
+        return requirement;
+    }
+
+    /**
+     * Returns the strategies whose decisions this strategy combines.
+     *
+     * @return the operands of this strategy
+     */
+    public List<Strategy> getOperands() {
+        return Collections.unmodifiableList(operands);
+    }
+}
@@ -0,0 +1,22 @@
+package loop.model.simulationengine.strategies;
+
+import java.io.Serializable;
+
+import loop.model.simulationengine.HistoryView;
+
+/**
+ * The condition of a {@link PureStrategy} on agents given by their index, see {@link IndexedStrategy}.
+ */
+@FunctionalInterface
+public interface IndexedCondition extends Serializable {
+
+    /**
+     * Returns whether the condition holds for the given player and opponent.
+     *
+     * @param player the index of the player agent in the agent store of the view
+     * @param opponent the index of the opponent agent in the agent store of the view
+     * @param view the view on the history of the current adaption step
+     * @return whether the player cooperates
+     */
+    boolean test(int player, int opponent, HistoryView view);
+}
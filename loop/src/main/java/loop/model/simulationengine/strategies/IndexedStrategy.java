@@ -0,0 +1,75 @@
+package loop.model.simulationengine.strategies;
+
+import loop.model.simulationengine.AgentStore;
+import loop.model.simulationengine.HistoryView;
+
+/**
+ * A {@link Strategy} that can also be evaluated for agents given by their index in an
+ * {@link AgentStore}, based on a read-only {@link HistoryView}. Evaluating a strategy this way does not
+ * allocate any objects, which matters because the simulation engine evaluates the strategies of all agents in
+ * every round.
+ * <p>
+ * Both ways of evaluating an indexed strategy have to lead to the same decisions. Strategies that do not implement
+ * this interface are evaluated through {@link #cooperates(Strategy, int, int, HistoryView)} and
+ * {@link #cooperationProbability(Strategy, int, int, HistoryView)}, which adapt them to agent indices.
+ */
+public interface IndexedStrategy extends Strategy {
+
+    /**
+     * Returns whether the agent with index {@code player} would cooperate in a game against the agent with index
+     * {@code opponent} using this strategy. If the strategy is non-deterministic, the result may be random.
+     *
+     * @param player the index of the player agent in the agent store of the view
+     * @param opponent the index of the opponent agent in the agent store of the view
+     * @param view the view on the history of the current adaption step
+     * @return whether the player cooperates
+     */
+    boolean isCooperative(int player, int opponent, HistoryView view);
+
+    /**
+     * Returns the probability with which the agent with index {@code player} would cooperate in a game against the
+     * agent with index {@code opponent} using this strategy.
+     *
+     * @param player the index of the player agent in the agent store of the view
+     * @param opponent the index of the opponent agent in the agent store of the view
+     * @param view the view on the history of the current adaption step
+     * @return the cooperation probability of the player
+     */
+    double getCooperationProbability(int player, int opponent, HistoryView view);
+
+    /**
+     * Returns whether the agent with index {@code player} would cooperate in a game against the agent with index
+     * {@code opponent} using the given strategy, evaluating it by indices if it is an indexed strategy and by the
+     * agents and the history of the view otherwise.
+     *
+     * @param strategy the strategy of the player
+     * @param player the index of the player agent in the agent store of the view
+     * @param opponent the index of the opponent agent in the agent store of the view
+     * @param view the view on the history of the current adaption step
+     * @return whether the player cooperates
+     */
+    static boolean cooperates(Strategy strategy, int player, int opponent, HistoryView view) {
+        if (strategy instanceof IndexedStrategy)
+            return ((IndexedStrategy) strategy).isCooperative(player, opponent, view);
+        AgentStore store = view.getAgentStore();
+        return strategy.isCooperative(store.getAgent(player), store.getAgent(opponent), view.getHistory());
+    }
+
+    /**
+     * Returns the probability with which the agent with index {@code player} would cooperate in a game against the
+     * agent with index {@code opponent} using the given strategy, evaluating it by indices if it is an indexed
+     * strategy and by the agents and the history of the view otherwise.
+     *
+     * @param strategy the strategy of the player
+     * @param player the index of the player agent in the agent store of the view
+     * @param opponent the index of the opponent agent in the agent store of the view
+     * @param view the view on the history of the current adaption step
+     * @return the cooperation probability of the player
+     */
+    static double cooperationProbability(Strategy strategy, int player, int opponent, HistoryView view) {
+        if (strategy instanceof IndexedStrategy)
+            return ((IndexedStrategy) strategy).getCooperationProbability(player, opponent, view);
+        AgentStore store = view.getAgentStore();
+        return strategy.getCooperationProbability(store.getAgent(player), store.getAgent(opponent), view.getHistory());
+    }
+}
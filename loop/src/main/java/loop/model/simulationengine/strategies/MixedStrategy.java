@@ -1,34 +1,54 @@
 package loop.model.simulationengine.strategies;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 
 import loop.model.simulationengine.Agent;
+import loop.model.simulationengine.CooperationScope;
+import loop.model.simulationengine.HistoryRequirement;
+import loop.model.simulationengine.HistoryView;
 import loop.model.simulationengine.SimulationHistory;
+import loop.model.simulationengine.distributions.AliasTable;
+import loop.model.simulationengine.distributions.RandomSource;
 
 /**
  * This class represents a mixed strategy that is composed of multiple {@link Strategy}s, each one
  * chosen with a certain probability on every evaluation. It also implements the functionality
  * of a {@link RealVector} with the probabilities of the different strategies as components.
+ * <p>
+ * The probabilities are stored in a {@code double} array. Component strategies are chosen with an alias table that
+ * is built on the first evaluation after the probabilities were changed, so choosing a strategy takes constant time.
+ * <p>
+ * If only few probabilities are non-zero, as for the mixed strategies the simulation engine creates from the pure
+ * strategies of the population, the strategy also keeps the sorted indices of the non-zero components, its support.
+ * Evaluation, choosing, interpolation and the norms then only visit the support. Once the support grows past a
+ * quarter of the components, the strategy is treated as dense.
  * 
  * @author Peter Koepernik
  *
  */
-public class MixedStrategy implements Strategy, RealVector {
+public class MixedStrategy implements IndexedStrategy, RealVector {
     
     private String name;
     private String description;
     private List<Strategy> strategies;
-    private List<Double> probabilities;
-    
-    private Random random;
+    private double[] probabilities;
+    private int[] support; //null if dense
+    private int supportSize;
+    private Sampler sampler;
     
     /**
      * The accuracy with which the sum of all probabilities must be equal to one.
      */
     private static final double ACCURACY = Math.pow(10, -7);
     
+    /**
+     * A strategy is stored sparsely if at most the amount of components divided by this number are non-zero.
+     */
+    private static final int SPARSE_DIVISOR = 4;
+    
     /**
      * Creates a new mixed strategy consisting of the given strategies with the given probabilities.
      * 
@@ -60,9 +80,36 @@ public class MixedStrategy implements Strategy, RealVector {
         }
         
         this.strategies = new ArrayList<Strategy>(strategies);
-        this.probabilities = new ArrayList<Double>(probabilities);
-        
-        random = new Random();
+        this.probabilities = new double[probabilities.size()];
+        for (int i = 0; i < this.probabilities.length; i++) {
+            this.probabilities[i] = probabilities.get(i);
+        }
+        updateSupport();
+    }
+    
+    private MixedStrategy(String name, String description, List<Strategy> strategies, double[] probabilities) {
+        this.name = name;
+        this.description = description;
+        this.strategies = strategies;
+        this.probabilities = probabilities;
+        updateSupport();
+    }
+    
+    /**
+     * Creates a new mixed strategy consisting of the given strategies with the given probabilities, without
+     * validating or copying the arguments. This is meant for the simulation engine, which creates many mixed
+     * strategies over the same component strategies: the given list and array are used by the new mixed strategy
+     * and must not be modified afterwards.
+     * 
+     * @param name the name of the strategy
+     * @param description the description of the strategy
+     * @param strategies the strategies this mixed strategy consists of
+     * @param probabilities the probabilities of the given strategies (in the same order)
+     * @return the created mixed strategy
+     */
+    public static MixedStrategy createUnchecked(String name, String description, List<Strategy> strategies,
+            double[] probabilities) {
+        return new MixedStrategy(name, description, strategies, probabilities);
     }
     
     @Override
@@ -82,21 +129,80 @@ public class MixedStrategy implements Strategy, RealVector {
 
     @Override
     public Double getComponent(final int index) {
-        return this.probabilities.get(index);
+        return this.probabilities[index];
     }
 
     @Override
     public void setComponent(int index, Double value) {
-        this.probabilities.set(index, value);
+        this.probabilities[index] = value;
+        updateSupport();
+    }
+    
+    /**
+     * Returns the probability of the component strategy with the given index.
+     * 
+     * @param index the index of the component strategy
+     * @return the probability of the component strategy
+     */
+    public double getProbability(final int index) {
+        return this.probabilities[index];
+    }
+    
+    /**
+     * Returns the amount of components that may be non-zero: the size of the support if this strategy is sparse,
+     * the amount of all components otherwise.
+     * 
+     * @return the amount of components that may be non-zero
+     */
+    public int getSupportSize() {
+        return this.supportSize;
+    }
+    
+    /**
+     * Returns the index of the {@code j}-th component that may be non-zero, in ascending order. If this strategy
+     * is dense, this is {@code j}.
+     * 
+     * @param j the position in the support, less than {@link #getSupportSize()}
+     * @return the index of the component
+     */
+    public int getSupportIndex(final int j) {
+        return (this.support != null) ? this.support[j] : j;
+    }
+    
+    /**
+     * Returns whether this strategy is stored sparsely.
+     * 
+     * @return whether this strategy is sparse
+     */
+    public boolean isSparse() {
+        return this.support != null;
     }
     
     /**
-     * Returns a list of all probabilities (components of the vector this strategy represents).
+     * Returns a list of all probabilities (components of the vector this strategy represents). The list is
+     * backed by this strategy.
      * 
      * @return a list of all probabilities
      */
     public List<Double> getComponents() {
-        return this.probabilities;
+        return new AbstractList<Double>() {
+            @Override
+            public Double get(int index) {
+                return getComponent(index);
+            }
+            
+            @Override
+            public Double set(int index, Double value) {
+                Double previous = getComponent(index);
+                setComponent(index, value);
+                return previous;
+            }
+            
+            @Override
+            public int size() {
+                return getSize();
+            }
+        };
     }
     
     /**
@@ -110,29 +216,42 @@ public class MixedStrategy implements Strategy, RealVector {
 
     @Override
     public RealVector clone() {
-        return new MixedStrategy(this.name, this.description, this.strategies, this.probabilities);
+        return new MixedStrategy(this.name, this.description, new ArrayList<Strategy>(this.strategies),
+                this.probabilities.clone());
+    }
+    
+    /**
+     * Returns a copy of this mixed strategy that shares the list of component strategies with this one.
+     * 
+     * @return a copy of this mixed strategy
+     */
+    public MixedStrategy copy() {
+        return new MixedStrategy(this.name, this.description, this.strategies, this.probabilities.clone());
     }
 
     @Override
     public double getEuclideanNorm() {
         double sum = 0;
-        for (Double d: this.probabilities)
+        for (int j = 0; j < this.supportSize; j++) {
+            double d = this.probabilities[getSupportIndex(j)];
             sum += d * d;
+        }
         return Math.sqrt(sum);
     }
 
     @Override
     public double getSumNorm() {
         double sum = 0;
-        for (Double d: this.probabilities)
-            sum += Math.abs(d);
+        for (int j = 0; j < this.supportSize; j++)
+            sum += Math.abs(this.probabilities[getSupportIndex(j)]);
         return sum;
     }
 
     @Override
     public RealVector mutliplyBy(double scalar) {
-        for (int i = 0; i < this.probabilities.size(); i++) 
-            this.probabilities.set(i, scalar * this.probabilities.get(i));
+        for (int i = 0; i < this.probabilities.length; i++) 
+            this.probabilities[i] = scalar * this.probabilities[i];
+        updateSupport();
         
         return this;
     }
@@ -142,8 +261,34 @@ public class MixedStrategy implements Strategy, RealVector {
         if (this.getSize() != vector.getSize()) {
             throw new IllegalArgumentException("Attempted to add two real vectors of different sizes");
         }
-        for (int i = 0; i < this.probabilities.size(); i++)
-            this.probabilities.set(i, this.probabilities.get(i) + vector.getComponent(i));
+        for (int i = 0; i < this.probabilities.length; i++)
+            this.probabilities[i] = this.probabilities[i] + vector.getComponent(i);
+        updateSupport();
+        
+        return this;
+    }
+    
+    /**
+     * Moves the probabilities of this strategy towards the probabilities of the given mixed strategy: every
+     * probability {@code p} becomes {@code p + weight * (q - p)}, where {@code q} is the corresponding probability
+     * of the given strategy. Both strategies must consist of the same component strategies in the same order.
+     * If both strategies are sparse, only the union of their supports is visited.
+     * 
+     * @param target the mixed strategy this strategy shall be moved towards
+     * @param weight the interpolation parameter, between zero and one
+     * @return this strategy after interpolation
+     */
+    public MixedStrategy interpolate(MixedStrategy target, double weight) {
+        if (this.getSize() != target.getSize()) {
+            throw new IllegalArgumentException("Attempted to interpolate two mixed strategies of different sizes");
+        }
+        if (this.support != null && target.support != null) {
+            interpolateSparse(target, weight);
+        } else {
+            for (int i = 0; i < this.probabilities.length; i++)
+                this.probabilities[i] += weight * (target.probabilities[i] - this.probabilities[i]);
+            updateSupport();
+        }
         
         return this;
     }
@@ -156,20 +301,151 @@ public class MixedStrategy implements Strategy, RealVector {
     @Override
     public double getCooperationProbability(Agent player, Agent opponent, SimulationHistory history) {
         double prob = 0;
-        for (int i = 0; i < this.getSize(); i++) {
-            prob += this.probabilities.get(i) * this.strategies.get(i).getCooperationProbability(player, opponent, history);
+        for (int j = 0; j < this.supportSize; j++) {
+            int i = getSupportIndex(j);
+            prob += this.probabilities[i] * this.strategies.get(i).getCooperationProbability(player, opponent, history);
+        }
+        return prob;
+    }
+
+    @Override
+    public boolean isCooperative(int player, int opponent, HistoryView view) {
+        return IndexedStrategy.cooperates(chooseStrategy(), player, opponent, view);
+    }
+
+    @Override
+    public double getCooperationProbability(int player, int opponent, HistoryView view) {
+        double prob = 0;
+        for (int j = 0; j < this.supportSize; j++) {
+            int i = getSupportIndex(j);
+            prob += this.probabilities[i] * IndexedStrategy.cooperationProbability(this.strategies.get(i), player, opponent, view);
         }
         return prob;
     }
+
+    /**
+     * Returns the combined requirement of all component strategies, including those that are currently chosen with
+     * probability zero.
+     *
+     * @return the combined history requirement of the component strategies
+     */
+    @Override
+    public HistoryRequirement getHistoryRequirement() {
+        HistoryRequirement requirement = HistoryRequirement.NONE;
+        for (Strategy strategy: this.strategies) {
+            requirement = requirement.and(strategy.getHistoryRequirement());
+        }
+        return requirement;
+    }
+    
+    /**
+     * Returns the widest scope of all component strategies, including those that are currently chosen with
+     * probability zero.
+     *
+     * @return the combined cooperation scope of the component strategies
+     */
+    @Override
+    public CooperationScope getCooperationScope() {
+        CooperationScope scope = CooperationScope.PAIR;
+        for (Strategy strategy: this.strategies) {
+            scope = scope.and(strategy.getCooperationScope());
+        }
+        return scope;
+    }
     
     private Strategy chooseStrategy() {
-        double r = random.nextDouble();
-        int strat = 0;
-        double accProb = this.probabilities.get(0);
-        while (r >= accProb) {
-            accProb += probabilities.get(++strat);
+        Sampler current = this.sampler;
+        if (current == null) {
+            current = new Sampler(this);
+            this.sampler = current;
+        }
+        return strategies.get(current.sample());
+    }
+    
+    /**
+     * Interpolates towards the given sparse strategy, where this strategy is sparse as well. The union of both
+     * supports is merged into the support array from its end, then the probabilities of the union are updated and
+     * the components that became zero are dropped.
+     */
+    private void interpolateSparse(MixedStrategy target, double weight) {
+        int ownSize = this.supportSize;
+        int targetSize = target.supportSize;
+        if (this.support.length < ownSize + targetSize) {
+            this.support = Arrays.copyOf(this.support, ownSize + targetSize);
+        }
+        int i = ownSize - 1;
+        int j = targetSize - 1;
+        int w = ownSize + targetSize - 1;
+        while (j >= 0) {
+            if (i >= 0 && this.support[i] >= target.support[j]) {
+                if (this.support[i] == target.support[j]) j--;
+                this.support[w--] = this.support[i--];
+            } else {
+                this.support[w--] = target.support[j--];
+            }
+        }
+        //the union is support[0..i] followed by support[w+1..ownSize+targetSize-1]
+        int size = 0;
+        for (int k = 0; k < ownSize + targetSize; k++) {
+            if (k == i + 1) k = w + 1;
+            if (k >= ownSize + targetSize) break;
+            int index = this.support[k];
+            this.probabilities[index] += weight * (target.probabilities[index] - this.probabilities[index]);
+            if (this.probabilities[index] != 0) this.support[size++] = index;
+        }
+        this.supportSize = size;
+        if (size > this.probabilities.length / SPARSE_DIVISOR) {
+            this.support = null;
+            this.supportSize = this.probabilities.length;
+        }
+        this.sampler = null;
+    }
+    
+    /**
+     * Recomputes the support from the probabilities and decides whether this strategy is stored sparsely.
+     */
+    private void updateSupport() {
+        int count = 0;
+        for (double p: this.probabilities) {
+            if (p != 0) count++;
+        }
+        if (count > this.probabilities.length / SPARSE_DIVISOR) {
+            this.support = null;
+            this.supportSize = this.probabilities.length;
+        } else {
+            if (this.support == null || this.support.length < count) {
+                this.support = new int[Math.max(count, 1)];
+            }
+            int size = 0;
+            for (int i = 0; i < this.probabilities.length; i++) {
+                if (this.probabilities[i] != 0) this.support[size++] = i;
+            }
+            this.supportSize = size;
+        }
+        this.sampler = null;
+    }
+    
+    /**
+     * Chooses the index of a component strategy with an alias table over the support. A sampler is immutable, so it
+     * may be shared between threads.
+     */
+    private static final class Sampler {
+        private final AliasTable table;
+        private final int[] components;
+        
+        private Sampler(MixedStrategy strategy) {
+            this.components = new int[strategy.supportSize];
+            double[] weights = new double[strategy.supportSize];
+            for (int j = 0; j < weights.length; j++) {
+                components[j] = strategy.getSupportIndex(j);
+                weights[j] = strategy.probabilities[components[j]];
+            }
+            this.table = (weights.length == 1) ? null : new AliasTable(weights);
+        }
+        
+        private int sample() {
+            return (table == null) ? components[0] : components[table.sample(RandomSource.current())];
         }
-        return strategies.get(strat);
     }
     
 }
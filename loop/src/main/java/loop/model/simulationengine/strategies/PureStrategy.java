@@ -16,10 +16,14 @@ import java.util.stream.Stream;
  * <p>
  * It also provides static access to some standard strategies such as grim, tit-for-tat,
  * always cooperate or never cooperate
+ * <p>
+ * A pure strategy may additionally be given an equivalent {@link IndexedCondition}, which is then used whenever the
+ * strategy is evaluated on a {@link HistoryView} of the agents, so no {@link AgentPair} has to be created. Without
+ * one, the strategy adapts its condition to agent indices.
  *
  * @author Peter Koepernik
  */
-public class PureStrategy implements Strategy, java.io.Serializable {
+public class PureStrategy implements IndexedStrategy, java.io.Serializable {
 
     /**
      *
@@ -28,11 +32,44 @@ public class PureStrategy implements Strategy, java.io.Serializable {
     private String name;
     private String description;
     private BiPredicate<AgentPair, SimulationHistory> condition;
+    private IndexedCondition indexedCondition;
+    private HistoryRequirement historyRequirement;
 
     public PureStrategy(final String name, final String description, final BiPredicate<AgentPair, SimulationHistory> condition) {
+        this(name, description, condition, HistoryRequirement.FULL);
+    }
+
+    /**
+     * Creates a new pure strategy whose condition reads no more of the history than the given requirement.
+     *
+     * @param name the name of the strategy
+     * @param description the description of the strategy
+     * @param condition the condition on the opponent
+     * @param historyRequirement the part of the history the condition reads
+     */
+    public PureStrategy(final String name, final String description, final BiPredicate<AgentPair, SimulationHistory> condition,
+            final HistoryRequirement historyRequirement) {
+        this(name, description, condition, null, historyRequirement);
+    }
+
+    /**
+     * Creates a new pure strategy with the given condition and an equivalent condition on agent indices, that reads
+     * no more of the history than the given requirement.
+     *
+     * @param name the name of the strategy
+     * @param description the description of the strategy
+     * @param condition the condition on the opponent
+     * @param indexedCondition the equivalent condition on agent indices, or {@code null} if the condition shall be
+     * adapted to agent indices
+     * @param historyRequirement the part of the history the condition reads
+     */
+    public PureStrategy(final String name, final String description, final BiPredicate<AgentPair, SimulationHistory> condition,
+            final IndexedCondition indexedCondition, final HistoryRequirement historyRequirement) {
+        this.indexedCondition = indexedCondition;
         this.name = name;
         this.description = description;
         this.condition = condition;
+        this.historyRequirement = historyRequirement;
     }
 
     @Override
@@ -47,12 +84,47 @@ public class PureStrategy implements Strategy, java.io.Serializable {
 
     @Override
     public boolean isCooperative(Agent player, Agent opponent, SimulationHistory history) {
+        if (indexedCondition != null && history instanceof HistoryView) {
+            HistoryView view = (HistoryView) history;
+            if (view.covers(player) && view.covers(opponent))
+                return indexedCondition.test(player.getIndex(), opponent.getIndex(), view);
+        }
         return condition.test(new ConcreteAgentPair(player, opponent), history);
     }
 
     @Override
     public double getCooperationProbability(Agent player, Agent opponent, SimulationHistory history) {
-        return (condition.test(new ConcreteAgentPair(player, opponent), history)) ? 1 : 0;
+        return isCooperative(player, opponent, history) ? 1 : 0;
+    }
+
+    @Override
+    public boolean isCooperative(int player, int opponent, HistoryView view) {
+        if (indexedCondition != null)
+            return indexedCondition.test(player, opponent, view);
+        AgentStore store = view.getAgentStore();
+        return condition.test(new ConcreteAgentPair(store.getAgent(player), store.getAgent(opponent)), view.getHistory());
+    }
+
+    @Override
+    public double getCooperationProbability(int player, int opponent, HistoryView view) {
+        return isCooperative(player, opponent, view) ? 1 : 0;
+    }
+
+    @Override
+    public HistoryRequirement getHistoryRequirement() {
+        //strategies serialised before requirements were declared read the full history
+        return (historyRequirement != null) ? historyRequirement : HistoryRequirement.FULL;
+    }
+
+    /**
+     * Returns {@link CooperationScope#AGENTS} if the condition reads no games, as it then only reads the two agents
+     * and the interaction summary of their games, and {@link CooperationScope#HISTORY} otherwise.
+     *
+     * @return the cooperation scope of this strategy
+     */
+    @Override
+    public CooperationScope getCooperationScope() {
+        return getHistoryRequirement().needsGames() ? CooperationScope.HISTORY : CooperationScope.AGENTS;
     }
 
     /**
@@ -61,11 +133,14 @@ public class PureStrategy implements Strategy, java.io.Serializable {
      * @return an instance of the {@link PureStrategy} class representing the tit-for-tat strategy
      */
     public static PureStrategy titForTat() {
-        return new PureStrategy(
+        return new AutomatonStrategy(
                 "tit-for-tat", "A player using tit-for-tat will cooperate in the first game. In every following game, he will"
                         + " cooperate if and only if the opponent cooperated in the previous game."
                 , (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, history) -> {
             Agent opponent = pair.getSecondAgent();
+            InteractionSummary summary = summaryFor(pair, history);
+            if (summary != null)
+                return opponentCooperatedLastTime(summary, pair);
             for (GameResult result : history.getResultsByAgent(pair.getFirstAgent())) {
                 // first hit is also latest result; maybe not so pretty but efficient
                 if (result.hasAgent(opponent)) {
@@ -73,7 +148,8 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                 }
             }
             return true;
-        });
+        },
+                new boolean[] {true, false}, AutomatonStrategy.opponentTransitions(new int[] {0, 0}, new int[] {1, 1}));
     }
 
     /**
@@ -85,12 +161,7 @@ public class PureStrategy implements Strategy, java.io.Serializable {
      * @return an instance of the {@link PureStrategy} class representing the group tit-for-tat strategy
      */
     public static PureStrategy groupTitForTat() {
-
-        return new PureStrategy(
-                "group tit-for-tat", "A player using group tit-for-tat uses the tit-for-tat strategy, where instead of looking "
-                + "at the last game between the player and the opponent the last game between the opponent and any agent "
-                + "of the same (cohesive) group as the player is considered. If the player is part of a non-cohesive group, "
-                + "this strategy leads to the same results as the common tit-for-tat strategy.",
+        BiPredicate<AgentPair, SimulationHistory> condition =
                 (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, history) -> {
                     Agent agent = pair.getFirstAgent();
                     Agent opponent = pair.getSecondAgent();
@@ -100,7 +171,23 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                         }
                     }
                     return true;
-                }
+                };
+        IndexedCondition indexedCondition = (player, opponent, view) -> {
+            InteractionSummary summary = view.getInteractionSummary();
+            if (summary != null && view.getAgentStore().getGroupId(player) == -1 && summary.covers(player, opponent))
+                return summary.getEncounters(opponent, player) == 0 || summary.cooperatedLastTime(opponent, player);
+            if (summary != null && summary.coversGroup(opponent, player))
+                return summary.getGroupEncounters(opponent, player) == 0
+                        || summary.cooperatedLastTimeWithGroup(opponent, player);
+            return condition.test(pairOf(player, opponent, view), view.getHistory());
+        };
+
+        return new PureStrategy(
+                "group tit-for-tat", "A player using group tit-for-tat uses the tit-for-tat strategy, where instead of looking "
+                + "at the last game between the player and the opponent the last game between the opponent and any agent "
+                + "of the same (cohesive) group as the player is considered. If the player is part of a non-cohesive group, "
+                + "this strategy leads to the same results as the common tit-for-tat strategy.",
+                condition, indexedCondition, HistoryRequirement.SUMMARY
         );
     }
 
@@ -110,16 +197,20 @@ public class PureStrategy implements Strategy, java.io.Serializable {
      * @return an instance of the {@link PureStrategy} class representing the grim strategy
      */
     public static PureStrategy grim() {
-        return new PureStrategy(
+        return new AutomatonStrategy(
                 "grim", "A player using grim will cooperate in the first game. In the following games, he cooperates if and only if the opponent"
                         + " cooperated in all previous games.",
                 (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, history) -> {
+                    InteractionSummary summary = summaryFor(pair, history);
+                    if (summary != null)
+                        return !summary.hasEverDefected(pair.getSecondAgent(), pair.getFirstAgent());
                     for (GameResult result : history.getResultsByAgent(pair.getFirstAgent())) {
                         if (result.hasAgent(pair.getSecondAgent()) && !result.hasCooperated(pair.getSecondAgent()))
                             return false;
                     }
                     return true;
-                });
+                },
+                new boolean[] {true, false}, AutomatonStrategy.opponentTransitions(new int[] {0, 1}, new int[] {1, 1}));
     }
 
     /**
@@ -131,12 +222,7 @@ public class PureStrategy implements Strategy, java.io.Serializable {
      * @return an instance of the {@link PureStrategy} class representing the group grim strategy
      */
     public static PureStrategy groupGrim() {
-
-        return new PureStrategy(
-                "group grim", "A player using group grim uses the grim strategy, where instead of looking at the last game between"
-                + " the player and the opponent the last game between the opponent and any agent of the same (cohesive) group"
-                + " as the player is considered. If the player is part of a non-cohesive group, this strategy leads to the same results"
-                + " as the common grim strategy.",
+        BiPredicate<AgentPair, SimulationHistory> condition =
                 (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, history) -> {
                     Agent agent = pair.getFirstAgent();
                     Agent opponent = pair.getSecondAgent();
@@ -148,7 +234,22 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                         }
                     }
                     return true;
-                }
+                };
+        IndexedCondition indexedCondition = (player, opponent, view) -> {
+            InteractionSummary summary = view.getInteractionSummary();
+            if (summary != null && view.getAgentStore().getGroupId(player) == -1 && summary.covers(player, opponent))
+                return !summary.hasEverDefected(opponent, player);
+            if (summary != null && summary.coversGroup(opponent, player))
+                return !summary.hasEverDefectedAgainstGroup(opponent, player);
+            return condition.test(pairOf(player, opponent, view), view.getHistory());
+        };
+
+        return new PureStrategy(
+                "group grim", "A player using group grim uses the grim strategy, where instead of looking at the last game between"
+                + " the player and the opponent the last game between the opponent and any agent of the same (cohesive) group"
+                + " as the player is considered. If the player is part of a non-cohesive group, this strategy leads to the same results"
+                + " as the common grim strategy.",
+                condition, indexedCondition, HistoryRequirement.SUMMARY
         );
     }
 
@@ -158,8 +259,9 @@ public class PureStrategy implements Strategy, java.io.Serializable {
      * @return an instance of the {@link PureStrategy} class representing the "always cooperate" strategy
      */
     public static PureStrategy alwaysCooperate() {
-        return new PureStrategy("always cooperate", "A player using this strategy will cooperate in every game.",
-                (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, history) -> true);
+        return new AutomatonStrategy("always cooperate", "A player using this strategy will cooperate in every game.",
+                (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, history) -> true,
+                new boolean[] {true}, new int[] {0, 0, 0, 0});
     }
 
     /**
@@ -168,8 +270,9 @@ public class PureStrategy implements Strategy, java.io.Serializable {
      * @return an instance of the {@link PureStrategy} class representing the "never cooperate" strategy
      */
     public static PureStrategy neverCooperate() {
-        return new PureStrategy("never cooperate", "A player using this strategy won't cooperate in any game.",
-                (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, history) -> false);
+        return new AutomatonStrategy("never cooperate", "A player using this strategy won't cooperate in any game.",
+                (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, history) -> false,
+                new boolean[] {false}, new int[] {0, 0, 0, 0});
     }
 
     public enum TimeAdverb {
@@ -234,10 +337,14 @@ public class PureStrategy implements Strategy, java.io.Serializable {
     }
 
     public static boolean hasSimilarCapital(Agent a1, Agent a2, double percentage) {
-        if (a1.getCapital() > a2.getCapital())
-            return ((double) a2.getCapital() / (double) a1.getCapital()) >= 1 - percentage;
+        return hasSimilarCapital(a1.getCapital(), a2.getCapital(), percentage);
+    }
+
+    private static boolean hasSimilarCapital(int capital1, int capital2, double percentage) {
+        if (capital1 > capital2)
+            return ((double) capital2 / (double) capital1) >= 1 - percentage;
         else
-            return ((double) a1.getCapital() / (double) a2.getCapital()) >= 1 - percentage;
+            return ((double) capital1 / (double) capital2) >= 1 - percentage;
     }
 
     /**
@@ -249,6 +356,9 @@ public class PureStrategy implements Strategy, java.io.Serializable {
         BiPredicate<AgentPair, SimulationHistory> condition =
                 (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, hist) -> {
                     Agent opponent = pair.getSecondAgent();
+                    InteractionSummary summary = summaryFor(pair, hist);
+                    if (summary != null)
+                        return !summary.hasEverDefected(opponent, pair.getFirstAgent());
                     for (GameResult res : hist.getResultsByAgent(pair.getFirstAgent())) {
                         if (res.hasAgent(opponent) && !res.hasCooperated(opponent))
                             return false;
@@ -256,9 +366,10 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                     return true;
                 };
 
-        return new PureStrategy("The opponent always cooperated", "A player using this strategy will first cooperate, afterwards he refer to the previous actions of the opponent."
+        return new AutomatonStrategy("The opponent always cooperated", "A player using this strategy will first cooperate, afterwards he refer to the previous actions of the opponent."
                 + " If the opponent previously was always cooperative, the agent is cooperative. If the opponent was at least one time "
-                + "not cooperative, the agent is from now on not cooperative to that opponent.", condition);
+                + "not cooperative, the agent is from now on not cooperative to that opponent.", condition,
+                new boolean[] {true, false}, AutomatonStrategy.opponentTransitions(new int[] {0, 1}, new int[] {1, 1}));
     }
 
     /**
@@ -270,6 +381,9 @@ public class PureStrategy implements Strategy, java.io.Serializable {
         BiPredicate<AgentPair, SimulationHistory> condition =
                 (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, hist) -> {
                     Agent opponent = pair.getSecondAgent();
+                    InteractionSummary summary = summaryFor(pair, hist);
+                    if (summary != null)
+                        return summary.hasEverCooperated(opponent, pair.getFirstAgent());
                     for (GameResult res : hist.getResultsByAgent(pair.getFirstAgent())) {
                         if (res.hasAgent(opponent) && res.hasCooperated(opponent))
                             return true;
@@ -278,9 +392,10 @@ public class PureStrategy implements Strategy, java.io.Serializable {
 
                 };
 
-        return new PureStrategy("The opponent cooperated at least once", "A player using this strategy will not cooperate first, afterwards he refer to the previous actions of the opponent."
+        return new AutomatonStrategy("The opponent cooperated at least once", "A player using this strategy will not cooperate first, afterwards he refer to the previous actions of the opponent."
                 + " If the opponent previously has one time cooperated with the player, the player is cooperative. If the opponent was never"
-                + " cooperative, the player isn't cooperative to that opponent.", condition);
+                + " cooperative, the player isn't cooperative to that opponent.", condition,
+                new boolean[] {false, true}, AutomatonStrategy.opponentTransitions(new int[] {1, 1}, new int[] {0, 1}));
     }
 
     /**
@@ -292,6 +407,9 @@ public class PureStrategy implements Strategy, java.io.Serializable {
         BiPredicate<AgentPair, SimulationHistory> condition =
                 (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, history) -> {
                     Agent opponent = pair.getSecondAgent();
+                    InteractionSummary summary = summaryFor(pair, history);
+                    if (summary != null)
+                        return opponentCooperatedLastTime(summary, pair);
                     for (GameResult res : history.getResultsByAgent(pair.getFirstAgent())) {
                         if (res.hasAgent(opponent))
                             return res.hasCooperated(opponent);
@@ -299,9 +417,10 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                     return true;
                 };
 
-        return new PureStrategy("The opponent cooperated last time", "A player using this strategy will first cooperate, afterwards he replicate the opponent's previous action."
+        return new AutomatonStrategy("The opponent cooperated last time", "A player using this strategy will first cooperate, afterwards he replicate the opponent's previous action."
                 + " If the opponent previously was cooperative, the player is cooperative. If the opponent previously wasn't cooperative,"
-                + " the player is not cooperative.", condition);
+                + " the player is not cooperative.", condition,
+                new boolean[] {true, false}, AutomatonStrategy.opponentTransitions(new int[] {0, 0}, new int[] {1, 1}));
     }
 
     /**
@@ -313,6 +432,9 @@ public class PureStrategy implements Strategy, java.io.Serializable {
         BiPredicate<AgentPair, SimulationHistory> condition =
                 (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, hist) -> {
                     Agent opponent = pair.getSecondAgent();
+                    InteractionSummary summary = summaryFor(pair, hist);
+                    if (summary != null)
+                        return !summary.hasEverCooperated(opponent, pair.getFirstAgent());
                     for (GameResult res : hist.getResultsByAgent(pair.getFirstAgent())) {
                         if (res.hasAgent(opponent) && res.hasCooperated(opponent))
                             return false;
@@ -320,9 +442,10 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                     return true;
                 };
 
-        return new PureStrategy("The opponent never cooperated", "A player using this strategy will first cooperate, afterwards he refer to the previous actions of the opponent."
+        return new AutomatonStrategy("The opponent never cooperated", "A player using this strategy will first cooperate, afterwards he refer to the previous actions of the opponent."
                 + " If the opponent previously was never cooperative, the player is cooperative. If the opponent was at least one time "
-                + " cooperative, the player is from now on not cooperative to this opponent.", condition);
+                + " cooperative, the player is from now on not cooperative to this opponent.", condition,
+                new boolean[] {true, false}, AutomatonStrategy.opponentTransitions(new int[] {1, 1}, new int[] {0, 1}));
     }
 
     //////////////
@@ -337,6 +460,9 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                 (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, hist) -> {
                     Agent currAgent = pair.getFirstAgent();
                     Agent opponent = pair.getSecondAgent();
+                    InteractionSummary summary = summaryFor(pair, hist);
+                    if (summary != null)
+                        return !summary.hasEverDefected(currAgent, opponent);
                     for (GameResult result : hist.getResultsByAgent(currAgent)) {
                         if (result.hasAgent(opponent) && !result.hasCooperated(currAgent))
                             return false;
@@ -344,9 +470,10 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                     return true;
                 };
 
-        return new PureStrategy("I always cooperated", "A player using this strategy will first cooperate, afterwards he refer to his previous actions."
+        return new AutomatonStrategy("I always cooperated", "A player using this strategy will first cooperate, afterwards he refer to his previous actions."
                 + " If the player previously was always cooperative to this opponent, the player is cooperative. If the player was at least one time "
-                + "not cooperative to this opponent, the player is from now on not cooperative to this opponent.", condition);
+                + "not cooperative to this opponent, the player is from now on not cooperative to this opponent.", condition,
+                new boolean[] {true, false}, AutomatonStrategy.ownTransitions(new int[] {0, 1}, new int[] {1, 1}));
     }
 
     /**
@@ -359,6 +486,9 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                 (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, hist) -> {
                     Agent currAgent = pair.getFirstAgent();
                     Agent opponent = pair.getSecondAgent();
+                    InteractionSummary summary = summaryFor(pair, hist);
+                    if (summary != null)
+                        return summary.hasEverCooperated(currAgent, opponent);
                     for (GameResult result : hist.getResultsByAgent(currAgent)) {
                         if (result.hasAgent(opponent) && result.hasCooperated(currAgent))
                             return true;
@@ -366,9 +496,10 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                     return false;
                 };
 
-        return new PureStrategy("I cooperated at least once", "A player using this strategy will not cooperate first, afterwards he refer to his previous actions."
+        return new AutomatonStrategy("I cooperated at least once", "A player using this strategy will not cooperate first, afterwards he refer to his previous actions."
                 + " If the player previously was at least one time cooperative to this opponent, the player is cooperative. If the player was never "
-                + " cooperative to this opponent, the player is not cooperative to this opponent.", condition);
+                + " cooperative to this opponent, the player is not cooperative to this opponent.", condition,
+                new boolean[] {false, true}, AutomatonStrategy.ownTransitions(new int[] {1, 1}, new int[] {0, 1}));
     }
 
     /**
@@ -381,6 +512,9 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                 (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, hist) -> {
                     Agent currAgent = pair.getFirstAgent();
                     Agent opponent = pair.getSecondAgent();
+                    InteractionSummary summary = summaryFor(pair, hist);
+                    if (summary != null)
+                        return summary.getEncounters(currAgent, opponent) == 0 || summary.cooperatedLastTime(currAgent, opponent);
                     for (GameResult result : hist.getResultsByAgent(currAgent)) {
                         if (result.hasAgent(opponent))
                             return result.hasCooperated(currAgent);
@@ -388,9 +522,10 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                     return true;
                 };
 
-        return new PureStrategy("I cooperated last time", "A player using this strategy will first cooperate, afterwards he refer to his previous action."
+        return new AutomatonStrategy("I cooperated last time", "A player using this strategy will first cooperate, afterwards he refer to his previous action."
                 + " If the player previously was the last time cooperative to this opponent, the player is cooperative. If the player was the last time "
-                + "  not cooperative to this opponent, the player is not cooperative to this opponent.", condition);
+                + "  not cooperative to this opponent, the player is not cooperative to this opponent.", condition,
+                new boolean[] {true, false}, AutomatonStrategy.ownTransitions(new int[] {0, 0}, new int[] {1, 1}));
     }
 
     /**
@@ -403,6 +538,9 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                 (BiPredicate<AgentPair, SimulationHistory> & Serializable) (pair, hist) -> {
                     Agent currAgent = pair.getFirstAgent();
                     Agent opponent = pair.getSecondAgent();
+                    InteractionSummary summary = summaryFor(pair, hist);
+                    if (summary != null)
+                        return !summary.hasEverCooperated(currAgent, opponent);
                     for (GameResult result : hist.getResultsByAgent(currAgent)) {
                         if (result.hasAgent(opponent) && result.hasCooperated(currAgent))
                             return false;
@@ -410,9 +548,10 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                     return true;
                 };
 
-        return new PureStrategy("I never cooperated", "A player using this strategy will first cooperate, afterwards he refer to his previous actions."
+        return new AutomatonStrategy("I never cooperated", "A player using this strategy will first cooperate, afterwards he refer to his previous actions."
                 + " If the player previously was never cooperative to this opponent, the player is cooperative. If the player was at least one time "
-                + " cooperative to this opponent, the player is not cooperative to this opponent.", condition);
+                + " cooperative to this opponent, the player is not cooperative to this opponent.", condition,
+                new boolean[] {true, false}, AutomatonStrategy.ownTransitions(new int[] {1, 1}, new int[] {0, 1}));
     }
 
     ////////////
@@ -428,7 +567,9 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                         pair.getFirstAgent().getCapital() < pair.getSecondAgent().getCapital();
 
         return new PureStrategy("The opponent has a higher capital", "A player using this strategy will be cooperative if the opponent "
-                + "has a higher capital than the player else he won't be cooperative.", condition);
+                + "has a higher capital than the player else he won't be cooperative.", condition,
+                (player, opponent, view) -> view.getAgentStore().getCapital(player) < view.getAgentStore().getCapital(opponent),
+                HistoryRequirement.NONE);
     }
 
     /**
@@ -442,7 +583,9 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                         pair.getFirstAgent().getCapital() > pair.getSecondAgent().getCapital();
 
         return new PureStrategy("The opponent has a lower capital", "A player using this strategy will be cooperative if the opponent "
-                + "has a lower capital than the player else he won't be cooperative.", condition);
+                + "has a lower capital than the player else he won't be cooperative.", condition,
+                (player, opponent, view) -> view.getAgentStore().getCapital(player) > view.getAgentStore().getCapital(opponent),
+                HistoryRequirement.NONE);
     }
 
     /**
@@ -456,7 +599,10 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                         hasSimilarCapital(pair.getFirstAgent(), pair.getSecondAgent(), percentage);
 
         return new PureStrategy("The opponent has a similar capital", "A player using this strategy will be cooperative if the opponent "
-                + "has a similar capital than the player else he won't be cooperative.", condition);
+                + "has a similar capital than the player else he won't be cooperative.", condition,
+                (player, opponent, view) -> hasSimilarCapital(view.getAgentStore().getCapital(player),
+                        view.getAgentStore().getCapital(opponent), percentage),
+                HistoryRequirement.NONE);
     }
 
     //////
@@ -472,7 +618,10 @@ public class PureStrategy implements Strategy, java.io.Serializable {
                         pair.getFirstAgent().isGroupAffiliated(pair.getSecondAgent());
 
         return new PureStrategy("The opponent is in the same group", "A player using this strategy will be cooperative if the opponent "
-                + "is in the same group else the player is not cooperative.", condition);
+                + "is in the same group else the player is not cooperative.", condition,
+                (player, opponent, view) -> player == opponent || (view.getAgentStore().getGroupId(player) != -1
+                        && view.getAgentStore().getGroupId(player) == view.getAgentStore().getGroupId(opponent)),
+                HistoryRequirement.NONE);
     }
 
 
@@ -547,6 +696,31 @@ public class PureStrategy implements Strategy, java.io.Serializable {
     }
 
 
+    private static AgentPair pairOf(int player, int opponent, HistoryView view) {
+        return new ConcreteAgentPair(view.getAgentStore().getAgent(player), view.getAgentStore().getAgent(opponent));
+    }
+
+    /**
+     * Returns the interaction summary of the given history if it covers both agents of the given pair,
+     * {@code null} otherwise.
+     */
+    private static InteractionSummary summaryFor(AgentPair pair, SimulationHistory history) {
+        InteractionSummary summary = history.getInteractionSummary();
+        if (summary != null && summary.covers(pair.getFirstAgent(), pair.getSecondAgent()))
+            return summary;
+        return null;
+    }
+
+    /**
+     * Returns whether the opponent of the given pair cooperated in the last game against the player, or
+     * {@code true} if they never met.
+     */
+    private static boolean opponentCooperatedLastTime(InteractionSummary summary, AgentPair pair) {
+        Agent player = pair.getFirstAgent();
+        Agent opponent = pair.getSecondAgent();
+        return summary.getEncounters(opponent, player) == 0 || summary.cooperatedLastTime(opponent, player);
+    }
+
     private static <T> Stream<T> toStream(T t) {
         List<T> list = new ArrayList<T>();
         list.add(t);
@@ -2,6 +2,8 @@ package loop.model.simulationengine.strategies;
 
 import loop.model.Nameable;
 import loop.model.simulationengine.Agent;
+import loop.model.simulationengine.CooperationScope;
+import loop.model.simulationengine.HistoryRequirement;
 import loop.model.simulationengine.SimulationHistory;
 
 /**
@@ -37,4 +39,24 @@ public interface Strategy extends Nameable {
      * adaption step
      */
     double getCooperationProbability(Agent player, Agent opponent, SimulationHistory history);
+    
+    /**
+     * Returns how much of the history a player using this strategy reads to decide.
+     * By default all games are assumed to be read.
+     * 
+     * @return the history requirement of this strategy
+     */
+    default HistoryRequirement getHistoryRequirement() {
+        return HistoryRequirement.FULL;
+    }
+    
+    /**
+     * Returns what the cooperation probability of a player using this strategy depends on.
+     * By default it may depend on the whole history.
+     * 
+     * @return the cooperation scope of this strategy
+     */
+    default CooperationScope getCooperationScope() {
+        return CooperationScope.HISTORY;
+    }
 }
@@ -1,8 +1,11 @@
 package loop.model.simulationengine.strategy.strategybuilder;
 
 import loop.model.simulationengine.AgentPair;
+import loop.model.simulationengine.HistoryView;
 import loop.model.simulationengine.SimulationHistory;
-import loop.model.simulationengine.strategies.PureStrategy;
+import loop.model.simulationengine.strategies.CompositeStrategy;
+import loop.model.simulationengine.strategies.IndexedCondition;
+import loop.model.simulationengine.strategies.IndexedStrategy;
 import loop.model.simulationengine.strategies.Strategy;
 
 import java.io.Serializable;
@@ -48,57 +51,80 @@ public class ConcreteOperator implements Operator {
     }
 
     public static Operator AND() {
-        Function<List<Strategy>, Strategy> op = (strats) -> new PureStrategy("", "",
+        Function<List<Strategy>, Strategy> op = (strats) -> create(strats, 2,
                         (BiPredicate<AgentPair, SimulationHistory> & Serializable)
                                 (pair, hist) -> strats.get(0).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist) &&
-                                        strats.get(1).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist));
+                                        strats.get(1).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist),
+                        (player, opponent, view) -> first(strats, player, opponent, view) && second(strats, player, opponent, view));
         return new ConcreteOperator(op, 2, "AND", "");
     }
 
     public static Operator OR() {
-        Function<List<Strategy>, Strategy> op = (strats) -> new PureStrategy("", "",
+        Function<List<Strategy>, Strategy> op = (strats) -> create(strats, 2,
                         (BiPredicate<AgentPair, SimulationHistory> & Serializable)
                                 (pair, hist) -> strats.get(0).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist) ||
-                                        strats.get(1).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist));
+                                        strats.get(1).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist),
+                        (player, opponent, view) -> first(strats, player, opponent, view) || second(strats, player, opponent, view));
         return new ConcreteOperator(op, 2, "OR", "");
     }
 
     public static Operator NAND() {
-        Function<List<Strategy>, Strategy> op = (strats) -> new PureStrategy("", "",
+        Function<List<Strategy>, Strategy> op = (strats) -> create(strats, 2,
                         (BiPredicate<AgentPair, SimulationHistory> & Serializable)
                                 (pair, hist) -> !(strats.get(0).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist) &&
-                                        strats.get(1).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist)));
+                                        strats.get(1).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist)),
+                        (player, opponent, view) -> !(first(strats, player, opponent, view) && second(strats, player, opponent, view)));
         return new ConcreteOperator(op, 2, "NAND", "");
     }
 
     public static Operator NOR() {
-        Function<List<Strategy>, Strategy> op = (strats) -> new PureStrategy("", "",
+        Function<List<Strategy>, Strategy> op = (strats) -> create(strats, 2,
                         (BiPredicate<AgentPair, SimulationHistory> & Serializable)
                                 (pair, hist) -> !(strats.get(0).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist) ||
-                                        strats.get(1).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist)));
+                                        strats.get(1).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist)),
+                        (player, opponent, view) -> !(first(strats, player, opponent, view) || second(strats, player, opponent, view)));
         return new ConcreteOperator(op, 2, "NOR", "");
     }
 
     public static Operator XOR() {
-        Function<List<Strategy>, Strategy> op = (strats) -> new PureStrategy("", "",
+        Function<List<Strategy>, Strategy> op = (strats) -> create(strats, 2,
                         (BiPredicate<AgentPair, SimulationHistory> & Serializable)
                                 (pair, hist) -> strats.get(0).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist) ^
-                                        strats.get(1).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist));
+                                        strats.get(1).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist),
+                        (player, opponent, view) -> first(strats, player, opponent, view) ^ second(strats, player, opponent, view));
         return new ConcreteOperator(op, 2, "XOR", "");
     }
 
     public static Operator NOT() {
-        Function<List<Strategy>, Strategy> op = (strats) -> new PureStrategy("", "",
+        Function<List<Strategy>, Strategy> op = (strats) -> create(strats, 1,
                         (BiPredicate<AgentPair, SimulationHistory> & Serializable)
-                                (pair, hist) -> !strats.get(0).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist));
+                                (pair, hist) -> !strats.get(0).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist),
+                        (player, opponent, view) -> !first(strats, player, opponent, view));
         return new ConcreteOperator(op, 1, "NOT", "");
     }
 
     public static Operator IMPLIES() {
-        Function<List<Strategy>, Strategy> op = (strats) -> new PureStrategy("", "",
+        Function<List<Strategy>, Strategy> op = (strats) -> create(strats, 2,
                         (BiPredicate<AgentPair, SimulationHistory> & Serializable)
                                 (pair, hist) -> (!strats.get(0).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist)) ||
-                                        strats.get(1).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist));
+                                        strats.get(1).isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), hist),
+                        (player, opponent, view) -> (!first(strats, player, opponent, view)) || second(strats, player, opponent, view));
         return new ConcreteOperator(op, 2, "IMPLIES", "");
     }
+
+    /**
+     * Creates the combined strategy with the given conditions, which reads what its operands read.
+     */
+    private static Strategy create(List<Strategy> strats, int operandCount, BiPredicate<AgentPair, SimulationHistory> condition,
+                                   IndexedCondition indexedCondition) {
+        return new CompositeStrategy("", "", condition, indexedCondition, strats.subList(0, operandCount));
+    }
+
+    private static boolean first(List<Strategy> strats, int player, int opponent, HistoryView view) {
+        return IndexedStrategy.cooperates(strats.get(0), player, opponent, view);
+    }
+
+    private static boolean second(List<Strategy> strats, int player, int opponent, HistoryView view) {
+        return IndexedStrategy.cooperates(strats.get(1), player, opponent, view);
+    }
 }
@@ -2,10 +2,13 @@ package loop.model.simulationengine.strategy.strategybuilder;
 
 import loop.model.simulationengine.AgentPair;
 import loop.model.simulationengine.SimulationHistory;
-import loop.model.simulationengine.strategies.PureStrategy;
+import loop.model.simulationengine.strategies.CompositeStrategy;
+import loop.model.simulationengine.strategies.IndexedCondition;
+import loop.model.simulationengine.strategies.IndexedStrategy;
 import loop.model.simulationengine.strategies.Strategy;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
@@ -29,9 +32,11 @@ public class StrategyBuilder {
      */
     public static Strategy creatNewStrategy(SyntaxNode root, String name, String description) {
         Strategy rootStrat = buildStrategy(root);
+        if (rootStrat == null) return null;
         BiPredicate<AgentPair, SimulationHistory> condition = (BiPredicate<AgentPair, SimulationHistory> & Serializable)(pair, history) ->
             rootStrat.isCooperative(pair.getFirstAgent(), pair.getSecondAgent(), history);
-        return new PureStrategy(name, description, condition);
+        IndexedCondition indexedCondition = (player, opponent, view) -> IndexedStrategy.cooperates(rootStrat, player, opponent, view);
+        return new CompositeStrategy(name, description, condition, indexedCondition, Collections.singletonList(rootStrat));
     }
 
     // creates an anonymous strategy from a syntax tree
@@ -43,6 +48,7 @@ public class StrategyBuilder {
             List<Strategy> operands = root.getChildren().stream()
                     .map(c -> buildStrategy((SyntaxNode)c))
                     .collect(Collectors.toList());
+            if (operands.contains(null)) return null;
             return op.combineStrategies(operands);
         }
     }
@@ -61,7 +61,8 @@ public class ConcreteIterationResultCreator implements IterationResultCreator {
         engine.getAgents().stream().filter(a -> a.getGroupId() == -1).forEach(
                 a -> groupCapitals.get("Groupless Agents").add(a.getCapital()));
         
-        return new IterationResult(equilibriumReached, efficiency, adapts, strategyNames, strategyPortionsByGroupName, groupCapitals);
+        return new IterationResult(equilibriumReached, efficiency, adapts, strategyNames, strategyPortionsByGroupName, groupCapitals,
+                engine.getSeed(), engine.getEfficiencyError(), engine.getPairWeight());
     }
 
 }
@@ -12,12 +12,14 @@ import loop.model.UserConfiguration;
 import loop.model.plugin.Plugin;
 import loop.model.repository.CentralRepository;
 import loop.model.simulationengine.Configuration;
+import loop.model.simulationengine.EfficiencyMode;
 import loop.model.simulationengine.EngineSegment;
 import loop.model.simulationengine.EquilibriumCriterion;
 import loop.model.simulationengine.Game;
 import loop.model.simulationengine.PairBuilder;
 import loop.model.simulationengine.StrategyAdjuster;
 import loop.model.simulationengine.SuccessQuantifier;
+import loop.model.simulationengine.distributions.RandomSource;
 import loop.model.simulationengine.distributions.UniformFiniteDistribution;
 import loop.model.simulationengine.strategies.Strategy;
 import loop.model.simulator.exception.ConfigurationException;
@@ -27,13 +29,27 @@ import loop.model.simulator.exception.PluginNotFoundException;
  * This class takes a {@link UserConfiguration} and generates all associated
  * elementary configurations. These are returned as {@link Configuration}s. It
  * also provides functionality to create a deep copy of a {@link Configuration}
- * .
+ * and derives the seeds of the iterations from the master seed of the
+ * {@link UserConfiguration}.
  * 
  * @author Peter Koepernik
  *
  */
 public class ConfigurationCreator {
     
+    /**
+     * The minimum amount of agents of an elementary configuration for which the
+     * games of a round are played in parallel.
+     */
+    public static final int PARALLEL_ROUNDS_MIN_AGENTS = 20000;
+    
+    /**
+     * The minimum amount of agents of an elementary configuration for which the
+     * efficiency is computed in parallel, unless the user configuration
+     * specifies an efficiency mode.
+     */
+    public static final int PARALLEL_EFFICIENCY_MIN_AGENTS = 2000;
+    
     private static Game game;
     private static int roundCount;
     private static int iterationCount;
@@ -44,6 +60,8 @@ public class ConfigurationCreator {
     private static StrategyAdjuster strategyAdjuster;
     private static EquilibriumCriterion equilibriumCriterion;
     private static int maxAdapts;
+    private static EfficiencyMode efficiencyMode;
+    private static double efficiencyError;
     
     
 	/**
@@ -63,8 +81,7 @@ public class ConfigurationCreator {
 	    
 	    if (!config.isMulticonfiguration()) { //no multiconfiguration
 	        configureAllExcept(null, config);
-	        configurations.add(new Configuration(game, roundCount, mixedStrategies, engineSegments, pairBuilder,
-	                successQuantifier, strategyAdjuster, equilibriumCriterion, maxAdapts, config.getIterationCount()));
+	        configurations.add(createConfiguration());
 	        return configurations;
 	    }
 	    
@@ -134,6 +151,44 @@ public class ConfigurationCreator {
 	    }
 	}
 	
+	/**
+	 * Returns the seed of the given iteration of the given elementary
+	 * configuration, derived from the given master seed. The seed only depends on
+	 * these three values, not on the order in which iterations are executed.
+	 * 
+	 * @param masterSeed         the master seed of the simulation
+	 * @param configurationIndex the index of the elementary configuration
+	 * @param iterationIndex     the index of the iteration within the elementary
+	 *                           configuration
+	 * @return the seed of the iteration
+	 */
+	public static long iterationSeed(long masterSeed, int configurationIndex, int iterationIndex) {
+	    return RandomSource.deriveSeed(RandomSource.deriveSeed(masterSeed, configurationIndex), iterationIndex);
+	}
+	
+	/**
+	 * Generates the elementary configuration with the given index to the given
+	 * {@link UserConfiguration}, whose iteration draws from a random source with
+	 * the given seed. Together with the seed of an
+	 * {@link loop.model.simulationengine.IterationResult}, this allows to re-run a
+	 * single iteration in isolation.
+	 * 
+	 * @param config             the {@link UserConfiguration}
+	 * @param configurationIndex the index of the elementary configuration
+	 * @param seed               the seed of the iteration
+	 * @return the elementary configuration with the given index and seed
+	 *
+	 * @throws ConfigurationException {@link ConfigurationException} when the
+	 *                                provided configuration is faulty
+	 */
+	public static Configuration generateConfiguration(UserConfiguration config, int configurationIndex, long seed)
+	        throws ConfigurationException {
+	    List<Configuration> configurations = generateConfigurations(config);
+	    if (configurationIndex < 0 || configurationIndex >= configurations.size())
+	        throw new IllegalArgumentException("There is no elementary configuration with index " + configurationIndex + ".");
+	    return configurations.get(configurationIndex).withRandomSource(new RandomSource(seed));
+	}
+	
 	//TODO exceptions schmeien (pluginnotfound und pluginparameter)
 	private static void configureAllExcept(MulticonfigurationParameterType type, UserConfiguration config) {
 	    game = CentralRepository.getInstance().getGameRepository().getEntityByName(config.getGameName());
@@ -155,6 +210,8 @@ public class ConfigurationCreator {
                 .getEntityByName(config.getEquilibriumCriterionName()).getNewInstance(config.getEquilibriumCriterionParameters());
 	    if (type == null || !type.equals(MulticonfigurationParameterType.MAX_ADAPTS))
     	    maxAdapts = config.getMaxAdapts();
+	    efficiencyMode = config.getEfficiencyMode();
+	    efficiencyError = config.getEfficiencyError();
 	    
 	    if (type == null || !(type.equals(MulticonfigurationParameterType.SEGMENT_SIZE) || type.equals(MulticonfigurationParameterType.GROUP_SIZE))) {
 	        //initialise segments
@@ -294,8 +351,14 @@ public class ConfigurationCreator {
 	}
 	
 	private static Configuration createConfiguration() {
+	    int agentCount = engineSegments.stream().mapToInt(seg -> seg.getAgentCount()).sum();
+	    //without a mode given by the user, the efficiency is computed exactly, in parallel for many agents
+	    EfficiencyMode mode = (efficiencyMode != null) ? efficiencyMode
+	            : (agentCount >= PARALLEL_EFFICIENCY_MIN_AGENTS) ? EfficiencyMode.PARALLEL : EfficiencyMode.EXACT;
 	    return new Configuration(game, roundCount, mixedStrategies, engineSegments, pairBuilder,
-                successQuantifier, strategyAdjuster, equilibriumCriterion, maxAdapts, iterationCount);
+                successQuantifier, strategyAdjuster, equilibriumCriterion, maxAdapts, iterationCount)
+	            .withParallelRounds(agentCount >= PARALLEL_ROUNDS_MIN_AGENTS)
+	            .withEfficiencyMode(mode, efficiencyError);
 	}
 	
 	private static class EnginePopulation {
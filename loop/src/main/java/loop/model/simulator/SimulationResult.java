@@ -29,6 +29,7 @@ public class SimulationResult implements Serializable {
     
     private UserConfiguration configuration;
 	private int id;
+	private long seed;
 	private SimulationStatus status;
 	private int totalIterations;
 	private int finishedIterations = 0;
@@ -62,6 +63,7 @@ public class SimulationResult implements Serializable {
 	public SimulationResult(UserConfiguration config, int id) {
 		configuration = config;
 		this.id = id;
+		seed = config.getSeed();
 		iterationResults = new ArrayList<>();
 		exceptions = new ArrayList<>();
 		status = SimulationStatus.QUEUED;
@@ -171,6 +173,16 @@ public class SimulationResult implements Serializable {
 		return configuration;
 	}
 
+	/**
+	 * Returns the master seed of this simulation. The seed of the j-th iteration of the i-th elementary
+	 * configuration is {@link ConfigurationCreator#iterationSeed(long, int, int)} of this seed, i and j.
+	 * 
+	 * @return the master seed of this simulation
+	 */
+	public synchronized long getSeed() {
+		return seed;
+	}
+
 	/**
 	 * Returns the amount of elementary configurations of this simulation (1 if this
 	 * is not a multiconfiguration).
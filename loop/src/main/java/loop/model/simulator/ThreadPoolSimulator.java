@@ -12,12 +12,16 @@ import loop.model.UserConfiguration;
 import loop.model.simulationengine.Configuration;
 import loop.model.simulationengine.IterationResult;
 import loop.model.simulationengine.SimulationEngine;
+import loop.model.simulationengine.distributions.RandomSource;
 import loop.model.simulator.exception.ConfigurationException;
 import loop.model.simulator.exception.SimulationEngineException;
 
 /**
  * An implementation of the {@link Simulator} interface. Executes the iterations
- * in parallel using a thread pool.
+ * in parallel using a thread pool. The random source of every iteration is
+ * seeded with a seed derived from the master seed of the simulation, the index
+ * of its elementary configuration and its index within that configuration, so
+ * the results do not depend on the amount of threads.
  *
  * @author Christian Schorr
  */
@@ -112,8 +116,9 @@ public class ThreadPoolSimulator implements Simulator {
         Future<IterationResult> future = threadPool.submit(() -> {
             ConfigurationBuffer.ConfigNumber configNum = task.getNextConfiguration();
             try {
+                long seed = ConfigurationCreator.iterationSeed(task.simResult.getSeed(), configNum.index, configNum.iteration);
                 SimulationEngine engine = new SimulationEngine();
-                engine.executeIteration(configNum.config);
+                engine.executeIteration(configNum.config.withRandomSource(new RandomSource(seed)));
                 IterationResult result = new ConcreteIterationResultCreator().createIterationResult(engine, task.simResult.getUserConfiguration());
                 task.simResult.addIterationResult(result, configNum.index);
 
@@ -206,6 +211,7 @@ public class ThreadPoolSimulator implements Simulator {
         private Consumer<SimulationResult> finishedHandler;
 
         private int totalIterationsLeft;
+        private ArrayList<Integer> iterationCounts;
         private ArrayList<Integer> iterationsLeft;
         private ArrayList<Future<IterationResult>> runningIterations;
 
@@ -215,11 +221,13 @@ public class ThreadPoolSimulator implements Simulator {
             this.buffer = buffer;
             this.finishedHandler = finishedHandler;
             runningIterations = new ArrayList<>();
+            iterationCounts = new ArrayList<>();
             iterationsLeft = new ArrayList<>();
 
             List<Configuration> configs = buffer.peekAllConfigurations();
             for (Configuration config : configs) {
                 totalIterationsLeft += config.getTotalIterations();
+                iterationCounts.add(config.getTotalIterations());
                 iterationsLeft.add(config.getTotalIterations());
             }
             simResult.setTotalIterations(totalIterationsLeft);
@@ -232,8 +240,9 @@ public class ThreadPoolSimulator implements Simulator {
             totalIterationsLeft--;
             for (int i = 0; i < iterationsLeft.size(); i++) {
                 if (iterationsLeft.get(i) > 0) {
+                    int iteration = iterationCounts.get(i) - iterationsLeft.get(i);
                     iterationsLeft.set(i, iterationsLeft.get(i) - 1);
-                    return buffer.getConfiguration(i);
+                    return buffer.getConfiguration(i, iteration);
                 }
             }
             return null;
@@ -266,7 +275,7 @@ public class ThreadPoolSimulator implements Simulator {
             }
         }
 
-        private synchronized ConfigNumber getConfiguration(int index) throws ConfigurationException {
+        private synchronized ConfigNumber getConfiguration(int index, int iteration) throws ConfigurationException {
             // generate new configuration if buffer is empty (should never happen)
             if (buffer.get(index).isEmpty()) {
                 List<Configuration> configs = ConfigurationCreator.generateConfigurations(config);
@@ -274,7 +283,7 @@ public class ThreadPoolSimulator implements Simulator {
                     buffer.get(j).add(configs.get(j));
                 }
             }
-            return new ConfigNumber(index, buffer.get(index).remove());
+            return new ConfigNumber(index, iteration, buffer.get(index).remove());
         }
 
         private List<Configuration> peekAllConfigurations() {
@@ -283,10 +292,12 @@ public class ThreadPoolSimulator implements Simulator {
 
         private class ConfigNumber {
             private int index;
+            private int iteration;
             private Configuration config;
 
-            private ConfigNumber(int index, Configuration config) {
+            private ConfigNumber(int index, int iteration, Configuration config) {
                 this.index = index;
+                this.iteration = iteration;
                 this.config = config;
             }
         }
@@ -0,0 +1,49 @@
+package loop.plugins.pairbuilder;
+
+import loop.model.plugin.Parameter;
+import loop.model.plugin.ParameterValidator;
+import loop.model.plugin.Plugin;
+import loop.model.simulationengine.CandidateCooperationConsideringPairBuilder;
+import loop.model.simulationengine.PairBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CandidateCooperationConsideringPairBuilderPlugin extends Plugin<PairBuilder> {
+
+    private static final String NAME = "Candidate Cooperation Considering Pair Builder";
+    private static final String DESCRIPTION = "Tries to maximize mutual cooperation probability for each builded pair like the"
+            + " cooperation considering pair builder, but only considers a few randomly sampled candidates for every agent, so"
+            + " it scales to very large populations. The more candidates, the more cooperative the pairs, but the longer it takes.";
+
+    private List<Parameter> parameters = new ArrayList<Parameter>();
+
+    public CandidateCooperationConsideringPairBuilderPlugin() {
+        Parameter candidateCountParameter = new Parameter(1.0, 100.0, 1.0, "candidates",
+                "The amount of candidates considered for every agent. More candidates lead to more cooperative pairs but take more time.");
+        parameters.add(candidateCountParameter);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return DESCRIPTION;
+    }
+
+    @Override
+    public List<Parameter> getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public PairBuilder getNewInstance(List<Double> params) {
+        if (!ParameterValidator.areValuesValid(params, parameters)) {
+            throw new IllegalArgumentException("Invalid parameters given for the creation of a 'candidate coop considering pair builder' object");
+        }
+        return new CandidateCooperationConsideringPairBuilder(params.get(0).intValue());
+    }
+}
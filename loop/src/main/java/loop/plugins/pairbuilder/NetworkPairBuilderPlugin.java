@@ -0,0 +1,57 @@
+package loop.plugins.pairbuilder;
+
+import loop.model.plugin.Parameter;
+import loop.model.plugin.ParameterValidator;
+import loop.model.plugin.Plugin;
+import loop.model.simulationengine.NetworkPairBuilder;
+import loop.model.simulationengine.PairBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NetworkPairBuilderPlugin extends Plugin<PairBuilder> {
+
+    private static final String NAME = "Network Pair Builder";
+    private static final String DESCRIPTION = "Places the agents on an interaction network, e.g. a ring, a lattice, a small world"
+            + " or a scale free network, and only pairs agents that are neighbours in the network. Agents without an unpaired"
+            + " neighbour don't play in that round.";
+
+    private List<Parameter> parameters = new ArrayList<Parameter>();
+
+    public NetworkPairBuilderPlugin() {
+        Parameter topologyParameter = new Parameter(0.0, NetworkPairBuilder.Topology.values().length - 1, 1.0, "topology",
+                "The topology of the network: 0 for a ring, 1 for a lattice, 2 for a small world and 3 for a scale free network.");
+        parameters.add(topologyParameter);
+        Parameter linksParameter = new Parameter(1.0, 20.0, 1.0, "links",
+                "The amount of neighbours on either side of an agent in a ring or small world, or the amount of links of every"
+                + " agent added to a scale free network. Ignored for lattices.");
+        parameters.add(linksParameter);
+        Parameter rewiringParameter = new Parameter(0.0, 1.0, "rewiring probability",
+                "The probability with which a link of a small world is rewired to a random agent. Ignored for other topologies.");
+        parameters.add(rewiringParameter);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return DESCRIPTION;
+    }
+
+    @Override
+    public List<Parameter> getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public PairBuilder getNewInstance(List<Double> params) {
+        if (!ParameterValidator.areValuesValid(params, parameters)) {
+            throw new IllegalArgumentException("Invalid parameters given for the creation of a 'network pair builder' object");
+        }
+        NetworkPairBuilder.Topology topology = NetworkPairBuilder.Topology.values()[params.get(0).intValue()];
+        return new NetworkPairBuilder(topology, params.get(1).intValue(), params.get(2));
+    }
+}
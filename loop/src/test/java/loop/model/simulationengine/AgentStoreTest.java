@@ -0,0 +1,150 @@
+package loop.model.simulationengine;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import loop.model.simulationengine.strategies.MixedStrategy;
+import loop.model.simulationengine.strategies.PureStrategy;
+import loop.model.simulationengine.strategies.Strategy;
+
+/**
+ * This class holds tests for the {@link AgentStore} class.
+ */
+public class AgentStoreTest {
+	Strategy titForTat;
+	Strategy grim;
+	AgentStore store;
+
+	/**
+	 * Creates a store with three agents.
+	 */
+	@Before
+	public void setUp() throws Exception {
+		titForTat = PureStrategy.titForTat();
+		grim = PureStrategy.grim();
+		store = new AgentStore(2);
+		store.addAgent(10, titForTat, 0);
+		store.addAgent(20, grim, 1);
+		store.addAgent(30, titForTat, -1);
+	}
+
+	/**
+	 * Test that agents are views on the store and share the strategy table
+	 */
+	@Test
+	public void testAgentViews() {
+		assertEquals(3, store.size());
+		Agent agent = store.getAgent(1);
+		assertEquals(1, agent.getIndex());
+		assertEquals(20, agent.getCapital());
+		agent.addCapital(5);
+		assertEquals(25, store.getCapital(1));
+		assertEquals(20, store.getInitialCapital(1));
+		assertEquals(1, store.getGroupId(1));
+		assertEquals(2, store.getTableSize());
+		assertEquals(store.getStrategyId(0), store.getStrategyId(2));
+		assertTrue(store.getTableStrategy(store.getStrategyId(1)) == grim);
+	}
+
+	/**
+	 * Test that changing strategies updates the strategy indices
+	 */
+	@Test
+	public void testSetStrategy() {
+		store.getAgent(0).setStrategy(grim);
+		assertEquals(store.getStrategyId(1), store.getStrategyId(0));
+		assertTrue(store.getAgent(0).getStrategy() == grim);
+
+		List<Strategy> components = new ArrayList<Strategy>(Arrays.asList(titForTat, grim));
+		MixedStrategy mixed = new MixedStrategy("mixed", "", components, Arrays.asList(0.5, 0.5));
+		store.setStrategy(2, mixed);
+		assertEquals(-1, store.getStrategyId(2));
+		assertTrue(store.getStrategy(2) == mixed);
+		assertEquals(2, store.getTableSize());
+	}
+
+	/**
+	 * Test that the list of agents is ordered by index and contains the cached views
+	 */
+	@Test
+	public void testAsList() {
+		List<Agent> agents = store.asList();
+		assertEquals(3, agents.size());
+		for (int i = 0; i < agents.size(); i++) {
+			assertTrue(agents.get(i) == store.getAgent(i));
+		}
+		agents.remove(0);
+		assertEquals(3, store.size());
+	}
+
+	/**
+	 * Test that the strategy counters of the groups follow strategy changes
+	 */
+	@Test
+	public void testStrategyCounters() {
+		int titForTatId = store.getStrategyId(0);
+		int grimId = store.getStrategyId(1);
+		assertEquals(1, store.getGroupSize(0));
+		assertEquals(1, store.getGroupSize(-1));
+		assertEquals(0, store.getGroupSize(5));
+		assertEquals(1, store.getStrategyCount(0, titForTatId));
+		assertEquals(0, store.getStrategyCount(0, grimId));
+
+		store.addAgent(40, grim, 0);
+		store.setStrategy(0, grim);
+		assertEquals(2, store.getGroupSize(0));
+		assertEquals(0, store.getStrategyCount(0, titForTatId));
+		assertEquals(2, store.getStrategyCount(0, grimId));
+
+		List<Strategy> components = new ArrayList<Strategy>(Arrays.asList(titForTat, grim));
+		store.setStrategy(0, new MixedStrategy("mixed", "", components, Arrays.asList(0.25, 0.75)));
+		store.setStrategy(3, new MixedStrategy("mixed", "", components, Arrays.asList(0.5, 0.5)));
+		assertEquals(0, store.getStrategyCount(0, grimId));
+		assertEquals(0.75, store.getComponentSum(0, 0), 1e-12);
+		assertEquals(1.25, store.getComponentSum(0, 1), 1e-12);
+
+		store.setStrategy(3, titForTat);
+		assertEquals(0.25, store.getComponentSum(0, 0), 1e-12);
+		assertEquals(0.75, store.getComponentSum(0, 1), 1e-12);
+		assertEquals(1, store.getStrategyCount(0, titForTatId));
+	}
+
+	/**
+	 * Test that interpolating a shared mixed strategy copies it once and keeps the counters up to date
+	 */
+	@Test
+	public void testInterpolateStrategy() {
+		List<Strategy> components = new ArrayList<Strategy>(Arrays.asList(titForTat, grim));
+		MixedStrategy shared = new MixedStrategy("mixed", "", components, Arrays.asList(1.0, 0.0));
+		MixedStrategy target = new MixedStrategy("target", "", components, Arrays.asList(0.0, 1.0));
+		store.setStrategy(0, shared);
+		store.addAgent(40, shared, 0);
+
+		store.interpolateStrategy(0, target, 0.25);
+		MixedStrategy copy = (MixedStrategy) store.getStrategy(0);
+		assertTrue(copy != shared);
+		assertTrue(store.getStrategy(3) == shared);
+		assertEquals(1.0, shared.getProbability(0), 0);
+		assertEquals(0.75, copy.getProbability(0), 1e-12);
+		assertEquals(1.75, store.getComponentSum(0, 0), 1e-12);
+		assertEquals(0.25, store.getComponentSum(0, 1), 1e-12);
+
+		store.interpolateStrategy(0, target, 0.5);
+		assertTrue(store.getStrategy(0) == copy);
+		assertEquals(0.375, copy.getProbability(0), 1e-12);
+		assertEquals(1.375, store.getComponentSum(0, 0), 1e-12);
+		assertEquals(0.625, store.getComponentSum(0, 1), 1e-12);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInterpolatePureStrategy() {
+		List<Strategy> components = new ArrayList<Strategy>(Arrays.asList(titForTat, grim));
+		store.interpolateStrategy(0, new MixedStrategy("target", "", components, Arrays.asList(0.0, 1.0)), 0.5);
+	}
+}
@@ -9,6 +9,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import loop.model.simulationengine.strategies.MixedStrategy;
 import loop.model.simulationengine.strategies.PureStrategy;
 import loop.model.simulationengine.strategies.Strategy;
 
@@ -618,6 +619,44 @@ public class CountingEquilibriumCriterionTest {
 		assertTrue(strategyEquilibrium.isEquilibrium(ranking, simulationHistoryTable));
 	}
 	
+	/**
+	 * Tests the method isEquilibrium with a StrategyEquilibrium and mixed strategies of agents sharing one store.
+	 * With alpha 0.1 and four agents, the halved sum of the strategy distances has to be smaller than 0.4:
+	 * shifting a probability of 0.25 between the components of one agent adds 0.25, so moving two agents
+	 * gives 0.5 and moving one agent gives 0.25.
+	 */
+	@Test
+	public void testIsStrategyEquilibriumMixed() {
+		CountingEquilibriumCriterion strategyEquilibrium = new StrategyEquilibrium(0.1, 1);
+		List<Strategy> components = new ArrayList<Strategy>();
+		components.add(titForTat);
+		components.add(grim);
+		AgentStore store = new AgentStore();
+		for (int i = 0; i < 4; i++) {
+			store.addAgent(0, mixed(components, 0.5), -1);
+		}
+		List<Agent> ranking = store.asList();
+		
+		assertFalse(strategyEquilibrium.isEquilibrium(ranking, simulationHistoryTable));
+		
+		store.setStrategy(0, mixed(components, 0.25));
+		store.setStrategy(1, mixed(components, 0.75));
+		assertFalse(strategyEquilibrium.isEquilibrium(ranking, simulationHistoryTable));
+		
+		store.setStrategy(2, mixed(components, 0.25));
+		assertTrue(strategyEquilibrium.isEquilibrium(ranking, simulationHistoryTable));
+		
+		//a different population resets the criterion
+		assertFalse(strategyEquilibrium.isEquilibrium(copyAgents(agents), simulationHistoryTable));
+	}
+	
+	private Strategy mixed(List<Strategy> components, double first) {
+		List<Double> probabilities = new ArrayList<Double>();
+		probabilities.add(first);
+		probabilities.add(1 - first);
+		return new MixedStrategy("mixed", "", components, probabilities);
+	}
+	
 	/**
 	 * Creates an identical copy of the List of Agents
 	 * @param agents List to copy
@@ -0,0 +1,61 @@
+package loop.model.simulationengine;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import loop.model.simulationengine.strategies.MixedStrategy;
+import loop.model.simulationengine.strategies.PureStrategy;
+import loop.model.simulationengine.strategies.Strategy;
+
+/**
+ * This class holds tests for the {@link HistoryRequirement} class and the requirements declared by the strategies
+ * and components.
+ */
+public class HistoryRequirementTest {
+
+	@Test
+	public void testCombination() {
+		assertEquals(HistoryRequirement.NONE, HistoryRequirement.NONE.and(HistoryRequirement.NONE));
+		assertEquals(HistoryRequirement.SUMMARY, HistoryRequirement.NONE.and(HistoryRequirement.SUMMARY));
+		assertEquals(HistoryRequirement.FULL, HistoryRequirement.lastGames(3).and(HistoryRequirement.FULL));
+		assertEquals(HistoryRequirement.lastGames(5), HistoryRequirement.lastGames(5).and(HistoryRequirement.lastGames(2)));
+
+		HistoryRequirement combined = HistoryRequirement.SUMMARY.and(HistoryRequirement.lastGames(2));
+		assertTrue(combined.needsSummary());
+		assertTrue(combined.needsGames());
+		assertFalse(combined.needsAllGames());
+		assertEquals(2, combined.getDepth());
+
+		assertFalse(HistoryRequirement.NONE.needsGames());
+		assertTrue(HistoryRequirement.FULL.needsAllGames());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPositiveDepth() {
+		HistoryRequirement.lastGames(0);
+	}
+
+	@Test
+	public void testDeclaredRequirements() {
+		assertEquals(HistoryRequirement.NONE, PureStrategy.titForTat().getHistoryRequirement());
+		assertEquals(HistoryRequirement.SUMMARY, PureStrategy.groupTitForTat().getHistoryRequirement());
+		assertEquals(HistoryRequirement.NONE, PureStrategy.opponentHasHigherCapital().getHistoryRequirement());
+		assertEquals(HistoryRequirement.FULL, PureStrategy.groupMemberCooperation(PureStrategy.TimeAdverb.ALWAYS)
+				.getHistoryRequirement());
+
+		List<Strategy> strategies = new ArrayList<Strategy>();
+		strategies.add(PureStrategy.grim());
+		strategies.add(PureStrategy.groupGrim());
+		MixedStrategy mixed = new MixedStrategy("mixed", "", strategies, Arrays.asList(1.0, 0.0));
+		assertEquals(HistoryRequirement.SUMMARY, mixed.getHistoryRequirement());
+
+		assertEquals(HistoryRequirement.NONE, new TotalCapital().getHistoryRequirement());
+		assertEquals(HistoryRequirement.NONE, new RandomCooperationConsideringPairBuilder(0.5).getHistoryRequirement());
+		assertEquals(HistoryRequirement.FULL, new SlidingMean(3).getHistoryRequirement());
+	}
+}
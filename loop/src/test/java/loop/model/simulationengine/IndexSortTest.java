@@ -0,0 +1,57 @@
+package loop.model.simulationengine;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * This class holds tests for the {@link IndexSort} class.
+ */
+public class IndexSortTest {
+
+	/**
+	 * Test that indices are sorted by their keys and ties are broken by the index
+	 */
+	@Test
+	public void testSort() {
+		int[] keys = {5, -3, 5, 0, Integer.MIN_VALUE, Integer.MAX_VALUE};
+		assertArrayEquals(new int[] {4, 1, 3, 0, 2, 5}, IndexSort.ascending(keys));
+		assertArrayEquals(new int[] {5, 0, 2, 3, 1, 4}, IndexSort.descending(keys));
+		assertEquals(0, IndexSort.ascending(new int[0]).length);
+	}
+
+	/**
+	 * Test keys that span more than 2^32 values
+	 */
+	@Test
+	public void testWideKeys() {
+		long[] keys = {Long.MAX_VALUE, 0, Long.MIN_VALUE, 0};
+		assertArrayEquals(new int[] {2, 1, 3, 0}, IndexSort.ascending(keys));
+		assertArrayEquals(new int[] {0, 1, 3, 2}, IndexSort.descending(keys));
+	}
+
+	/**
+	 * Test that the adaptive sort gives the same order as the full sort, for sorted, almost sorted, narrow and
+	 * wide keys
+	 */
+	@Test
+	public void testDescendingAdaptive() {
+		Random random = new Random(3);
+		int n = 2000;
+		long[] sorted = new long[n];
+		long[] almostSorted = new long[n];
+		long[] narrow = new long[n];
+		long[] wide = new long[n];
+		for (int i = 0; i < n; i++) {
+			sorted[i] = 10 * (n - i) / 3;
+			almostSorted[i] = 10 * (n - i) + random.nextInt(40);
+			narrow[i] = random.nextInt(n);
+			wide[i] = random.nextLong();
+		}
+		for (long[] keys : new long[][] {sorted, almostSorted, narrow, wide, {}, {1}}) {
+			assertArrayEquals(IndexSort.descending(keys), IndexSort.descendingAdaptive(keys));
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package loop.model.simulationengine;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import loop.model.simulationengine.distributions.RandomSource;
+
+/**
+ * This class holds tests for the {@link InteractionNetwork} class.
+ */
+public class InteractionNetworkTest {
+
+	/**
+	 * Test that duplicate edges and loops are dropped and the neighbours are sorted
+	 */
+	@Test
+	public void testFromEdges() {
+		InteractionNetwork network = InteractionNetwork.fromEdges(4, new int[] {2, 0, 0, 2, 1, 1, 0, 1, 3, 0}, 5);
+		assertEquals(4, network.getVertexCount());
+		assertEquals(3, network.getEdgeCount());
+		assertEquals(3, network.getDegree(0));
+		assertEquals(1, network.getNeighbour(0, 0));
+		assertEquals(2, network.getNeighbour(0, 1));
+		assertEquals(3, network.getNeighbour(0, 2));
+		assertTrue(network.areAdjacent(2, 0));
+		assertFalse(network.areAdjacent(1, 1));
+		assertFalse(network.areAdjacent(1, 2));
+	}
+
+	/**
+	 * Test the degrees of the generated networks
+	 */
+	@Test
+	public void testGenerators() {
+		InteractionNetwork ring = InteractionNetwork.ring(100, 3);
+		assertEquals(300, ring.getEdgeCount());
+		for (int v = 0; v < 100; v++) {
+			assertEquals(6, ring.getDegree(v));
+			assertTrue(ring.areAdjacent(v, (v + 3) % 100));
+		}
+
+		InteractionNetwork lattice = InteractionNetwork.lattice(100);
+		assertEquals(200, lattice.getEdgeCount());
+		for (int v = 0; v < 100; v++) {
+			assertEquals(4, lattice.getDegree(v));
+		}
+		assertTrue(lattice.areAdjacent(9, 0));
+		assertTrue(lattice.areAdjacent(95, 5));
+
+		RandomSource random = new RandomSource(7);
+		InteractionNetwork smallWorld = InteractionNetwork.smallWorld(1000, 2, 0.2, random);
+		assertEquals(2000, smallWorld.getEdgeCount());
+		assertEquals(100, InteractionNetwork.smallWorld(50, 2, 1.0, random).getEdgeCount());
+		assertEquals(10, InteractionNetwork.smallWorld(5, 2, 1.0, random).getEdgeCount());
+
+		InteractionNetwork scaleFree = InteractionNetwork.scaleFree(1000, 2, random);
+		assertEquals(3 + 2 * 997, scaleFree.getEdgeCount());
+		int maxDegree = 0;
+		for (int v = 0; v < 1000; v++) {
+			assertTrue(scaleFree.getDegree(v) >= 2);
+			maxDegree = Math.max(maxDegree, scaleFree.getDegree(v));
+		}
+		//preferential attachment creates hubs
+		assertTrue(maxDegree > 20);
+	}
+
+	/**
+	 * Test reading an edge list
+	 */
+	@Test
+	public void testRead() throws IOException {
+		InteractionNetwork network = InteractionNetwork.read(new StringReader("# comment\n0 4\n\n 4\t2 \n"));
+		assertEquals(5, network.getVertexCount());
+		assertEquals(2, network.getEdgeCount());
+		assertTrue(network.areAdjacent(4, 2));
+		assertEquals(0, network.getDegree(3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadInvalidLine() throws IOException {
+		InteractionNetwork.read(new StringReader("0 1\n2\n"));
+	}
+}
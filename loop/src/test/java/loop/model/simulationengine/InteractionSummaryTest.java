@@ -0,0 +1,154 @@
+package loop.model.simulationengine;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import loop.model.simulationengine.strategies.PureStrategy;
+import loop.model.simulationengine.strategies.Strategy;
+
+/**
+ * This class holds tests for the {@link InteractionSummary} class.
+ */
+public class InteractionSummaryTest {
+    private Game game = ConcreteGame.prisonersDilemma();
+
+    @Test
+    public void testDenseSummary() {
+        testSummary(10);
+    }
+
+    @Test
+    public void testSparseSummary() {
+        testSummary(InteractionSummary.DENSE_LIMIT + 10);
+    }
+
+    @Test
+    public void testDenseGroupSummary() {
+        testGroupSummary(0);
+    }
+
+    @Test
+    public void testSparseGroupSummary() {
+        //enough agents in a further group to exceed the dense limit of pairs of agents and groups
+        testGroupSummary(InteractionSummary.DENSE_LIMIT * InteractionSummary.DENSE_LIMIT / 16);
+    }
+
+    /**
+     * Plays random games between agents of several groups and checks the group aggregates and the decisions of
+     * the group strategies against a history that doesn't maintain a summary. The given amount of further agents
+     * belongs to group 15 and doesn't play.
+     */
+    private void testGroupSummary(int idleAgents) {
+        AgentStore store = new AgentStore();
+        Strategy alwaysCooperate = PureStrategy.alwaysCooperate();
+        for (int i = 0; i < 12; i++) {
+            store.addAgent(0, alwaysCooperate, i % 4 - 1);
+        }
+        for (int i = 0; i < idleAgents; i++) {
+            store.addAgent(0, alwaysCooperate, 15);
+        }
+        SimulationHistoryBuffer history = new SimulationHistoryBuffer(store, game);
+        history.enableInteractionSummary();
+        SimulationHistory plainHistory = new SimulationHistoryTable();
+        InteractionSummary summary = history.getInteractionSummary();
+
+        Agent ungrouped = store.getAgent(0);
+        Agent grouped = store.getAgent(1);
+        assertFalse(summary.coversGroup(grouped, ungrouped));
+        assertTrue(summary.coversGroup(ungrouped, grouped));
+        assertEquals(0, summary.getGroupEncounters(ungrouped, grouped));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 300; i++) {
+            Agent p1 = store.getAgent(random.nextInt(12));
+            Agent p2 = store.getAgent(random.nextInt(12));
+            if (p1 == p2) continue;
+            GameResult result = game.play(p1, p2, random.nextInt(4) > 0, random.nextInt(4) > 0);
+            history.addResult(result);
+            plainHistory.addResult(result);
+        }
+
+        Strategy groupTitForTat = PureStrategy.groupTitForTat();
+        Strategy groupGrim = PureStrategy.groupGrim();
+        for (int i = 0; i < 12; i++) {
+            for (int j = 0; j < 12; j++) {
+                Agent player = store.getAgent(i);
+                Agent opponent = store.getAgent(j);
+                if (player.getGroupId() >= 0) {
+                    assertEquals(history.getResultsByAgent(opponent).stream()
+                            .filter(r -> r.getOtherAgent(opponent).isGroupAffiliated(player)).count(),
+                            summary.getGroupEncounters(opponent, player));
+                }
+                assertEquals(groupTitForTat.isCooperative(player, opponent, plainHistory),
+                        groupTitForTat.isCooperative(player, opponent, history));
+                assertEquals(groupGrim.isCooperative(player, opponent, plainHistory),
+                        groupGrim.isCooperative(player, opponent, history));
+            }
+        }
+
+        history.reset();
+        assertEquals(0, summary.getGroupEncounters(ungrouped, grouped));
+        assertFalse(summary.hasEverDefectedAgainstGroup(ungrouped, grouped));
+    }
+
+    /**
+     * Plays random games and checks the summary as well as the decisions of memory based strategies
+     * against a history that doesn't maintain a summary.
+     */
+    private void testSummary(int agentCount) {
+        AgentStore store = new AgentStore();
+        for (int i = 0; i < agentCount; i++) {
+            store.addAgent(0, PureStrategy.alwaysCooperate(), -1);
+        }
+        SimulationHistoryBuffer history = new SimulationHistoryBuffer(store, game);
+        history.enableInteractionSummary();
+        SimulationHistory plainHistory = new SimulationHistoryTable();
+        InteractionSummary summary = history.getInteractionSummary();
+
+        Agent a = store.getAgent(0);
+        Agent b = store.getAgent(agentCount - 1);
+        assertTrue(summary.covers(a, b));
+        assertEquals(0, summary.getEncounters(a, b));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            Agent p1 = store.getAgent(random.nextInt(3));
+            Agent p2 = store.getAgent(agentCount - 1 - random.nextInt(3));
+            GameResult result = game.play(p1, p2, random.nextBoolean(), random.nextBoolean());
+            history.addResult(result);
+            plainHistory.addResult(result);
+        }
+
+        List<Strategy> strategies = new ArrayList<Strategy>();
+        strategies.add(PureStrategy.titForTat());
+        strategies.add(PureStrategy.grim());
+        strategies.add(PureStrategy.opponentCooperatedAtLeastOnce());
+        strategies.add(PureStrategy.opponentCooperatedNever());
+        strategies.add(PureStrategy.currAgentAlwaysCooperated());
+        strategies.add(PureStrategy.currAgentCooperatedLastTime());
+        strategies.add(PureStrategy.currAgentCooperatedNever());
+        for (int i = 0; i < 4; i++) {
+            for (int j = agentCount - 4; j < agentCount; j++) {
+                Agent player = store.getAgent(i);
+                Agent opponent = store.getAgent(j);
+                assertEquals(history.getResultsByAgent(player).stream().filter(r -> r.hasAgent(opponent)).count(),
+                        summary.getEncounters(player, opponent));
+                for (Strategy strategy: strategies) {
+                    assertEquals(strategy.getName(), strategy.isCooperative(player, opponent, plainHistory),
+                            strategy.isCooperative(player, opponent, history));
+                    assertEquals(strategy.getName(), strategy.isCooperative(opponent, player, plainHistory),
+                            strategy.isCooperative(opponent, player, history));
+                }
+            }
+        }
+
+        history.reset();
+        assertEquals(0, summary.getEncounters(a, store.getAgent(agentCount - 1)));
+        assertFalse(summary.hasEverCooperated(a, store.getAgent(agentCount - 1)));
+    }
+}
@@ -2,14 +2,23 @@ package loop.model.simulationengine;
 
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import loop.model.simulationengine.distributions.RandomSource;
+import loop.model.simulationengine.strategies.PureStrategy;
+import loop.model.simulationengine.strategies.Strategy;
+
 /**
  * This class holds tests for implementations of the {@link PairBuilder} interface.
  * 
@@ -47,6 +56,221 @@ public class PairBuilderTest {
         PairBuilder randomCoopConsideringPairBuilder = new RandomCooperationConsideringPairBuilder(randomness);
         testPairingValidOnEmptyHistory(randomCoopConsideringPairBuilder);
         testPairingValidOnNonEmptyHistory(randomCoopConsideringPairBuilder);
+        
+        //candidate cooperation considering pair builder
+        PairBuilder candidatePairBuilder = new CandidateCooperationConsideringPairBuilder(5);
+        testPairingValidOnEmptyHistory(candidatePairBuilder);
+        testPairingValidOnNonEmptyHistory(candidatePairBuilder);
+    }
+    
+    /**
+     * Tests that the {@link CandidateCooperationConsideringPairBuilder} builds pairs nearly as cooperative as the
+     * {@link CooperationConsideringPairBuilder} if cooperative partners are common enough to be sampled.
+     */
+    @Test
+    public void testCandidatePairBuilderQuality() {
+        //agents only cooperate with agents of their own group
+        AgentStore store = new AgentStore();
+        for (int i = 0; i < 200; i++) {
+            store.addAgent(0, PureStrategy.opponentIsInTheSameGroup(), i % 4);
+        }
+        List<Agent> agents = store.asList();
+        SimulationHistory history = new SimulationHistoryTable();
+        
+        RandomSource.bind(new RandomSource(7));
+        CooperationConsideringPairBuilder exactPairBuilder = new CooperationConsideringPairBuilder();
+        List<AgentPair> exactPairs = exactPairBuilder.buildPairs(agents, history);
+        CandidateCooperationConsideringPairBuilder candidatePairBuilder = new CandidateCooperationConsideringPairBuilder(3);
+        assertTrue(Double.isNaN(candidatePairBuilder.getAchievedWeight(history)));
+        List<AgentPair> candidatePairs = candidatePairBuilder.buildPairs(agents, history);
+        RandomPairBuilder randomPairBuilder = new RandomPairBuilder();
+        List<AgentPair> randomPairs = randomPairBuilder.buildPairs(agents, history);
+        RandomSource.bind(null);
+        
+        double exactWeight = CandidateCooperationConsideringPairBuilder.getTotalWeight(exactPairs, history);
+        double candidateWeight = CandidateCooperationConsideringPairBuilder.getTotalWeight(candidatePairs, history);
+        assertEquals(exactWeight, exactPairBuilder.getAchievedWeight(history), 1e-9);
+        assertEquals(candidateWeight, candidatePairBuilder.getAchievedWeight(history), 1e-9);
+        assertTrue(Double.isNaN(randomPairBuilder.getAchievedWeight(history)));
+        assertTrue(candidateWeight >= 0.8 * exactWeight);
+        assertTrue(candidateWeight > CandidateCooperationConsideringPairBuilder.getTotalWeight(randomPairs, history));
+    }
+    
+    /**
+     * Tests that the {@link RandomPairBuilder} pairs every agent of a large population exactly once.
+     */
+    @Test
+    public void testRandomPairingOfLargePopulation() {
+        AgentStore store = new AgentStore();
+        Strategy strategy = PureStrategy.alwaysCooperate();
+        for (int i = 0; i < 200001; i++) {
+            store.addAgent(0, strategy, -1);
+        }
+        List<AgentPair> pairs = new RandomPairBuilder().buildPairs(store.asList(), new SimulationHistoryTable());
+        assertEquals(100000, pairs.size());
+        boolean[] paired = new boolean[store.size()];
+        for (AgentPair pair: pairs) {
+            assertFalse(paired[pair.getFirstAgent().getIndex()]);
+            paired[pair.getFirstAgent().getIndex()] = true;
+            assertFalse(paired[pair.getSecondAgent().getIndex()]);
+            paired[pair.getSecondAgent().getIndex()] = true;
+        }
+    }
+    
+    /**
+     * Tests that the {@link NetworkPairBuilder} builds maximal matchings of generated networks and keeps the network
+     * of a history.
+     */
+    @Test
+    public void testNetworkPairBuilder() {
+        AgentStore store = new AgentStore();
+        Strategy strategy = PureStrategy.alwaysCooperate();
+        for (int i = 0; i < 1000; i++) {
+            store.addAgent(0, strategy, -1);
+        }
+        List<Agent> agents = store.asList();
+        for (NetworkPairBuilder.Topology topology: NetworkPairBuilder.Topology.values()) {
+            NetworkPairBuilder pairBuilder = new NetworkPairBuilder(topology, 2, 0.1);
+            SimulationHistory history = new SimulationHistoryTable();
+            List<AgentPair> pairs = pairBuilder.buildPairs(agents, history);
+            InteractionNetwork network = pairBuilder.getNetwork(history);
+            assertEquals(agents.size(), network.getVertexCount());
+            testNetworkPairing(pairs, agents, network, pairBuilder, history);
+
+            //the network is kept for the history, even if the agents are reordered
+            List<Agent> shuffledAgents = new ArrayList<Agent>(agents);
+            Collections.shuffle(shuffledAgents, new Random(3));
+            pairs = pairBuilder.buildPairs(shuffledAgents, history);
+            assertSame(network, pairBuilder.getNetwork(history));
+            testNetworkPairing(pairs, agents, network, pairBuilder, history);
+        }
+    }
+
+    /**
+     * Tests the {@link NetworkPairBuilder} with a network read from an edge list and agents that don't share a store.
+     */
+    @Test
+    public void testNetworkPairBuilderWithGivenNetwork() throws IOException {
+        InteractionNetwork network = InteractionNetwork.read(new StringReader("# a path\n0 1\n1 2\n\n2 3\n"));
+        assertEquals(4, network.getVertexCount());
+        List<Agent> agents = new ArrayList<Agent>();
+        for (int i = 0; i < 6; i++) {
+            agents.add(new Agent(0, PureStrategy.alwaysCooperate(), -1));
+        }
+        NetworkPairBuilder pairBuilder = new NetworkPairBuilder(network);
+        for (int i = 0; i < 20; i++) {
+            SimulationHistory history = new SimulationHistoryTable();
+            List<AgentPair> pairs = pairBuilder.buildPairs(agents, history);
+            for (AgentPair pair: pairs) {
+                int first = agents.indexOf(pair.getFirstAgent());
+                int second = agents.indexOf(pair.getSecondAgent());
+                assertEquals(1, Math.abs(first - second));
+                assertTrue(first < 4 && second < 4);
+            }
+            //a maximal matching of a path of four vertices contains the middle edge or both outer edges
+            assertTrue(pairs.size() == 2 || agents.indexOf(pairs.get(0).getFirstAgent()) % 2 == 1
+                    || agents.indexOf(pairs.get(0).getSecondAgent()) % 2 == 1);
+            assertEquals(-1, pairBuilder.getVertex(history, new Agent(0, PureStrategy.alwaysCooperate(), -1)));
+        }
+    }
+
+    private void testNetworkPairing(List<AgentPair> pairs, List<Agent> agents, InteractionNetwork network,
+            NetworkPairBuilder pairBuilder, SimulationHistory history) {
+        boolean[] paired = new boolean[agents.size()];
+        for (AgentPair pair: pairs) {
+            int first = pairBuilder.getVertex(history, pair.getFirstAgent());
+            int second = pairBuilder.getVertex(history, pair.getSecondAgent());
+            assertTrue(network.areAdjacent(first, second));
+            assertFalse(paired[first]);
+            assertFalse(paired[second]);
+            paired[first] = true;
+            paired[second] = true;
+        }
+
+        //no two unpaired agents are neighbours
+        for (int v = 0; v < network.getVertexCount(); v++) {
+            for (int i = 0; !paired[v] && i < network.getDegree(v); i++) {
+                assertTrue(paired[network.getNeighbour(v, i)]);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCandidatePairBuilderWithoutCandidates() {
+        new CandidateCooperationConsideringPairBuilder(0);
+    }
+    
+    /**
+     * Tests that the {@link CooperationConsideringPairBuilder}, which only recomputes the weights of pairs that may
+     * have changed, builds the same pairs in every round as a new pair builder that computes all weights, for
+     * strategies of every {@link CooperationScope}.
+     */
+    @Test
+    public void testIncrementalCooperationConsideringPairBuilder() {
+        testIncrementalPairing(PureStrategy.titForTat(), PureStrategy.grim(), PureStrategy.neverCooperate());
+        testIncrementalPairing(PureStrategy.titForTat(), PureStrategy.opponentHasLowerCapital(),
+                PureStrategy.groupTitForTat());
+        testIncrementalPairing(PureStrategy.grim(), PureStrategy.groupMemberCooperation(PureStrategy.TimeAdverb.LASTTIME));
+    }
+    
+    private void testIncrementalPairing(Strategy... strategies) {
+        AgentStore store = new AgentStore();
+        for (int i = 0; i < 41; i++) {
+            store.addAgent(100, strategies[i % strategies.length], i % 3 - 1);
+        }
+        Game game = ConcreteGame.prisonersDilemma();
+        SimulationHistoryBuffer history = new SimulationHistoryBuffer(store, game);
+        history.enableInteractionSummary();
+        CooperationConsideringPairBuilder pairBuilder = new CooperationConsideringPairBuilder();
+        List<Agent> agents = new ArrayList<Agent>(store.asList());
+        Random random = new Random(3);
+        
+        for (int round = 0; round < 30; round++) {
+            if (round == 10) store.setStrategy(4, PureStrategy.alwaysCooperate());
+            if (round == 20) history.reset();
+            Collections.shuffle(agents, random);
+            
+            RandomSource.bind(new RandomSource(round));
+            List<AgentPair> pairs = pairBuilder.buildPairs(agents, history);
+            RandomSource.bind(new RandomSource(round));
+            List<AgentPair> expectedPairs = new CooperationConsideringPairBuilder().buildPairs(agents, history);
+            RandomSource.bind(null);
+            
+            for (Agent a1: agents) {
+                for (Agent a2: agents) {
+                    if (a1 == a2) continue;
+                    double weight = a1.getStrategy().getCooperationProbability(a1, a2, history)
+                            + a2.getStrategy().getCooperationProbability(a2, a1, history);
+                    assertEquals(weight, pairBuilder.getWeight(history, a1, a2), 0);
+                }
+            }
+            assertEquals(expectedPairs.size(), pairs.size());
+            for (int i = 0; i < pairs.size(); i++) {
+                assertSame(expectedPairs.get(i).getFirstAgent(), pairs.get(i).getFirstAgent());
+                assertSame(expectedPairs.get(i).getSecondAgent(), pairs.get(i).getSecondAgent());
+            }
+            
+            //capitals may also change without games
+            if (round == 15) {
+                store.addCapital(7, 50);
+                continue;
+            }
+            
+            //not every pair plays, and some agents play several games
+            List<AgentPair> games = new ArrayList<AgentPair>();
+            for (AgentPair pair: pairs) {
+                if (random.nextInt(4) > 0) games.add(pair);
+            }
+            for (int i = 0; i < 3; i++) {
+                games.add(new ConcreteAgentPair(store.getAgent(random.nextInt(20)), store.getAgent(20 + random.nextInt(21))));
+            }
+            for (AgentPair pair: games) {
+                Agent p1 = pair.getFirstAgent();
+                Agent p2 = pair.getSecondAgent();
+                history.addResult(game.play(p1, p2, p1.getStrategy().isCooperative(p1, p2, history),
+                        p2.getStrategy().isCooperative(p2, p1, history)));
+            }
+        }
     }
     
     private void testPairingValidOnEmptyHistory(PairBuilder pairBuilder) {
@@ -0,0 +1,67 @@
+package loop.model.simulationengine;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import loop.model.simulationengine.strategies.PureStrategy;
+
+/**
+ * This class holds tests for the {@link Ranking} class.
+ */
+public class RankingTest {
+
+	/**
+	 * Test that the rank of an agent is its position in the ranked list, for agents of one store
+	 */
+	@Test
+	public void testRanksOfSharedStore() {
+		List<Agent> agents = TestUtility.getStandardAgents(50, false);
+		List<Agent> ordered = new ArrayList<Agent>(agents);
+		Collections.reverse(ordered);
+		Ranking ranking = new Ranking(ordered);
+		assertFalse(ranking.hasScores());
+		assertEquals(50, ranking.size());
+		for (int i = 0; i < ordered.size(); i++) {
+			assertEquals(i, ranking.getRank(ordered.get(i)));
+		}
+	}
+
+	/**
+	 * Test that agents with stores of their own are ranked as well
+	 */
+	@Test
+	public void testRanksOfSeparateAgents() {
+		List<Agent> agents = new ArrayList<Agent>();
+		for (int i = 0; i < 5; i++) {
+			agents.add(new Agent(i, PureStrategy.titForTat(), 0));
+		}
+		Ranking ranking = new Ranking(agents);
+		for (int i = 0; i < agents.size(); i++) {
+			assertEquals(i, ranking.getRank(agents.get(i)));
+		}
+	}
+
+	/**
+	 * Test that agents are sorted by descending score, ties keeping their order
+	 */
+	@Test
+	public void testByDescendingScore() {
+		List<Agent> agents = TestUtility.getStandardAgents(4, false);
+		List<Agent> list = new ArrayList<Agent>(agents);
+		Ranking ranking = Ranking.byDescendingScore(list, new long[] {3, 7, 3, -1});
+		assertTrue(ranking.getAgents() == list);
+		assertTrue(list.get(0) == agents.get(1));
+		assertTrue(list.get(1) == agents.get(0));
+		assertTrue(list.get(2) == agents.get(2));
+		assertTrue(list.get(3) == agents.get(3));
+		assertTrue(ranking.hasScores());
+		assertEquals(7, ranking.getScore(0));
+		assertEquals(-1, ranking.getScore(3));
+		assertEquals(2, ranking.getRank(agents.get(2)));
+	}
+}
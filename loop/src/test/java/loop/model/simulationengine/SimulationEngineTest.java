@@ -11,9 +11,13 @@ import org.junit.Test;
 
 import loop.model.simulationengine.distributions.DiscreteDistribution;
 import loop.model.simulationengine.distributions.DiscreteUniformDistribution;
+import loop.model.simulationengine.distributions.RandomSource;
 import loop.model.simulationengine.distributions.UniformFiniteDistribution;
 import loop.model.simulationengine.strategies.PureStrategy;
 import loop.model.simulationengine.strategies.Strategy;
+import loop.model.simulationengine.strategy.strategybuilder.ConcreteOperator;
+import loop.model.simulationengine.strategy.strategybuilder.StrategyBuilder;
+import loop.model.simulationengine.strategy.strategybuilder.SyntaxNode;
 
 /**
  * This class holds tests for the simulaiton engine.
@@ -124,4 +128,151 @@ public class SimulationEngineTest {
         */
     }
     
+    /**
+     * Tests that two iterations to configurations with equally seeded random sources give identical results.
+     */
+    @Test
+    public void testSeededIterationIsReproducible() {
+        SimulationEngine first = runSeeded(42);
+        SimulationEngine second = runSeeded(42);
+        assertEquals(first.getAdapts(), second.getAdapts());
+        assertEquals(first.getEfficiency(), second.getEfficiency(), 0);
+        List<double[]> firstPortions = first.getStrategyPortions().get(-1);
+        List<double[]> secondPortions = second.getStrategyPortions().get(-1);
+        assertEquals(firstPortions.size(), secondPortions.size());
+        for (int i = 0; i < firstPortions.size(); i++) {
+            assertArrayEquals(firstPortions.get(i), secondPortions.get(i), 0);
+        }
+    }
+    
+    @Test
+    public void testIterationCanBeRerunFromItsSeed() {
+        SimulationEngine first = runSeeded(7);
+        assertEquals(7, first.getSeed());
+        SimulationEngine second = runSeeded(first.getSeed());
+        assertEquals(first.getAdapts(), second.getAdapts());
+        assertEquals(first.getEfficiency(), second.getEfficiency(), 0);
+    }
+    
+    @Test
+    public void testParallelRoundsMatchSequentialRounds() {
+        //pairwise pure strategies do not draw random numbers and the pairs of a round are disjoint
+        SimulationEngine sequential = runSeeded(11, 2500, false);
+        SimulationEngine parallel = runSeeded(11, 2500, true);
+        assertEquals(sequential.getAdapts(), parallel.getAdapts());
+        assertEquals(sequential.getEfficiency(), parallel.getEfficiency(), 0);
+        List<double[]> sequentialPortions = sequential.getStrategyPortions().get(-1);
+        List<double[]> parallelPortions = parallel.getStrategyPortions().get(-1);
+        for (int i = 0; i < sequentialPortions.size(); i++) {
+            assertArrayEquals(sequentialPortions.get(i), parallelPortions.get(i), 0);
+        }
+    }
+    
+    @Test
+    public void testEfficiencyModes() {
+        Configuration configuration = seededConfiguration(5, 200);
+        SimulationEngine exact = run(configuration);
+        SimulationEngine parallel = run(configuration.withEfficiencyMode(EfficiencyMode.PARALLEL, 0));
+        SimulationEngine sampled = run(configuration.withEfficiencyMode(EfficiencyMode.SAMPLED, 0.01));
+        
+        assertEquals(exact.getAdapts(), parallel.getAdapts());
+        assertEquals(exact.getAdapts(), sampled.getAdapts());
+        assertEquals(exact.getEfficiency(), parallel.getEfficiency(), 1e-12);
+        assertEquals(0, exact.getEfficiencyError(), 0);
+        assertEquals(0, parallel.getEfficiencyError(), 0);
+        assertTrue(sampled.getEfficiencyError() <= 0.01);
+        assertEquals(exact.getEfficiency(), sampled.getEfficiency(), 6 * 0.01);
+    }
+    
+    @Test
+    public void testSampledEfficiencyOfSmallPopulations() {
+        //few pairs are evaluated exactly, a single agent has no efficiency
+        Configuration configuration = seededConfiguration(5, 10);
+        SimulationEngine sampled = run(configuration.withEfficiencyMode(EfficiencyMode.SAMPLED, 0.01));
+        assertEquals(run(configuration).getEfficiency(), sampled.getEfficiency(), 1e-12);
+        assertEquals(0, sampled.getEfficiencyError(), 0);
+        
+        //agents never consider changing their strategy, as a single agent has no one to imitate
+        configuration = seededConfiguration(5, 1);
+        configuration = new Configuration(configuration.getGame(), 20, false, configuration.getSegments(),
+                new RandomPairBuilder(), new PayoffInLastAdapt(), new ReplicatorDynamic(0.0, 0.5),
+                new StrategyEquilibrium(0.005, 50), 3, 1, new RandomSource(5));
+        sampled = run(configuration.withEfficiencyMode(EfficiencyMode.SAMPLED, 0.01));
+        assertTrue(Double.isNaN(sampled.getEfficiency()));
+    }
+    
+    @Test
+    public void testCompositeOverAutomatonMatchesTheAutomaton() {
+        //the composite decides like tit for tat, which must be evaluated on a history that covers it
+        Strategy titForTat = PureStrategy.titForTat();
+        SyntaxNode root = new SyntaxNode(null, ConcreteOperator.OR());
+        root.insertNode(new SyntaxNode(titForTat, null));
+        root.insertNode(new SyntaxNode(PureStrategy.neverCooperate(), null));
+        Strategy composite = StrategyBuilder.creatNewStrategy(root, "tit for tat or never", "");
+        
+        SimulationEngine plain = run(seededConfiguration(13, 200, titForTat));
+        SimulationEngine built = run(seededConfiguration(13, 200, composite));
+        assertEquals(plain.getAdapts(), built.getAdapts());
+        assertEquals(plain.getEfficiency(), built.getEfficiency(), 0);
+        List<double[]> plainPortions = plain.getStrategyPortions().get(-1);
+        List<double[]> builtPortions = built.getStrategyPortions().get(-1);
+        for (int i = 0; i < plainPortions.size(); i++) {
+            assertArrayEquals(plainPortions.get(i), builtPortions.get(i), 0);
+        }
+    }
+    
+    @Test
+    public void testPairWeightOfWeighingPairBuilders() {
+        Configuration configuration = seededConfiguration(17, 40);
+        assertTrue(Double.isNaN(run(configuration).getPairWeight()));
+        
+        for (PairBuilder pairBuilder: new PairBuilder[] {new CooperationConsideringPairBuilder(),
+                new CandidateCooperationConsideringPairBuilder(3)}) {
+            Configuration weighing = new Configuration(configuration.getGame(), 20, false, configuration.getSegments(),
+                    pairBuilder, new PayoffInLastAdapt(), new ReplicatorDynamic(0.5, 0.5),
+                    new StrategyEquilibrium(0.005, 50), 30, 1, new RandomSource(17));
+            double pairWeight = run(weighing).getPairWeight();
+            //every agent of the 20 pairs contributes a cooperation probability of at most 1
+            assertTrue(pairWeight > 0 && pairWeight <= 40);
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testSampledEfficiencyNeedsPositiveError() {
+        seededConfiguration(5, 10).withEfficiencyMode(EfficiencyMode.SAMPLED, 0);
+    }
+    
+    private SimulationEngine runSeeded(long seed) {
+        return runSeeded(seed, 30, false);
+    }
+    
+    private SimulationEngine runSeeded(long seed, int agentCount, boolean parallelRounds) {
+        return run(seededConfiguration(seed, agentCount).withParallelRounds(parallelRounds));
+    }
+    
+    private SimulationEngine run(Configuration configuration) {
+        SimulationEngine engine = new SimulationEngine();
+        engine.executeIteration(configuration);
+        return engine;
+    }
+    
+    private Configuration seededConfiguration(long seed, int agentCount) {
+        return seededConfiguration(seed, agentCount, PureStrategy.titForTat());
+    }
+    
+    private Configuration seededConfiguration(long seed, int agentCount, Strategy thirdStrategy) {
+        UniformFiniteDistribution<Strategy> strategyDistribution = new UniformFiniteDistribution<Strategy>();
+        strategyDistribution.addObject(PureStrategy.alwaysCooperate());
+        strategyDistribution.addObject(PureStrategy.neverCooperate());
+        strategyDistribution.addObject(thirdStrategy);
+        strategyDistribution.addObject(PureStrategy.grim());
+        List<EngineSegment> segments = new ArrayList<EngineSegment>();
+        segments.add(new EngineSegment(agentCount, -1, new DiscreteUniformDistribution(0, 10), strategyDistribution));
+        
+        Configuration configuration = new Configuration(ConcreteGame.prisonersDilemma(), 20, false, segments,
+                new RandomPairBuilder(), new PayoffInLastAdapt(), new ReplicatorDynamic(0.5, 0.5),
+                new StrategyEquilibrium(0.005, 50), 30, 1, new RandomSource(seed));
+        return configuration;
+    }
+
 }
@@ -0,0 +1,231 @@
+package loop.model.simulationengine;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import loop.model.simulationengine.strategies.PureStrategy;
+import loop.model.simulationengine.strategies.Strategy;
+
+/**
+ * This class holds tests for the {@link SimulationHistoryBuffer} class.
+ */
+public class SimulationHistoryBufferTest {
+    private Game game = ConcreteGame.prisonersDilemma();
+    private AgentStore store;
+    private Agent player1, player2, player3;
+    private SimulationHistoryBuffer history;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new AgentStore();
+        player1 = store.addAgent(0, PureStrategy.alwaysCooperate(), 1);
+        player2 = store.addAgent(0, PureStrategy.titForTat(), 1);
+        player3 = store.addAgent(0, PureStrategy.grim(), 2);
+        history = new SimulationHistoryBuffer(store, game);
+        history.addResult(game.play(player1, player2, true, true));
+        history.addResult(game.play(player1, player3, true, false));
+        history.addResult(game.play(player3, player2, false, false));
+    }
+
+    @Test
+    public void testQueries() {
+        assertEquals(3, history.getAllResults().size());
+        assertEquals(2, history.getResultsByAgent(player1).size());
+        //agent1 and agent2 play 2 games each
+        assertEquals(4, history.getResultsByGroup(player1).size());
+
+        history.addResult(game.play(player1, player2, true, false));
+        assertEquals(2, history.getLatestResults().size());
+        assertTrue(history.getLatesResultsByAgent(player1).getOtherAgent(player1) == player2);
+        assertFalse(history.getLatesResultsByAgent(player1).hasCooperated(player2));
+        assertEquals(2, history.getLatestResultsByGroup(player1).size());
+        assertEquals(3, history.getAllWhere(result -> result.hasCooperated(player1)).size());
+        assertEquals(3, history.getAgents().size());
+
+        history.reset();
+        assertEquals(0, history.getAllResults().size());
+        assertEquals(0, history.getResultsByAgent(player1).size());
+        assertNull(history.getLatesResultsByAgent(player1));
+    }
+
+    @Test
+    public void testOrderAndPayoffs() {
+        List<GameResult> results = history.getResultsByAgent(player3);
+        assertTrue(results.get(0).getOtherAgent(player3) == player2);
+        assertTrue(results.get(1).getOtherAgent(player3) == player1);
+        GameResult result = results.get(1);
+        assertEquals(((ConcreteGame) game).getCN1(), result.getPayoff(player1));
+        assertEquals(((ConcreteGame) game).getCN2(), result.getPayoff(player3));
+        assertTrue(history.getAllResults().get(2).hasAgent(player2));
+    }
+
+    @Test
+    public void testCapacity() {
+        SimulationHistoryBuffer ring = new SimulationHistoryBuffer(store, game, 2);
+        ring.addResult(game.play(player1, player2, true, true));
+        ring.addResult(game.play(player1, player3, true, false));
+        ring.addResult(game.play(player3, player2, false, false));
+        assertEquals(2, ring.getAllResults().size());
+        assertEquals(1, ring.getResultsByAgent(player1).size());
+        assertEquals(1, ring.getResultsByAgent(player2).size());
+        assertEquals(2, ring.getResultsByAgent(player3).size());
+        assertFalse(ring.getResultsByAgent(player1).get(0).hasAgent(player2));
+    }
+
+    /**
+     * Tests that a history retaining the last games of every agent returns the same games as an unbounded history,
+     * restricted to the games that are among the most recent games of one of their players.
+     */
+    @Test
+    public void testRetainLastGames() {
+        for (int i = 0; i < 5; i++) {
+            store.addAgent(0, PureStrategy.alwaysCooperate(), -1);
+        }
+        SimulationHistoryBuffer full = new SimulationHistoryBuffer(store, game);
+        SimulationHistoryBuffer window = new SimulationHistoryBuffer(store, game);
+        window.retainLastGames(3);
+        assertEquals(3, window.getRetainedGamesPerAgent());
+
+        Random random = new Random(3);
+        List<GameResult> added = new ArrayList<GameResult>();
+        for (int i = 0; i < 100; i++) {
+            Agent p1 = store.getAgent(random.nextInt(store.size()));
+            Agent p2 = store.getAgent(random.nextInt(store.size()));
+            if (p1 == p2) continue;
+            GameResult result = game.play(p1, p2, random.nextBoolean(), random.nextBoolean());
+            full.addResult(result);
+            window.addResult(result);
+            added.add(result);
+        }
+
+        //a game is retained if one of its players played less than three games after it
+        int[] laterGames = new int[store.size()];
+        List<GameResult> expected = new ArrayList<GameResult>();
+        for (int i = added.size() - 1; i >= 0; i--) {
+            GameResult result = added.get(i);
+            int first = result.getFirstAgent().getIndex();
+            int second = result.getSecondAgent().getIndex();
+            if (laterGames[first] < 3 || laterGames[second] < 3)
+                expected.add(result);
+            laterGames[first]++;
+            laterGames[second]++;
+        }
+        assertSameResults(expected, window.getAllResults());
+        assertEquals(expected.size(), window.size());
+        for (int i = 0; i < store.size(); i++) {
+            Agent agent = store.getAgent(i);
+            List<GameResult> results = full.getResultsByAgent(agent);
+            assertSameResults(results.subList(0, Math.min(3, results.size())), window.getResultsByAgent(agent));
+            assertSameResults(Arrays.asList(full.getLatesResultsByAgent(agent)),
+                    Arrays.asList(window.getLatesResultsByAgent(agent)));
+        }
+        assertSameResults(full.getLatestResults(), window.getLatestResults());
+        assertSameResults(expected.subList(0, 1), Arrays.asList(window.getLatestWhere(result -> true)));
+
+        window.reset();
+        assertEquals(0, window.getAllResults().size());
+        assertEquals(0, window.getResultsByAgent(player1).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRetainLastGamesWithCapacity() {
+        new SimulationHistoryBuffer(store, game, 2).retainLastGames(1);
+    }
+
+    private boolean isSameResult(GameResult a, GameResult b) {
+        return a.getFirstAgent() == b.getFirstAgent() && a.getSecondAgent() == b.getSecondAgent()
+                && a.hasCooperated(a.getFirstAgent()) == b.hasCooperated(b.getFirstAgent())
+                && a.hasCooperated(a.getSecondAgent()) == b.hasCooperated(b.getSecondAgent())
+                && a.getPayoff(a.getFirstAgent()) == b.getPayoff(b.getFirstAgent())
+                && a.getPayoff(a.getSecondAgent()) == b.getPayoff(b.getSecondAgent());
+    }
+
+    private void assertSameResults(List<GameResult> expected, List<GameResult> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertTrue(isSameResult(expected.get(i), actual.get(i)));
+        }
+    }
+
+    /**
+     * Tests that cooperation probabilities are cached until a game is added, the history is reset or the strategy
+     * of one of the agents changes.
+     */
+    @Test
+    public void testCooperationCache() {
+        int[] evaluations = new int[1];
+        Strategy titForTat = PureStrategy.titForTat();
+        Strategy counting = new Strategy() {
+            @Override
+            public String getName() {
+                return "counting";
+            }
+
+            @Override
+            public String getDescription() {
+                return "";
+            }
+
+            @Override
+            public boolean isCooperative(Agent player, Agent opponent, SimulationHistory history) {
+                return titForTat.isCooperative(player, opponent, history);
+            }
+
+            @Override
+            public double getCooperationProbability(Agent player, Agent opponent, SimulationHistory history) {
+                evaluations[0]++;
+                return titForTat.getCooperationProbability(player, opponent, history);
+            }
+        };
+        player2.setStrategy(counting);
+        history.enableCooperationCache(16);
+
+        assertEquals(0.0, history.getCooperationProbability(player2, player3), 0);
+        assertEquals(0.0, history.getCooperationProbability(player2, player3), 0);
+        assertEquals(1.0, history.getCooperationProbability(player2, player1), 0);
+        assertEquals(2, evaluations[0]);
+
+        history.addResult(game.play(player3, player2, true, false));
+        assertEquals(1.0, history.getCooperationProbability(player2, player3), 0);
+        assertEquals(3, evaluations[0]);
+
+        player3.setStrategy(PureStrategy.alwaysCooperate());
+        history.getCooperationProbability(player2, player3);
+        assertEquals(4, evaluations[0]);
+
+        history.reset();
+        assertEquals(1.0, history.getCooperationProbability(player2, player3), 0);
+        assertEquals(5, evaluations[0]);
+        history.getCooperationProbability(player2, player3);
+        assertEquals(5, evaluations[0]);
+    }
+
+    @Test
+    public void testAgentActivity() {
+        AgentActivity activity = history.getAgentActivity();
+        long stamp = activity.getStamp();
+        assertFalse(activity.hasPlayedSince(player1.getIndex(), stamp));
+
+        history.setRecording(false);
+        history.addResult(game.play(player1, player2, true, true));
+        assertTrue(activity.hasPlayedSince(player1.getIndex(), stamp));
+        assertFalse(activity.hasPlayedSince(player3.getIndex(), stamp));
+        assertEquals(player2.getIndex(), activity.getOnlyOpponentSince(player1.getIndex(), stamp));
+
+        history.addResult(game.play(player3, player1, true, true));
+        assertEquals(-1, activity.getOnlyOpponentSince(player1.getIndex(), stamp));
+        assertEquals(player1.getIndex(), activity.getOnlyOpponentSince(player3.getIndex(), stamp));
+        assertFalse(activity.wasResetSince(stamp));
+
+        history.reset();
+        assertTrue(activity.wasResetSince(stamp));
+        assertFalse(activity.wasResetSince(activity.getStamp()));
+    }
+}
@@ -8,7 +8,10 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import loop.model.simulationengine.distributions.RandomSource;
 import loop.model.simulationengine.strategies.MixedStrategy;
+import loop.model.simulationengine.strategies.PureStrategy;
+import loop.model.simulationengine.strategies.Strategy;
 
 /**
  * Tests implementations of the {@link StrategyAdjuster} interface.
@@ -53,6 +56,36 @@ public class StrategyAdjusterTest {
         }        
     }
     
+    /**
+     * Tests that adapting the strategies with a {@link Ranking} has the same effect as adapting them with the
+     * ordered list of the ranking.
+     */
+    @Test
+    public void testRankingMatchesList() {
+        StrategyAdjuster[] adjusters = {new ReplicatorDynamic(0.5, 1.0), new PreferentialAdaption(0.5, 1.0)};
+        for (StrategyAdjuster adjuster: adjusters) {
+            List<Agent> byList = agentsWithTwoStrategies(200);
+            List<Agent> byRanking = agentsWithTwoStrategies(200);
+            RandomSource.bind(new RandomSource(7));
+            adjuster.adaptStrategies(byList, new SimulationHistoryTable());
+            RandomSource.bind(new RandomSource(7));
+            adjuster.adaptStrategies(new Ranking(byRanking), new SimulationHistoryTable());
+            RandomSource.bind(null);
+            for (int i = 0; i < byList.size(); i++) {
+                assertEquals(byList.get(i).getStrategy().getName(), byRanking.get(i).getStrategy().getName());
+            }
+        }
+    }
+    
+    private List<Agent> agentsWithTwoStrategies(int agentCount) {
+        List<Agent> agents = TestUtility.getStandardAgents(agentCount, false);
+        Strategy grim = PureStrategy.grim();
+        for (int i = 0; i < agentCount; i += 2) {
+            agents.get(i).setStrategy(grim);
+        }
+        return agents;
+    }
+    
     private void testStrategiesValidOnEmptyHistory(StrategyAdjuster strategyAdjuster) {
         //initialise agents
         int agentCount = 1000;
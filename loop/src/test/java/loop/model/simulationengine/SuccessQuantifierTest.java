@@ -2,6 +2,7 @@ package loop.model.simulationengine;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.After;
@@ -52,6 +53,61 @@ public class SuccessQuantifierTest {
         testRankingValidOnNonEmptyHistory(slidingMean);
     }
     
+    /**
+     * Tests that the streaming variant of {@link SlidingMean} creates the same ranking as the parallel one.
+     */
+    @Test
+    public void testSlidingMeanVariantsAgree() {
+        List<Agent> agents = TestUtility.getStandardAgents(300, false);
+        SimulationHistory history = TestUtility.getHistory(agents, 60);
+        for (int w : new int[] {1, 7, 500}) {
+            List<Agent> parallel = new SlidingMean(w).createRanking(agents, history);
+            List<Agent> streamed = new SlidingMean(w, true).createRanking(agents, history);
+            assertEquals(agents.size(), parallel.size());
+            for (int i = 0; i < parallel.size(); i++) {
+                assertTrue(parallel.get(i) == streamed.get(i));
+            }
+        }
+    }
+    
+    /**
+     * Tests that {@link PayoffInLastAdapt} creates the same ranking from accumulated payoffs as from the history,
+     * and that agents with equal payoffs keep their order.
+     */
+    @Test
+    public void testOnlineRanking() {
+        List<Agent> agents = TestUtility.getStandardAgents(200, false);
+        long[] payoffs = new long[agents.size()];
+        for (Agent agent: agents) {
+            payoffs[agent.getIndex()] = agent.getIndex() % 7;
+        }
+        List<Agent> ranking = new PayoffInLastAdapt().createRanking(new ArrayList<Agent>(agents), payoffs);
+        assertEquals(agents.size(), ranking.size());
+        for (int i = 1; i < ranking.size(); i++) {
+            long previous = payoffs[ranking.get(i - 1).getIndex()];
+            long current = payoffs[ranking.get(i).getIndex()];
+            assertTrue(previous > current || (previous == current
+                    && ranking.get(i - 1).getIndex() < ranking.get(i).getIndex()));
+        }
+        
+        SimulationHistory history = TestUtility.getHistory(agents, 20);
+        long[] accumulated = new long[agents.size()];
+        for (GameResult result: history.getAllResults()) {
+            accumulated[result.getFirstAgent().getIndex()] += result.getPayoff(result.getFirstAgent());
+            accumulated[result.getSecondAgent().getIndex()] += result.getPayoff(result.getSecondAgent());
+        }
+        List<Agent> online = new PayoffInLastAdapt().createRanking(new ArrayList<Agent>(agents), accumulated);
+        List<Agent> offline = new PayoffInLastAdapt().createRanking(new ArrayList<Agent>(agents), history);
+        for (int i = 0; i < agents.size(); i++) {
+            assertTrue(online.get(i) == offline.get(i));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testSlidingMeanInvalidWindow() {
+        new SlidingMean(0);
+    }
+    
     private void testRankingValidOnEmptyHistory(SuccessQuantifier successQuantifier) {
         //initialise agents
         int agentCount = 1000;
@@ -0,0 +1,41 @@
+package loop.model.simulationengine.distributions;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * This class holds tests for the {@link AliasTable} class.
+ */
+public class AliasTableTest {
+
+	/**
+	 * Test that indices are sampled with frequencies proportional to their weights
+	 */
+	@Test
+	public void testSample() {
+		double[] weights = {1, 0, 3, 0.5, 5.5};
+		AliasTable table = new AliasTable(weights);
+		assertEquals(5, table.size());
+		RandomSource random = new RandomSource(11);
+		int samples = 100000;
+		int[] counts = new int[weights.length];
+		for (int i = 0; i < samples; i++) {
+			counts[table.sample(random)]++;
+		}
+		for (int i = 0; i < weights.length; i++) {
+			assertEquals(weights[i] / 10, counts[i] / (double) samples, 0.01);
+		}
+		assertEquals(0, counts[1]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeWeight() {
+		new AliasTable(new double[] {1, -1});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroWeights() {
+		new AliasTable(new double[] {0, 0});
+	}
+}
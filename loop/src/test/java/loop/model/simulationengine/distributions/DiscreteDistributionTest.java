@@ -93,6 +93,39 @@ public class DiscreteDistributionTest {
         assertTrue(uniformPicker.pickMany(size).size() == size);
     }
     
+    /**
+     * Tests picking many values at once with {@link DiscreteDistribution#sample(int, RandomSource)}.
+     */
+    @Test
+    public void testSample() {
+        int size = 100000;
+        testSample(new PoissonDistribution(4.5), size, 4.5, 4.5);
+        testSample(new BinomialDistribution(1000, 1100, 0.3), size, 1030, 21);
+        testSample(new DiscreteUniformDistribution(-3, 6), size, 1.5, 8.25);
+        testSample(new DiscreteUniformDistribution(Integer.MIN_VALUE, Integer.MAX_VALUE), size, -0.5, Math.pow(2, 64) / 12);
+        
+        //the same seed yields the same values
+        DiscreteDistribution distribution = new BinomialDistribution(0, 50, 0.5);
+        assertArrayEquals(distribution.sample(100, new RandomSource(11)), distribution.sample(100, new RandomSource(11)));
+        assertEquals(0, distribution.sample(0, new RandomSource(11)).length);
+    }
+    
+    private void testSample(DiscreteDistribution distribution, int size, double mean, double variance) {
+        int[] values = distribution.sample(size, new RandomSource(42));
+        assertEquals(size, values.length);
+        double sum = 0;
+        double squareSum = 0;
+        for (int value: values) {
+            assertTrue(distribution.getProbability(value) > 0);
+            sum += value;
+            squareSum += (double) value * value;
+        }
+        double sampleMean = sum / size;
+        double sampleVariance = squareSum / size - sampleMean * sampleMean;
+        assertEquals(mean, sampleMean, 5 * Math.sqrt(variance / size));
+        assertEquals(variance, sampleVariance, 0.05 * variance);
+    }
+    
     /**
      * Tests whether the support bounds returned by a given discrete distribution
      * are consistent with the returned probabilities.
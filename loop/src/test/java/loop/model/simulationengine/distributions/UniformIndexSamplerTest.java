@@ -0,0 +1,81 @@
+package loop.model.simulationengine.distributions;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * This class holds tests for the {@link UniformIndexSampler} class.
+ */
+public class UniformIndexSamplerTest {
+
+	/**
+	 * Tests removing and restoring indices
+	 */
+	@Test
+	public void testRemoveRestore() {
+		UniformIndexSampler sampler = new UniformIndexSampler(5);
+		assertEquals(5, sampler.size());
+		assertTrue(sampler.remove(2));
+		assertFalse(sampler.remove(2));
+		assertFalse(sampler.contains(2));
+		assertTrue(sampler.remove(0));
+		assertEquals(3, sampler.size());
+
+		RandomSource random = new RandomSource(3);
+		for (int i = 0; i < 100; i++) {
+			int index = sampler.pick(random);
+			assertTrue(index == 1 || index == 3 || index == 4);
+		}
+
+		assertTrue(sampler.restore(2));
+		assertFalse(sampler.restore(2));
+		assertFalse(sampler.restore(7));
+		assertTrue(sampler.contains(2));
+		assertFalse(sampler.contains(0));
+		assertEquals(4, sampler.size());
+	}
+
+	/**
+	 * Tests that picking and removing draws every index exactly once
+	 */
+	@Test
+	public void testPickAndRemove() {
+		int n = 1000;
+		UniformIndexSampler sampler = new UniformIndexSampler(n);
+		RandomSource random = new RandomSource(5);
+		boolean[] drawn = new boolean[n];
+		while (!sampler.isEmpty()) {
+			int index = sampler.pickAndRemove(random);
+			assertFalse(drawn[index]);
+			drawn[index] = true;
+		}
+		for (boolean d : drawn) {
+			assertTrue(d);
+		}
+	}
+
+	/**
+	 * Test that the remaining indices are picked uniformly
+	 */
+	@Test
+	public void testUniformity() {
+		UniformIndexSampler sampler = new UniformIndexSampler(4);
+		sampler.remove(1);
+		RandomSource random = new RandomSource(9);
+		int samples = 90000;
+		int[] counts = new int[4];
+		for (int i = 0; i < samples; i++) {
+			counts[sampler.pick(random)]++;
+		}
+		assertEquals(0, counts[1]);
+		for (int i : new int[] {0, 2, 3}) {
+			assertEquals(1.0 / 3, counts[i] / (double) samples, 0.01);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPickFromEmpty() {
+		new UniformIndexSampler(0).pick(new RandomSource(1));
+	}
+}
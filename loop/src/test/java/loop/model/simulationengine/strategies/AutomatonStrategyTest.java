@@ -0,0 +1,103 @@
+package loop.model.simulationengine.strategies;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import loop.model.simulationengine.Agent;
+import loop.model.simulationengine.AgentStore;
+import loop.model.simulationengine.ConcreteGame;
+import loop.model.simulationengine.Game;
+import loop.model.simulationengine.GameResult;
+import loop.model.simulationengine.SimulationHistory;
+import loop.model.simulationengine.SimulationHistoryBuffer;
+import loop.model.simulationengine.SimulationHistoryTable;
+
+/**
+ * This class holds tests for the {@link AutomatonStrategy} class.
+ */
+public class AutomatonStrategyTest {
+    private Game game = ConcreteGame.prisonersDilemma();
+    private List<AutomatonStrategy> automata;
+    private AgentStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        automata = new ArrayList<AutomatonStrategy>();
+        for (PureStrategy strategy: Arrays.asList(PureStrategy.titForTat(), PureStrategy.grim(),
+                PureStrategy.alwaysCooperate(), PureStrategy.neverCooperate(),
+                PureStrategy.opponentAlwaysCooperated(), PureStrategy.opponentCooperatedAtLeastOnce(),
+                PureStrategy.opponentCooperatedLastTime(), PureStrategy.opponentCooperatedNever(),
+                PureStrategy.currAgentAlwaysCooperated(), PureStrategy.currAgentCooperatedAtLeastOnce(),
+                PureStrategy.currAgentCooperatedLastTime(), PureStrategy.currAgentCooperatedNever())) {
+            assertTrue(strategy instanceof AutomatonStrategy);
+            automata.add((AutomatonStrategy) strategy);
+        }
+        store = new AgentStore();
+        for (int i = 0; i < 6; i++) {
+            store.addAgent(0, automata.get(i), -1);
+        }
+    }
+
+    /**
+     * Tests that the automaton states, the conditions of the built-in strategies and a replay of the
+     * history lead to the same decisions.
+     */
+    @Test
+    public void testEquivalence() {
+        SimulationHistoryBuffer stateHistory = new SimulationHistoryBuffer(store, game);
+        stateHistory.enableAutomatonStates(automata);
+        stateHistory.setRecording(false);
+        SimulationHistory plainHistory = new SimulationHistoryTable();
+
+        List<AutomatonStrategy> replaying = new ArrayList<AutomatonStrategy>();
+        for (AutomatonStrategy automaton: automata) {
+            boolean[] cooperates = new boolean[automaton.getStateCount()];
+            int[] transitions = new int[4 * automaton.getStateCount()];
+            for (int state = 0; state < automaton.getStateCount(); state++) {
+                cooperates[state] = automaton.cooperates(state);
+                for (int move = 0; move < 4; move++) {
+                    transitions[4 * state + move] = automaton.nextState(state, move < 2, move % 2 == 0);
+                }
+            }
+            replaying.add(new AutomatonStrategy(automaton.getName(), "", cooperates, transitions));
+        }
+
+        Random random = new Random(7);
+        for (int round = 0; round < 100; round++) {
+            Agent p1 = store.getAgent(random.nextInt(3));
+            Agent p2 = store.getAgent(3 + random.nextInt(3));
+            GameResult result = game.play(p1, p2, random.nextBoolean(), random.nextBoolean());
+            stateHistory.addResult(result);
+            plainHistory.addResult(result);
+
+            for (int a = 0; a < automata.size(); a++) {
+                AutomatonStrategy automaton = automata.get(a);
+                boolean expected = automaton.isCooperative(p1, p2, plainHistory);
+                assertEquals(automaton.getName(), expected, automaton.isCooperative(p1, p2, stateHistory));
+                assertEquals(automaton.getName(), expected, replaying.get(a).isCooperative(p1, p2, plainHistory));
+                expected = automaton.isCooperative(p2, p1, plainHistory);
+                assertEquals(automaton.getName(), expected, automaton.isCooperative(p2, p1, stateHistory));
+                assertEquals(automaton.getName(), expected, replaying.get(a).isCooperative(p2, p1, plainHistory));
+            }
+        }
+        assertEquals(0, stateHistory.getAllResults().size());
+
+        stateHistory.reset();
+        assertTrue(PureStrategy.grim().isCooperative(store.getAgent(0), store.getAgent(3), stateHistory));
+    }
+
+    /**
+     * Tests that invalid transition tables are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTransitions() {
+        new AutomatonStrategy("invalid", "", new boolean[] {true, false}, new int[] {0, 1, 2, 0, 0, 0, 0, 0});
+    }
+}
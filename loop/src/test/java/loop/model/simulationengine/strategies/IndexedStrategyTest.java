@@ -0,0 +1,112 @@
+package loop.model.simulationengine.strategies;
+
+import static org.junit.Assert.*;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiPredicate;
+
+import org.junit.Test;
+
+import loop.model.simulationengine.Agent;
+import loop.model.simulationengine.AgentPair;
+import loop.model.simulationengine.AgentStore;
+import loop.model.simulationengine.ConcreteGame;
+import loop.model.simulationengine.Game;
+import loop.model.simulationengine.GameResult;
+import loop.model.simulationengine.SimulationHistory;
+import loop.model.simulationengine.SimulationHistoryBuffer;
+import loop.model.simulationengine.SimulationHistoryTable;
+import loop.model.simulationengine.strategy.strategybuilder.ConcreteOperator;
+
+/**
+ * This class holds tests for the {@link IndexedStrategy} interface and its implementations.
+ */
+public class IndexedStrategyTest {
+	private Game game = ConcreteGame.prisonersDilemma();
+
+	/**
+	 * Plays random games and checks that evaluating the strategies by agent indices leads to the same decisions as
+	 * evaluating them by agents on a history without summaries.
+	 */
+	@Test
+	public void testIndexedEvaluation() {
+		AgentStore store = new AgentStore();
+		for (int i = 0; i < 8; i++) {
+			store.addAgent(10 * i, PureStrategy.alwaysCooperate(), i % 3 - 1);
+		}
+		SimulationHistoryBuffer history = new SimulationHistoryBuffer(store, game);
+		history.enableInteractionSummary();
+		SimulationHistory plainHistory = new SimulationHistoryTable();
+
+		Random random = new Random(11);
+		for (int i = 0; i < 100; i++) {
+			Agent p1 = store.getAgent(random.nextInt(store.size()));
+			Agent p2 = store.getAgent(random.nextInt(store.size()));
+			if (p1 == p2) continue;
+			GameResult result = game.play(p1, p2, random.nextInt(3) > 0, random.nextInt(3) > 0);
+			history.addResult(result);
+			plainHistory.addResult(result);
+		}
+
+		BiPredicate<AgentPair, SimulationHistory> lambda = (BiPredicate<AgentPair, SimulationHistory> & Serializable)
+				(pair, hist) -> pair.getFirstAgent().getCapital() + hist.getResultsByAgent(pair.getSecondAgent()).size() > 40;
+		List<PureStrategy> strategies = new ArrayList<PureStrategy>(Arrays.asList(PureStrategy.groupTitForTat(),
+				PureStrategy.groupGrim(), PureStrategy.opponentHasHigherCapital(), PureStrategy.opponentHasLowerCapital(),
+				PureStrategy.opponentHasSimilarCapital(0.3), PureStrategy.opponentIsInTheSameGroup(),
+				new PureStrategy("lambda", "", lambda)));
+		strategies.add((PureStrategy) ConcreteOperator.AND().combineStrategies(
+				Arrays.asList(PureStrategy.groupGrim(), PureStrategy.opponentHasLowerCapital())));
+		strategies.add((PureStrategy) ConcreteOperator.NOT().combineStrategies(
+				Arrays.asList(PureStrategy.groupTitForTat())));
+
+		for (PureStrategy strategy : strategies) {
+			for (int i = 0; i < store.size(); i++) {
+				for (int j = 0; j < store.size(); j++) {
+					boolean expected = strategy.isCooperative(store.getAgent(i), store.getAgent(j), plainHistory);
+					assertEquals(strategy.getName(), expected, strategy.isCooperative(i, j, history));
+					assertEquals(strategy.getName(), expected, IndexedStrategy.cooperates(strategy, i, j, history));
+					assertEquals(strategy.getName(), expected ? 1.0 : 0.0, strategy.getCooperationProbability(i, j, history), 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests that strategies which do not implement the interface are adapted to agent indices.
+	 */
+	@Test
+	public void testAdaptedStrategy() {
+		AgentStore store = new AgentStore();
+		Agent rich = store.addAgent(100, PureStrategy.alwaysCooperate(), -1);
+		Agent poor = store.addAgent(0, PureStrategy.alwaysCooperate(), -1);
+		SimulationHistoryBuffer history = new SimulationHistoryBuffer(store, game);
+		Strategy strategy = new Strategy() {
+			@Override
+			public String getName() {
+				return "richer";
+			}
+
+			@Override
+			public String getDescription() {
+				return "";
+			}
+
+			@Override
+			public boolean isCooperative(Agent player, Agent opponent, SimulationHistory history) {
+				return player.getCapital() > opponent.getCapital();
+			}
+
+			@Override
+			public double getCooperationProbability(Agent player, Agent opponent, SimulationHistory history) {
+				return isCooperative(player, opponent, history) ? 1 : 0;
+			}
+		};
+		assertTrue(IndexedStrategy.cooperates(strategy, rich.getIndex(), poor.getIndex(), history));
+		assertFalse(IndexedStrategy.cooperates(strategy, poor.getIndex(), rich.getIndex(), history));
+		assertEquals(1.0, IndexedStrategy.cooperationProbability(strategy, rich.getIndex(), poor.getIndex(), history), 0);
+	}
+}
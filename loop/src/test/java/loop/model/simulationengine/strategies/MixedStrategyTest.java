@@ -3,7 +3,9 @@ package loop.model.simulationengine.strategies;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -11,6 +13,7 @@ import org.junit.Test;
 import loop.model.simulationengine.Agent;
 import loop.model.simulationengine.GameResult;
 import loop.model.simulationengine.SimulationHistoryTable;
+import loop.model.simulationengine.distributions.RandomSource;
 
 /**
  * This class holds tests for implementations of the {@link MixedStrategy} class.
@@ -345,4 +348,99 @@ public class MixedStrategyTest {
 		assertEquals(0.5, testMixedStrategy.getCooperationProbability(player, opponent, history), 0);
 		assertEquals(0, testMixedStrategy.getCooperationProbability(opponent, player, history), 0);
 	}
+
+	/**
+	 * Tests the implementation of the method interpolate and the unchecked creation of mixed strategies
+	 */
+	@Test
+	public void testInterpolate() {
+		MixedStrategy target = MixedStrategy.createUnchecked("target", "", strategies, new double[] {0.0, 0.0, 1.0});
+		assertTrue(target.getComponentStrategies() == strategies);
+		MixedStrategy copy = testMixedStrategy.copy();
+		copy.interpolate(target, 0.5);
+		assertEquals(0.25, copy.getProbability(0), 1e-12);
+		assertEquals(0.15, copy.getProbability(1), 1e-12);
+		assertEquals(0.6, copy.getProbability(2), 1e-12);
+		assertEquals(0.5, testMixedStrategy.getProbability(0), 0);
+		assertEquals(1, copy.getSumNorm(), 1e-12);
+	}
+	
+	/**
+	 * Tests that component strategies are chosen with their probabilities, also after the probabilities changed
+	 */
+	@Test
+	public void testChooseStrategy() {
+		Agent player = new Agent(0, testMixedStrategy, 1);
+		Agent opponent = new Agent(0, testMixedStrategy, 2);
+		SimulationHistoryTable history = new SimulationHistoryTable();
+		RandomSource.bind(new RandomSource(5));
+		try {
+			int samples = 20000;
+			int cooperations = 0;
+			for (int i = 0; i < samples; i++) {
+				if (testMixedStrategy.isCooperative(player, opponent, history)) cooperations++;
+			}
+			assertEquals(0.8, cooperations / (double) samples, 0.02);
+			
+			testMixedStrategy.setComponent(0, 0.1);
+			testMixedStrategy.setComponent(2, 0.6);
+			cooperations = 0;
+			for (int i = 0; i < samples; i++) {
+				if (testMixedStrategy.isCooperative(player, opponent, history)) cooperations++;
+			}
+			assertEquals(0.4, cooperations / (double) samples, 0.02);
+		} finally {
+			RandomSource.bind(null);
+		}
+	}
+
+	/**
+	 * Tests that mixed strategies with few non-zero probabilities are stored sparsely, that interpolating sparse
+	 * strategies gives the same probabilities as the dense computation and that strategies become dense once their
+	 * support grows
+	 */
+	@Test
+	public void testSparseStrategies() {
+		List<Strategy> library = new ArrayList<Strategy>();
+		for (int i = 0; i < 16; i++) {
+			library.add((i % 2 == 0) ? titfortat : neverCooperate);
+		}
+		double[] reference = new double[16];
+		reference[3] = 1.0;
+		MixedStrategy strategy = MixedStrategy.createUnchecked("sparse", "", library, reference.clone());
+		assertTrue(strategy.isSparse());
+		assertEquals(1, strategy.getSupportSize());
+		assertEquals(3, strategy.getSupportIndex(0));
+		
+		Random random = new java.util.Random(9);
+		for (int step = 0; step < 3; step++) {
+			double[] probabilities = new double[16];
+			probabilities[random.nextInt(16)] = 1.0;
+			MixedStrategy target = MixedStrategy.createUnchecked("target", "", library, probabilities);
+			double weight = random.nextDouble();
+			strategy.interpolate(target, weight);
+			for (int i = 0; i < 16; i++) {
+				reference[i] += weight * (probabilities[i] - reference[i]);
+			}
+			for (int i = 0; i < 16; i++) {
+				assertEquals(reference[i], strategy.getProbability(i), 1e-12);
+			}
+			assertEquals(1, strategy.getSumNorm(), 1e-12);
+		}
+		
+		Agent player = new Agent(0, strategy, 1);
+		Agent opponent = new Agent(0, strategy, 2);
+		double expected = 0;
+		for (int i = 0; i < 16; i += 2) {
+			expected += reference[i];
+		}
+		assertEquals(expected, strategy.getCooperationProbability(player, opponent, new SimulationHistoryTable()), 1e-12);
+		
+		double[] uniform = new double[16];
+		Arrays.fill(uniform, 1.0 / 16);
+		strategy.interpolate(MixedStrategy.createUnchecked("uniform", "", library, uniform), 0.5);
+		assertFalse(strategy.isSparse());
+		assertEquals(16, strategy.getSupportSize());
+		assertEquals(1, strategy.getSumNorm(), 1e-12);
+	}
 }
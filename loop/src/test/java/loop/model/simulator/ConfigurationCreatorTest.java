@@ -18,6 +18,7 @@ import loop.model.Segment;
 import loop.model.UserConfiguration;
 import loop.model.repository.CentralRepository;
 import loop.model.simulationengine.ConcreteGame;
+import loop.model.simulationengine.EfficiencyMode;
 import loop.model.simulationengine.Configuration;
 import loop.model.simulationengine.EngineSegment;
 import loop.model.simulationengine.RandomPairBuilder;
@@ -106,6 +107,59 @@ public class ConfigurationCreatorTest {
         testSegments(config);
     }
     
+    @Test
+    public void testIterationSeeds() {
+        UserConfiguration userConfig = new UserConfiguration(gameName, roundCount, iterationCount, mixedAllowed, populationName, pairBuilderName,
+                pairBuilderParameters, successQuantifierName, successQuantifierParameters, strategyAdjusterName, strategyAdjusterParameters,
+                equilibriumCriterionName, equilibriumCriterionParameters, maxAdapts, false, null, 42);
+        assertEquals(42, userConfig.getSeed());
+        
+        long seed = ConfigurationCreator.iterationSeed(userConfig.getSeed(), 0, 3);
+        assertEquals(seed, ConfigurationCreator.iterationSeed(42, 0, 3));
+        assertNotEquals(seed, ConfigurationCreator.iterationSeed(42, 0, 4));
+        assertNotEquals(seed, ConfigurationCreator.iterationSeed(42, 1, 3));
+        assertNotEquals(seed, ConfigurationCreator.iterationSeed(43, 0, 3));
+        
+        Configuration config = null;
+        try {
+            config = ConfigurationCreator.generateConfiguration(userConfig, 0, seed);
+        } catch (ConfigurationException e) {
+            e.printStackTrace();
+            fail("ConfigurationException occured.");
+        }
+        assertEquals(seed, config.getRandomSource().getSeed());
+        testAlgorithmClasses(config);
+        testSegments(config);
+    }
+    
+    @Test
+    public void testEfficiencyMode() throws ConfigurationException {
+        //chosen by the amount of agents by default
+        UserConfiguration userConfig = new UserConfiguration(gameName, roundCount, iterationCount, mixedAllowed, populationName, pairBuilderName,
+                pairBuilderParameters, successQuantifierName, successQuantifierParameters, strategyAdjusterName, strategyAdjusterParameters,
+                equilibriumCriterionName, equilibriumCriterionParameters, maxAdapts, false, null, 42);
+        assertNull(userConfig.getEfficiencyMode());
+        Configuration config = ConfigurationCreator.generateConfigurations(userConfig).get(0);
+        int agentCount = config.getSegments().stream().mapToInt(seg -> seg.getAgentCount()).sum();
+        assertEquals(agentCount >= ConfigurationCreator.PARALLEL_EFFICIENCY_MIN_AGENTS ? EfficiencyMode.PARALLEL : EfficiencyMode.EXACT,
+                config.getEfficiencyMode());
+        
+        //given by the user configuration
+        userConfig = new UserConfiguration(gameName, roundCount, iterationCount, mixedAllowed, populationName, pairBuilderName,
+                pairBuilderParameters, successQuantifierName, successQuantifierParameters, strategyAdjusterName, strategyAdjusterParameters,
+                equilibriumCriterionName, equilibriumCriterionParameters, maxAdapts, false, null, 42, EfficiencyMode.SAMPLED, 0.01);
+        config = ConfigurationCreator.generateConfigurations(userConfig).get(0);
+        assertEquals(EfficiencyMode.SAMPLED, config.getEfficiencyMode());
+        assertEquals(0.01, config.getEfficiencyError(), 0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testSampledEfficiencyWithoutError() {
+        new UserConfiguration(gameName, roundCount, iterationCount, mixedAllowed, populationName, pairBuilderName,
+                pairBuilderParameters, successQuantifierName, successQuantifierParameters, strategyAdjusterName, strategyAdjusterParameters,
+                equilibriumCriterionName, equilibriumCriterionParameters, maxAdapts, false, null, 42, EfficiencyMode.SAMPLED, 0);
+    }
+    
     @Test
     public void testMultiRoundCount() {
         int start = 100;